@@ -283,6 +283,7 @@ public class Main
                 try {
                     logTasks(tasks, true);
 
+                    // Tasks run concurrently, but their sheets are admitted by SheetScheduler
                     List<Future<Void>> futures = OmrExecutors.getCachedLowExecutor().invokeAll(
                             tasks);
                     logger.info("Checking {} task(s)", tasks.size());
@@ -108,6 +108,9 @@ public abstract class AbstractClassifier<M extends Object>
     /** Entry name for standard deviation XML values. */
     public static final String STDS_XML_ENTRY_NAME = "stds.xml";
 
+    /** Shapes, indexed by ordinal. */
+    private static final Shape[] SHAPES = Shape.values();
+
     /** A special evaluation array, used to report NOISE. */
     private static final Evaluation[] noiseEvaluations = {
         new Evaluation(Shape.NOISE, Evaluation.ALGORITHM)};
@@ -149,6 +152,33 @@ public abstract class AbstractClassifier<M extends Object>
         return evaluate(glyph, null, count, minGrade, conditions, interline);
     }
 
+    //----------//
+    // evaluate //
+    //----------//
+    @Override
+    public Evaluation[][] evaluate (List<Glyph> glyphs,
+                                    SystemInfo system,
+                                    int count,
+                                    double minGrade,
+                                    EnumSet<Condition> conditions)
+    {
+        final int interline = system.getSheet().getInterline();
+        final double[][] grades = getNaturalGrades(glyphs, interline);
+        final Evaluation[][] results = new Evaluation[glyphs.size()][];
+
+        for (int i = 0; i < results.length; i++) {
+            final Glyph glyph = glyphs.get(i);
+
+            if (grades[i] == null) {
+                results[i] = select(glyph, system, count, minGrade, conditions, noiseEvaluations);
+            } else {
+                results[i] = select(glyph, system, count, minGrade, conditions, grades[i]);
+            }
+        }
+
+        return results;
+    }
+
     //---------------//
     // getDescriptor //
     //---------------//
@@ -224,6 +254,43 @@ public abstract class AbstractClassifier<M extends Object>
         return weight >= constants.minWeight.getValue();
     }
 
+    //------------------//
+    // getNaturalGrades //
+    //------------------//
+    /**
+     * Run the classifier on the provided batch of glyphs, and report for each glyph the
+     * grades of all shapes (ordered by Shape ordinal).
+     * <p>
+     * This default implementation processes one glyph after the other, subclasses may process
+     * the batch as a whole.
+     *
+     * @param glyphs    the glyphs to be examined
+     * @param interline the global sheet interline
+     * @return for each glyph, the shape-ordered grades, or null if glyph is too small
+     */
+    protected double[][] getNaturalGrades (List<Glyph> glyphs,
+                                           int interline)
+    {
+        final double[][] grades = new double[glyphs.size()][];
+
+        for (int i = 0; i < grades.length; i++) {
+            final Glyph glyph = glyphs.get(i);
+
+            if (isBigEnough(glyph, interline)) {
+                final Evaluation[] evals = getNaturalEvaluations(glyph, interline);
+                final double[] gs = new double[SHAPE_COUNT];
+
+                for (int s = 0; s < SHAPE_COUNT; s++) {
+                    gs[s] = evals[s].grade;
+                }
+
+                grades[i] = gs;
+            }
+        }
+
+        return grades;
+    }
+
     //----------------------//
     // getSortedEvaluations //
     //----------------------//
@@ -486,6 +553,44 @@ public abstract class AbstractClassifier<M extends Object>
         }
     }
 
+    //--------//
+    // accept //
+    //--------//
+    /**
+     * Check whether the provided evaluation can be appended to the best ones.
+     *
+     * @return true if appended
+     */
+    private boolean accept (Evaluation eval,
+                            List<Evaluation> bests,
+                            Glyph glyph,
+                            SystemInfo system,
+                            EnumSet<Classifier.Condition> conditions)
+    {
+        // Successful checks?
+        if ((conditions != null) && conditions.contains(Condition.CHECKED)) {
+            // This may change the eval shape in only one case:
+            // HW_REST_set may be changed for HALF_REST or WHOLE_REST based on pitch
+            glyphChecker.annotate(system, eval, glyph);
+
+            if (eval.failure != null) {
+                return false;
+            }
+        }
+
+        // Everything is OK, add the shape if not already in the list
+        // (this can happen when checks have modified the eval original shape)
+        for (Evaluation e : bests) {
+            if (e.shape == eval.shape) {
+                return false;
+            }
+        }
+
+        bests.add(eval);
+
+        return true;
+    }
+
     //----------//
     // evaluate //
     //----------//
@@ -495,37 +600,84 @@ public abstract class AbstractClassifier<M extends Object>
                                    double minGrade,
                                    EnumSet<Classifier.Condition> conditions,
                                    int interline)
+    {
+        return select(
+                glyph,
+                system,
+                count,
+                minGrade,
+                conditions,
+                getSortedEvaluations(glyph, interline));
+    }
+
+    //--------//
+    // select //
+    //--------//
+    /**
+     * Select the best acceptable evaluations among the sorted ones.
+     */
+    private Evaluation[] select (Glyph glyph,
+                                 SystemInfo system,
+                                 int count,
+                                 double minGrade,
+                                 EnumSet<Classifier.Condition> conditions,
+                                 Evaluation[] evals)
     {
         List<Evaluation> bests = new ArrayList<>();
-        Evaluation[] evals = getSortedEvaluations(glyph, interline);
 
-        EvalsLoop:
         for (Evaluation eval : evals) {
             // Bounding test?
             if ((bests.size() >= count) || (eval.grade < minGrade)) {
                 break;
             }
 
-            // Successful checks?
-            if ((conditions != null) && conditions.contains(Condition.CHECKED)) {
-                // This may change the eval shape in only one case:
-                // HW_REST_set may be changed for HALF_REST or WHOLE_REST based on pitch
-                glyphChecker.annotate(system, eval, glyph);
+            accept(eval, bests, glyph, system, conditions);
+        }
+
+        return bests.toArray(new Evaluation[bests.size()]);
+    }
 
-                if (eval.failure != null) {
-                    continue;
+    //--------//
+    // select //
+    //--------//
+    /**
+     * Select the best acceptable evaluations out of the shape-ordered grades.
+     * <p>
+     * Grades are browsed by decreasing value (and increasing shape ordinal for equal values), so
+     * that only the evaluations actually considered get allocated.
+     */
+    private Evaluation[] select (Glyph glyph,
+                                 SystemInfo system,
+                                 int count,
+                                 double minGrade,
+                                 EnumSet<Classifier.Condition> conditions,
+                                 double[] grades)
+    {
+        List<Evaluation> bests = new ArrayList<>(count);
+        double lastGrade = Double.POSITIVE_INFINITY;
+        int lastShape = -1;
+
+        while (bests.size() < count) {
+            // Find next best grade
+            int best = -1;
+
+            for (int s = 0; s < grades.length; s++) {
+                final double g = grades[s];
+
+                if ((g < lastGrade) || ((g == lastGrade) && (s > lastShape))) {
+                    if ((best == -1) || (g > grades[best])) {
+                        best = s;
+                    }
                 }
             }
 
-            // Everything is OK, add the shape if not already in the list
-            // (this can happen when checks have modified the eval original shape)
-            for (Evaluation e : bests) {
-                if (e.shape == eval.shape) {
-                    continue EvalsLoop;
-                }
+            if ((best == -1) || (grades[best] < minGrade)) {
+                break;
             }
 
-            bests.add(eval);
+            lastGrade = grades[best];
+            lastShape = best;
+            accept(new Evaluation(SHAPES[best], lastGrade), bests, glyph, system, conditions);
         }
 
         return bests.toArray(new Evaluation[bests.size()]);
@@ -85,6 +85,9 @@ public class BasicClassifier
     /** Training listener, if any. */
     private TrainingMonitor listener;
 
+    /** Per-thread buffers for batch evaluation. */
+    private final ThreadLocal<BatchBuffers> batchBuffers = new ThreadLocal<>();
+
     /**
      * Private constructor, to create a glyph neural network.
      */
@@ -264,12 +267,87 @@ public class BasicClassifier
         }
 
         // Train
-        model.train(inputs, desiredOutputs, listener, listener.getIterationPeriod());
+        final int batchSize = constants.batchSize.getValue();
+
+        if (batchSize > 1) {
+            model.trainByBatch(
+                    inputs,
+                    desiredOutputs,
+                    listener,
+                    listener.getIterationPeriod(),
+                    batchSize);
+        } else {
+            model.train(inputs, desiredOutputs, listener, listener.getIterationPeriod());
+        }
 
         // Store
         store(FILE_NAME);
     }
 
+    //------------------//
+    // getNaturalGrades //
+    //------------------//
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The network is run once on the whole batch of normalized feature vectors, using
+     * per-thread buffers.
+     * Beware, the reported grades arrays are these buffers, valid until the next call from the
+     * same thread.
+     *
+     * @param glyphs    the glyphs to be examined
+     * @param interline the global sheet interline
+     * @return for each glyph, the shape-ordered grades, or null if glyph is too small
+     */
+    @Override
+    protected double[][] getNaturalGrades (List<Glyph> glyphs,
+                                           int interline)
+    {
+        final NeuralNetwork network = model;
+        final Norms theNorms = norms;
+        final int size = glyphs.size();
+        final BatchBuffers buffers = getBatchBuffers(network, size);
+        final double[] means = buffers.means;
+        final double[] stds = buffers.stds;
+        final int inputSize = means.length;
+
+        for (int j = 0; j < inputSize; j++) {
+            means[j] = theNorms.means.getDouble(j);
+            stds[j] = theNorms.stds.getDouble(j);
+        }
+
+        // Gather normalized features of big enough glyphs
+        final int[] indices = buffers.indices;
+        int count = 0;
+
+        for (int i = 0; i < size; i++) {
+            final Glyph glyph = glyphs.get(i);
+
+            if (isBigEnough(glyph, interline)) {
+                final double[] ins = descriptor.getFeatures(glyph, interline);
+
+                for (int j = 0; j < inputSize; j++) {
+                    ins[j] = (ins[j] - means[j]) / stds[j];
+                }
+
+                buffers.inputs[count] = ins;
+                indices[count++] = i;
+            }
+        }
+
+        // Run the network on the whole batch
+        network.run(count, buffers.inputs, buffers.hiddens, buffers.outputs);
+
+        final double[][] grades = new double[size][];
+
+        for (int p = 0; p < count; p++) {
+            grades[indices[p]] = buffers.outputs[p];
+            buffers.inputs[p] = null;
+        }
+
+        return grades;
+    }
+
     //--------------//
     // isCompatible //
     //--------------//
@@ -437,6 +515,30 @@ public class BasicClassifier
                 getMaxEpochs());
     }
 
+    //-----------------//
+    // getBatchBuffers //
+    //-----------------//
+    /**
+     * Report the buffers of current thread, allocated or extended if needed.
+     *
+     * @param network the network to run
+     * @param size    the batch size
+     * @return the buffers of current thread, large enough for batch size
+     */
+    private BatchBuffers getBatchBuffers (NeuralNetwork network,
+                                          int size)
+    {
+        BatchBuffers buffers = batchBuffers.get();
+
+        if ((buffers == null) || !buffers.fits(network, size)) {
+            final int capacity = (buffers == null) ? size : Math.max(size, 2 * buffers.capacity);
+            buffers = new BatchBuffers(network, capacity);
+            batchBuffers.set(buffers);
+        }
+
+        return buffers;
+    }
+
     //-----------//
     // normalize //
     //-----------//
@@ -496,6 +598,73 @@ public class BasicClassifier
                 "Maximum number of epochs in training");
 
         private final Constant.Ratio momentum = new Constant.Ratio(0.2, "Training momentum");
+
+        private final Constant.Integer batchSize = new Constant.Integer(
+                "Samples",
+                1,
+                "Number of samples per training batch (1 for sample per sample training)");
+    }
+
+    //--------------//
+    // BatchBuffers //
+    //--------------//
+    /**
+     * Buffers for batch evaluation, to be used by a single thread.
+     */
+    private static class BatchBuffers
+    {
+
+        /** Number of patterns that can be processed at once. */
+        final int capacity;
+
+        /** Network dimensions. */
+        final int inputSize;
+
+        final int hiddenSize;
+
+        final int outputSize;
+
+        /** Features means. */
+        final double[] means;
+
+        /** Features standard deviations. */
+        final double[] stds;
+
+        /** Glyph index of each pattern. */
+        final int[] indices;
+
+        /** Normalized input vectors. */
+        final double[][] inputs;
+
+        /** Hidden vectors. */
+        final double[][] hiddens;
+
+        /** Output vectors. */
+        final double[][] outputs;
+
+        BatchBuffers (NeuralNetwork network,
+                      int capacity)
+        {
+            this.capacity = capacity;
+            inputSize = network.getInputSize();
+            hiddenSize = network.getHiddenSize();
+            outputSize = network.getOutputSize();
+
+            means = new double[inputSize];
+            stds = new double[inputSize];
+            indices = new int[capacity];
+            inputs = new double[capacity][];
+            hiddens = new double[capacity][hiddenSize];
+            outputs = new double[capacity][outputSize];
+        }
+
+        boolean fits (NeuralNetwork network,
+                      int size)
+        {
+            return (size <= capacity) && (inputSize == network.getInputSize())
+                   && (hiddenSize == network.getHiddenSize())
+                   && (outputSize == network.getOutputSize());
+        }
     }
 
     //----------//
@@ -451,7 +451,7 @@ public class SampleRepository
                     return false;
                 }
 
-                Path imagePath = folderPath.resolve(SampleSheet.IMAGE_FILE_NAME);
+                Path imagePath = SampleSheet.getImagePath(folderPath);
 
                 return Files.exists(imagePath);
             } finally {
@@ -539,8 +539,8 @@ public class SampleRepository
                         final Path root = ZipFileSystem.open(imagesFile);
 
                         for (Descriptor desc : descs) {
-                            final Path file = root.resolve(desc.getName()).resolve(
-                                    SampleSheet.IMAGE_FILE_NAME);
+                            final Path file = SampleSheet.getImagePath(
+                                    root.resolve(desc.getName()));
                             final RunTable rt = RunTable.unmarshal(file);
 
                             if ((rt != null) && rt.equals(image)) {
@@ -1021,7 +1021,7 @@ public class SampleRepository
                     return null;
                 }
 
-                Path file = folderPath.resolve(SampleSheet.IMAGE_FILE_NAME);
+                Path file = SampleSheet.getImagePath(folderPath);
                 runTable = RunTable.unmarshal(file);
 
                 if (runTable != null) {
@@ -1471,7 +1471,10 @@ public class SampleRepository
                            {
                                final String fileName = file.getFileName().toString();
 
-                               if (fileName.equals(SampleSheet.IMAGE_FILE_NAME)) {
+                               if (fileName.equals(SampleSheet.IMAGE_FILE_NAME)
+                                   || (fileName.equals(SampleSheet.XML_IMAGE_FILE_NAME)
+                                       && !Files.exists(
+                                            file.resolveSibling(SampleSheet.IMAGE_FILE_NAME)))) {
                                    RunTable runTable = RunTable.unmarshal(file);
 
                                    if (runTable != null) {
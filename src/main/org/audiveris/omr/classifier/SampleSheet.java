@@ -75,8 +75,11 @@ public class SampleSheet
     /** File name for sheet tribes: {@value}. */
     public static final String TRIBES_FILE_NAME = "tribes.xml";
 
-    /** File name for sheet image: {@value}. */
-    public static final String IMAGE_FILE_NAME = "image.xml";
+    /** File name for sheet image, in binary format: {@value}. */
+    public static final String IMAGE_FILE_NAME = "image.bin";
+
+    /** File name for sheet image, in legacy XML format: {@value}. */
+    public static final String XML_IMAGE_FILE_NAME = "image.xml";
 
     /** Un/marshalling context for use with JAXB. */
     private static volatile JAXBContext jaxbContext;
@@ -345,6 +348,31 @@ public class SampleSheet
         this.modified = modified;
     }
 
+    //--------------//
+    // getImagePath //
+    //--------------//
+    /**
+     * Report the path to the image file within the provided sheet folder.
+     * The binary file is preferred, the legacy XML file is used if it is the only one present.
+     *
+     * @param folderPath the sheet folder in images hierarchy
+     * @return path to image file
+     */
+    public static Path getImagePath (Path folderPath)
+    {
+        final Path imagePath = folderPath.resolve(IMAGE_FILE_NAME);
+
+        if (!Files.exists(imagePath)) {
+            final Path xmlPath = folderPath.resolve(XML_IMAGE_FILE_NAME);
+
+            if (Files.exists(xmlPath)) {
+                return xmlPath;
+            }
+        }
+
+        return imagePath;
+    }
+
     //---------//
     // marshal //
     //---------//
@@ -383,7 +411,8 @@ public class SampleSheet
                 Files.createDirectories(folderPath);
 
                 final Path imagePath = folderPath.resolve(IMAGE_FILE_NAME);
-                Jaxb.marshal(image, imagePath, getJaxbContext());
+                image.store(imagePath);
+                Files.deleteIfExists(folderPath.resolve(XML_IMAGE_FILE_NAME));
                 imageSaved = true;
                 logger.info("Stored {}", imagePath);
             }
@@ -29,10 +29,14 @@ import org.slf4j.LoggerFactory;
 
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -46,6 +50,15 @@ import java.util.Set;
  * <li>For each reachable vertex, recursively process the new set composed of current set + the
  * reachable vertex.</li>
  * </ol>
+ * Each part gets an index within the cluster, with its weight, bounds and neighbors computed only
+ * once.
+ * Parts already considered are handled as a {@link BitSet} of part indices, and a subset weight and
+ * bounds are derived from the subset it grows from, so that a growth which makes the subset too
+ * large or too heavy is discarded before any subset gets allocated.
+ * <p>
+ * Since the parts considered so far are excluded from any further growth, each subset is reached
+ * through one growth order only, hence evaluated at most once.
+ * <p>
  * TODO: implement a non-recursive version for better efficiency?
  *
  * @author Hervé Bitteur
@@ -61,6 +74,21 @@ public class GlyphCluster
     /** Group, if any, to be assigned to created glyphs. */
     private final GlyphGroup group;
 
+    /** Parts, by index. */
+    private final List<Glyph> parts = new ArrayList<>();
+
+    /** Index of each part. */
+    private final Map<Glyph, Integer> indices = new HashMap<>();
+
+    /** Weight of each part. */
+    private final List<Integer> weights = new ArrayList<>();
+
+    /** Bounds of each part. */
+    private final List<Rectangle> boxes = new ArrayList<>();
+
+    /** Neighbors of each part, lazily computed. */
+    private final List<int[]> neighbors = new ArrayList<>();
+
     /**
      * Creates a new Cluster object, with an adapter to the environment.
      *
@@ -82,103 +110,182 @@ public class GlyphCluster
      */
     public void decompose ()
     {
-        final Set<Glyph> considered = new LinkedHashSet<>(); // Parts considered so far
+        final BitSet considered = new BitSet(); // Parts considered so far
 
         //TODO: we could truncate this list by discarding the smallest items
         // since a too large list would result in explosion of combinations
         final List<Glyph> seeds = adapter.getParts();
         Collections.sort(seeds, Glyphs.byReverseWeight);
 
+        for (Glyph seed : seeds) {
+            indexOf(seed);
+        }
+
         ///logger.debug("Decomposing {}", Glyphs.ids("cluster", seeds));
         for (Glyph seed : seeds) {
-            considered.add(seed);
-            process(Collections.singleton(seed), considered);
+            final int index = indexOf(seed);
+            considered.set(index);
+
+            final int weight = weights.get(index);
+
+            if (adapter.isTooHeavy(weight)) {
+                logger.debug("Too high weight {} for {}", weight, seed);
+
+                continue;
+            }
+
+            final Rectangle box = new Rectangle(boxes.get(index));
+
+            if (adapter.isTooLarge(box)) {
+                logger.debug("Too large  {} for {}", box, seed);
+
+                continue;
+            }
+
+            process(new int[]{index}, considered, weight, box);
         }
     }
 
+    //-------------//
+    // getOutliers //
+    //-------------//
     /**
      * Retrieve all parts at acceptable distance from at least one member of the
-     * provided set.
+     * provided set, and not yet seen.
      *
-     * @param set the provided set
-     * @return all the parts reachable from the set
+     * @param path the indices of set members, in growth order
+     * @param seen all parts considered so far
+     * @return indices of all the new parts reachable from the set, in discovery order
      */
-    private Set<Glyph> getOutliers (Set<Glyph> set)
+    private int[] getOutliers (int[] path,
+                               BitSet seen)
     {
-        Set<Glyph> outliers = new LinkedHashSet<>();
-
-        for (Glyph part : set) {
-            outliers.addAll(adapter.getNeighbors(part));
+        final BitSet found = new BitSet();
+        int[] outliers = new int[0];
+
+        for (int index : path) {
+            for (int neighbor : neighborsOf(index)) {
+                if (!seen.get(neighbor) && !found.get(neighbor)) {
+                    found.set(neighbor);
+                    outliers = Arrays.copyOf(outliers, outliers.length + 1);
+                    outliers[outliers.length - 1] = neighbor;
+                }
+            }
         }
 
-        outliers.removeAll(set);
-
         return outliers;
     }
 
+    //---------//
+    // indexOf //
+    //---------//
     /**
-     * Process the provided set of parts.
+     * Report the index of the provided part, assigning a new index if needed.
      *
-     * @param parts (read only) the set of current parts
-     * @param seen  (read only) all parts considered so far (current parts plus discarded ones)
+     * @param part the provided part
+     * @return the part index
      */
-    private void process (Set<Glyph> parts,
-                          Set<Glyph> seen)
+    private int indexOf (Glyph part)
     {
-        ///logger.debug(" {} {} {}", set.size(), Glyphs.ids("set", set), Glyphs.ids("seen", seen));
-
-        // Check what we have got
-        final int weight = Glyphs.weightOf(parts);
+        Integer index = indices.get(part);
+
+        if (index == null) {
+            index = parts.size();
+            indices.put(part, index);
+            parts.add(part);
+            weights.add(part.getWeight());
+            boxes.add(part.getBounds());
+            neighbors.add(null);
+        }
 
-        if (adapter.isTooHeavy(weight)) {
-            logger.debug("Too high weight {} for {}", weight, parts);
+        return index;
+    }
 
-            return;
-        }
+    //-------------//
+    // neighborsOf //
+    //-------------//
+    private int[] neighborsOf (int index)
+    {
+        int[] indexes = neighbors.get(index);
 
-        Rectangle box = Glyphs.getBounds(parts);
+        if (indexes == null) {
+            final List<Glyph> list = adapter.getNeighbors(parts.get(index));
+            indexes = new int[list.size()];
 
-        if (adapter.isTooLarge(box)) {
-            logger.debug("Too large  {} for {}", box, parts);
+            for (int i = 0; i < indexes.length; i++) {
+                indexes[i] = indexOf(list.get(i));
+            }
 
-            return;
+            neighbors.set(index, indexes);
         }
 
+        return indexes;
+    }
+
+    //---------//
+    // process //
+    //---------//
+    /**
+     * Process the provided set of parts.
+     *
+     * @param path   (read only) indices of the current parts, in growth order
+     * @param seen   (read only) all parts considered so far (current parts plus discarded ones)
+     * @param weight the weight of current parts, already checked as not too high
+     * @param box    the bounds of current parts, already checked as not too large
+     */
+    private void process (int[] path,
+                          BitSet seen,
+                          int weight,
+                          Rectangle box)
+    {
         if (!adapter.isTooLight(weight)) {
+            final Set<Glyph> glyphs = new LinkedHashSet<>();
+
+            for (int index : path) {
+                glyphs.add(parts.get(index));
+            }
+
             // Build compound and get acceptable evaluations for the compound
-            Glyph compound = (parts.size() > 1) ? GlyphFactory.buildGlyph(parts)
-                    : parts.iterator().next();
+            Glyph compound = (path.length > 1) ? GlyphFactory.buildGlyph(glyphs)
+                    : parts.get(path[0]);
             compound.addGroup(group);
 
             // Create all acceptable inters, if any, for the compound
-            adapter.evaluateGlyph(compound, parts);
+            adapter.evaluateGlyph(compound, glyphs);
         } else {
-            logger.debug("Too low weight {} for {}", weight, parts);
+            logger.debug("Too low weight {} for {}", weight, parts.get(path[0]));
         }
 
         // Then, identify all outliers immediately reachable from the compound
-        Set<Glyph> outliers = getOutliers(parts);
-        outliers.removeAll(seen);
+        final int[] outliers = getOutliers(path, seen);
 
-        if (outliers.isEmpty()) {
+        if (outliers.length == 0) {
             return; // No further growth is possible
         }
 
-        ///logger.debug("      {}", Glyphs.ids("outliers", outliers));
-        Rectangle setBox = Glyphs.getBounds(parts);
-        Set<Glyph> newConsidered = new LinkedHashSet<>(seen);
+        final BitSet newConsidered = (BitSet) seen.clone();
 
-        for (Glyph outlier : outliers) {
-            newConsidered.add(outlier);
+        for (int outlier : outliers) {
+            newConsidered.set(outlier);
 
             // Check appending this atom does not make the resulting symbol too wide or too high
-            Rectangle symBox = outlier.getBounds().union(setBox);
+            final Rectangle symBox = boxes.get(outlier).union(box);
+
+            if (adapter.isTooLarge(symBox)) {
+                continue;
+            }
 
-            if (!adapter.isTooLarge(symBox)) {
-                Set<Glyph> largerSet = new LinkedHashSet<>(parts);
-                largerSet.add(outlier);
-                process(largerSet, newConsidered);
+            final int symWeight = weight + weights.get(outlier);
+
+            if (adapter.isTooHeavy(symWeight)) {
+                logger.debug("Too high weight {} for {}", symWeight, parts.get(outlier));
+
+                continue;
             }
+
+            final int[] largerPath = Arrays.copyOf(path, path.length + 1);
+            largerPath[path.length] = outlier;
+            process(largerPath, newConsidered, symWeight, symBox);
         }
     }
 
@@ -337,6 +337,35 @@ public class GlyphFactory
     public static Glyph buildGlyph (Collection<? extends Glyph> parts)
     {
         final Rectangle box = Glyphs.getBounds(parts);
+        final List<RunTable> tables = new ArrayList<>(parts.size());
+        final List<Point> origins = new ArrayList<>(parts.size());
+
+        for (Glyph part : parts) {
+            if (part.getRunTable().getOrientation() != VERTICAL) {
+                return buildGlyph(parts, box);
+            }
+
+            tables.add(part.getRunTable());
+            origins.add(part.getTopLeft());
+        }
+
+        // Merge part runs directly
+        return new Glyph(box.x, box.y, RunTable.merge(VERTICAL, box, tables, origins));
+    }
+
+    //------------//
+    // buildGlyph //
+    //------------//
+    /**
+     * Build one glyph from parts of any orientation, by painting them in a buffer.
+     *
+     * @param parts the provided glyph parts
+     * @param box   the parts bounds
+     * @return the glyph compound
+     */
+    private static Glyph buildGlyph (Collection<? extends Glyph> parts,
+                                     Rectangle box)
+    {
         final ByteProcessor buffer = new ByteProcessor(box.width, box.height);
         ByteUtil.raz(buffer); // buffer.invert();
 
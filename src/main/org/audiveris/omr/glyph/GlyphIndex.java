@@ -104,7 +104,9 @@ public class GlyphIndex
     @Override
     public List<Glyph> getContainedEntities (Rectangle rectangle)
     {
-        return Entities.containedEntities(iterator(), rectangle);
+        return Entities.containedEntities(
+                new SkippingIterator(weakIndex.iterator(rectangle)),
+                rectangle);
     }
 
     //-----------------------//
@@ -113,7 +115,9 @@ public class GlyphIndex
     @Override
     public List<Glyph> getContainingEntities (Point point)
     {
-        return Entities.containingEntities(iterator(), point);
+        return Entities.containingEntities(
+                new SkippingIterator(weakIndex.iterator(new Rectangle(point.x, point.y, 1, 1))),
+                point);
     }
 
     //-------------//
@@ -516,6 +520,12 @@ public class GlyphIndex
             super.insert(weak);
         }
 
+        @Override
+        protected boolean isSpatial ()
+        {
+            return true; // Glyph bounds never change
+        }
+
         @Override
         protected boolean isValid (WeakGlyph weak)
         {
@@ -22,6 +22,7 @@
 package org.audiveris.omr.glyph;
 
 import org.audiveris.omr.image.Table;
+import org.audiveris.omr.run.RunTable;
 import org.audiveris.omr.util.Predicate;
 
 import org.jgrapht.graph.SimpleGraph;
@@ -573,7 +574,14 @@ public abstract class Glyphs
             return false;
         }
 
-        // More precise test
+        // More precise test, directly on runs if possible
+        final RunTable oneTable = one.getRunTable();
+        final RunTable twoTable = two.getRunTable();
+
+        if (oneTable.getOrientation() == twoTable.getOrientation()) {
+            return oneTable.intersects(one.getTopLeft(), twoTable, two.getTopLeft(), fat);
+        }
+
         Table.UnsignedByte table = new Table.UnsignedByte(clip.width, clip.height);
         one.fillTable(table, clip.getLocation(), fat);
 
@@ -26,6 +26,8 @@ import ij.process.ByteProcessor;
 import org.audiveris.omr.constant.Constant;
 import org.audiveris.omr.constant.ConstantSet;
 import org.audiveris.omr.math.Population;
+import org.audiveris.omr.run.RunTable;
+import org.audiveris.omr.run.RunTableBuilder;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -75,6 +77,11 @@ import java.util.Arrays;
  * <br>
  * This property is used to incrementally populate the table.</li>
  * </ul>
+ * <p>
+ * For whole image binarization, {@link #filteredTable()} does not use tiles, but processes the
+ * image in horizontal bands, row by row, each band with its own local tables of integrals.
+ * Bands can thus be processed in parallel and the resulting runs are directly collected into a
+ * {@link RunTable}.
  *
  * @author ryo/twitter &#64;xiaot_Tag
  * @author Hervé Bitteur
@@ -126,19 +133,26 @@ public abstract class AdaptiveFilter
     @Override
     public ByteProcessor filteredImage ()
     {
-        ByteProcessor ip = new ByteProcessor(source.getWidth(), source.getHeight());
-
-        for (int x = 0, w = ip.getWidth(); x < w; x++) {
-            for (int y = 0, h = ip.getHeight(); y < h; y++) {
-                if (isFore(x, y)) {
-                    ip.set(x, y, FOREGROUND);
-                } else {
-                    ip.set(x, y, BACKGROUND);
-                }
-            }
-        }
+        return filteredTable().getBuffer();
+    }
+
+    //---------------//
+    // filteredTable //
+    //---------------//
+    /**
+     * Run the filter on the whole source image and report the resulting VERTICAL run table.
+     * <p>
+     * Image is processed in horizontal bands, on the high executor if parallelism is allowed.
+     * Results are identical to those of {@link #isFore(int, int)} applied on every pixel.
+     *
+     * @return the binarized table
+     */
+    @Override
+    public RunTable filteredTable ()
+    {
+        final RunTableBuilder builder = new RunTableBuilder(source.getWidth(), source.getHeight());
 
-        return ip;
+        return builder.buildTable(new BandFeeder());
     }
 
     //------------//
@@ -207,6 +221,90 @@ public abstract class AdaptiveFilter
         return (MEAN_COEFF * mean) + (STD_DEV_COEFF * stdDev);
     }
 
+    //------------//
+    // BandFeeder //
+    //------------//
+    /**
+     * Binarizes horizontal bands of the image, row by row.
+     * <p>
+     * The band uses its own tables of integrals (plain and squared values), limited to the
+     * image rows that can be reached by the windows of band pixels.
+     * Tables have an additional first row and first column of zeros, so that any window
+     * integral is computed as <code>a + d - b - c</code> without any test.
+     * <p>
+     * Since all tables are local, several bands can be fed concurrently.
+     */
+    private class BandFeeder
+            implements RunTableBuilder.Feeder
+    {
+
+        @Override
+        public void feed (RunTableBuilder.Band band)
+        {
+            final byte[] pixels = (byte[]) source.getPixels();
+            final int width = source.getWidth();
+            final int height = source.getHeight();
+            final int yMin = band.getYMin();
+            final int yMax = band.getYMax();
+
+            // Image rows reachable from this band
+            final int rowBase = Math.max(0, yMin - HALF_WINDOW_SIZE - 1);
+            final int rowLast = Math.min(height - 1, yMax + HALF_WINDOW_SIZE);
+            final int stride = width + 1;
+            final long[] sums = new long[(rowLast - rowBase + 2) * stride];
+            final long[] sqrSums = new long[sums.length];
+
+            for (int y = rowBase; y <= rowLast; y++) {
+                final int base = ((y - rowBase) + 1) * stride;
+                final int prev = base - stride;
+                final int row = y * width;
+                long rowSum = 0;
+                long rowSqrSum = 0;
+
+                for (int x = 0; x < width; x++) {
+                    final long pix = pixels[row + x] & 0xFF;
+                    rowSum += pix;
+                    rowSqrSum += (pix * pix);
+                    sums[base + x + 1] = sums[prev + x + 1] + rowSum;
+                    sqrSums[base + x + 1] = sqrSums[prev + x + 1] + rowSqrSum;
+                }
+            }
+
+            for (int y = yMin; y <= yMax; y++) {
+                final int y1 = Math.max(-1, y - HALF_WINDOW_SIZE - 1);
+                final int y2 = Math.min(height - 1, y + HALF_WINDOW_SIZE);
+                final int top = ((y1 - rowBase) + 1) * stride;
+                final int bottom = ((y2 - rowBase) + 1) * stride;
+                final int row = y * width;
+
+                for (int x = 0; x < width; x++) {
+                    final int x1 = Math.max(-1, x - HALF_WINDOW_SIZE - 1);
+                    final int x2 = Math.min(width - 1, x + HALF_WINDOW_SIZE);
+                    final int left = x1 + 1;
+                    final int right = x2 + 1;
+                    final int area = (y2 - y1) * (x2 - x1);
+
+                    final double sum = ((sums[top + left] + sums[bottom + right])
+                                        - sums[top + right]) - sums[bottom + left];
+                    final double sqrSum = ((sqrSums[top + left] + sqrSums[bottom + right])
+                                           - sqrSums[top + right]) - sqrSums[bottom + left];
+                    final double mean = sum / area;
+                    final double sqrMean = sqrSum / area;
+                    final double var = Math.abs(sqrMean - (mean * mean));
+                    final double threshold = getThreshold(mean, Math.sqrt(var));
+
+                    band.feed(x, y, (pixels[row + x] & 0xFF) <= threshold);
+                }
+            }
+        }
+
+        @Override
+        public boolean isThreadSafe ()
+        {
+            return true;
+        }
+    }
+
     //------//
     // Tile //
     //------//
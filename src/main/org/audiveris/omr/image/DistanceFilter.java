@@ -23,6 +23,9 @@ package org.audiveris.omr.image;
 
 import ij.process.ByteProcessor;
 
+import org.audiveris.omr.run.RunTable;
+import org.audiveris.omr.run.RunTableBuilder;
+
 /**
  * Class {@code DistanceFilter} implements a {@link PixelFilter} on top of a distance
  * image.
@@ -52,6 +55,16 @@ public class DistanceFilter
         throw new UnsupportedOperationException("Not supported yet.");
     }
 
+    //---------------//
+    // filteredTable //
+    //---------------//
+    @Override
+    public RunTable filteredTable ()
+    {
+        return new RunTableBuilder(getWidth(), getHeight()).buildTable(
+                new RunTableBuilder.FilterFeeder(this));
+    }
+
     @Override
     public int get (int x,
                     int y)
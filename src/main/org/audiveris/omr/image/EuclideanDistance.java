@@ -0,0 +1,391 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                               E u c l i d e a n D i s t a n c e                                //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.image;
+
+import ij.process.ByteProcessor;
+
+import org.audiveris.omr.step.ProcessingCancellationException;
+import org.audiveris.omr.util.OmrExecutors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Class {@code EuclideanDistance} computes the exact Euclidean distance transform of a
+ * binary image, as a separable transform.
+ * <p>
+ * This is the linear-time algorithm by Meijster, Roerdink and Hesselink:
+ * <ol>
+ * <li>A column pass computes, for each pixel, the vertical distance to nearest reference pixel in
+ * the same column.</li>
+ * <li>A row pass then computes, for each pixel, the minimum of (dx² + column distance²) along the
+ * row, through the lower envelope of parabolas.</li>
+ * </ol>
+ * Both passes work directly on the {@code short} values of the output table, and each pass is
+ * split in chunks of columns (resp. rows) processed in parallel.
+ * <p>
+ * Resulting values are distances multiplied by the normalizer and rounded, so that the output
+ * table can be used in lieu of a table computed by {@link ChamferDistance}.
+ * An image with no reference pixel gets {@link ChamferDistance#VALUE_UNKNOWN} everywhere.
+ *
+ * @author Hervé Bitteur
+ */
+public class EuclideanDistance
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(EuclideanDistance.class);
+
+    /** Distance normalizer. */
+    private final int normalizer;
+
+    /**
+     * Creates a new {@code EuclideanDistance} object, with the normalizer of
+     * {@link ChamferDistance#chamfer3} mask.
+     */
+    public EuclideanDistance ()
+    {
+        this(ChamferDistance.chamfer3[0][2]);
+    }
+
+    /**
+     * Creates a new {@code EuclideanDistance} object.
+     *
+     * @param normalizer value for a unit distance
+     */
+    public EuclideanDistance (int normalizer)
+    {
+        this.normalizer = normalizer;
+    }
+
+    //---------------//
+    // computeToFore //
+    //---------------//
+    /**
+     * Compute the distance transform to foreground pixels.
+     *
+     * @param input the input image, where foreground pixels are taken as reference pixels
+     * @return the distance transform image, where each pixel value is the (normalized) distance to
+     *         the nearest reference pixel
+     */
+    public DistanceTable.Short computeToFore (ByteProcessor input)
+    {
+        final int width = input.getWidth();
+        final int height = input.getHeight();
+        final byte[] pixels = (byte[]) input.getPixels();
+        final Table.Short table = new Table.Short(width, height);
+        final short[] data = table.getValues();
+
+        // Column chunks, then row chunks
+        final int chunkNb = getChunkNumber();
+        final List<Callable<Boolean>> columnTasks = new ArrayList<>(chunkNb);
+        final List<Callable<Boolean>> rowTasks = new ArrayList<>(chunkNb);
+
+        for (int ic = 0; ic < chunkNb; ic++) {
+            columnTasks.add(
+                    new ColumnTask(
+                            pixels,
+                            data,
+                            width,
+                            height,
+                            (width * ic) / chunkNb,
+                            (width * (ic + 1)) / chunkNb));
+            rowTasks.add(
+                    new RowTask(
+                            data,
+                            width,
+                            height,
+                            (height * ic) / chunkNb,
+                            (height * (ic + 1)) / chunkNb));
+        }
+
+        final boolean found = run(columnTasks);
+
+        if (found) {
+            run(rowTasks);
+        } else {
+            table.fill(ChamferDistance.VALUE_UNKNOWN);
+        }
+
+        return new DistanceTable.Short(table, normalizer);
+    }
+
+    //----------------//
+    // getChunkNumber //
+    //----------------//
+    private static int getChunkNumber ()
+    {
+        if (OmrExecutors.defaultParallelism.getValue() == true) {
+            return Math.max(1, OmrExecutors.getNumberOfCpus());
+        }
+
+        return 1;
+    }
+
+    //-----//
+    // run //
+    //-----//
+    /**
+     * Run the provided tasks, in parallel if possible.
+     *
+     * @param tasks the tasks to run
+     * @return the logical OR of tasks results
+     */
+    private static boolean run (List<Callable<Boolean>> tasks)
+    {
+        boolean result = false;
+
+        try {
+            if (tasks.size() > 1) {
+                for (Future<Boolean> future : OmrExecutors.getHighExecutor().invokeAll(tasks)) {
+                    result |= future.get();
+                }
+            } else {
+                for (Callable<Boolean> task : tasks) {
+                    result |= task.call();
+                }
+            }
+        } catch (InterruptedException ex) {
+            logger.warn("Distance transform got interrupted");
+            throw new ProcessingCancellationException(ex);
+        } catch (ExecutionException ex) {
+            logger.warn("Exception raised in distance transform", ex.getCause());
+            throw new RuntimeException(ex.getCause());
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+
+        return result;
+    }
+
+    //------------//
+    // ColumnTask //
+    //------------//
+    /**
+     * Column pass on a range of columns.
+     * Each pixel gets the vertical distance to nearest foreground pixel in its column, or the
+     * "infinite" value if there is none.
+     */
+    private static class ColumnTask
+            implements Callable<Boolean>
+    {
+
+        private final byte[] pixels;
+
+        private final short[] data;
+
+        private final int width;
+
+        private final int height;
+
+        private final int xMin;
+
+        private final int xBreak;
+
+        ColumnTask (byte[] pixels,
+                    short[] data,
+                    int width,
+                    int height,
+                    int xMin,
+                    int xBreak)
+        {
+            this.pixels = pixels;
+            this.data = data;
+            this.width = width;
+            this.height = height;
+            this.xMin = xMin;
+            this.xBreak = xBreak;
+        }
+
+        /**
+         * @return true if some foreground pixel was found
+         */
+        @Override
+        public Boolean call ()
+        {
+            final int inf = infinite(width, height);
+            boolean found = false;
+
+            // Top down
+            for (int y = 0; y < height; y++) {
+                final int row = y * width;
+
+                for (int x = xMin; x < xBreak; x++) {
+                    final int i = row + x;
+
+                    if (pixels[i] == 0) {
+                        data[i] = 0;
+                        found = true;
+                    } else if (y == 0) {
+                        data[i] = (short) inf;
+                    } else {
+                        data[i] = (short) Math.min(inf, data[i - width] + 1);
+                    }
+                }
+            }
+
+            // Bottom up
+            for (int y = height - 2; y >= 0; y--) {
+                final int row = y * width;
+
+                for (int x = xMin; x < xBreak; x++) {
+                    final int i = row + x;
+                    final int below = data[i + width] + 1;
+
+                    if (data[i] > below) {
+                        data[i] = (short) below;
+                    }
+                }
+            }
+
+            return found;
+        }
+    }
+
+    //---------//
+    // RowTask //
+    //---------//
+    /**
+     * Row pass on a range of rows.
+     * Each pixel gets its final distance, via the lower envelope of the parabolas defined by the
+     * column distances along the row.
+     */
+    private class RowTask
+            implements Callable<Boolean>
+    {
+
+        private final short[] data;
+
+        private final int width;
+
+        private final int height;
+
+        private final int yMin;
+
+        private final int yBreak;
+
+        RowTask (short[] data,
+                 int width,
+                 int height,
+                 int yMin,
+                 int yBreak)
+        {
+            this.data = data;
+            this.width = width;
+            this.height = height;
+            this.yMin = yMin;
+            this.yBreak = yBreak;
+        }
+
+        @Override
+        public Boolean call ()
+        {
+            final long[] g2 = new long[width]; // Squared column distances along the row
+            final int[] s = new int[width]; // Abscissa of each parabola in lower envelope
+            final int[] t = new int[width]; // Abscissa where each parabola starts to be lowest
+
+            for (int y = yMin; y < yBreak; y++) {
+                final int row = y * width;
+
+                for (int x = 0; x < width; x++) {
+                    final long g = data[row + x];
+                    g2[x] = g * g;
+                }
+
+                // Build lower envelope
+                int q = 0;
+                s[0] = 0;
+                t[0] = 0;
+
+                for (int u = 1; u < width; u++) {
+                    while ((q >= 0) && (f(t[q], s[q], g2) > f(t[q], u, g2))) {
+                        q--;
+                    }
+
+                    if (q < 0) {
+                        q = 0;
+                        s[0] = u;
+                    } else {
+                        final long w = 1 + sep(s[q], u, g2);
+
+                        if (w < width) {
+                            q++;
+                            s[q] = u;
+                            t[q] = (int) w;
+                        }
+                    }
+                }
+
+                // Read envelope
+                for (int u = width - 1; u >= 0; u--) {
+                    final double dist = normalizer * Math.sqrt(f(u, s[q], g2));
+                    data[row + u] = (short) Math.min(Short.MAX_VALUE, Math.rint(dist));
+
+                    if (u == t[q]) {
+                        q--;
+                    }
+                }
+            }
+
+            return true;
+        }
+
+        /** Squared distance from (x,y) to nearest reference pixel in column i. */
+        private long f (int x,
+                        int i,
+                        long[] g2)
+        {
+            final long dx = x - i;
+
+            return (dx * dx) + g2[i];
+        }
+
+        /** Abscissa beyond which parabola u is lower than parabola i (i < u). */
+        private long sep (int i,
+                          int u,
+                          long[] g2)
+        {
+            final long num = (((long) u * u) - ((long) i * i)) + g2[u] - g2[i];
+            final long den = 2L * (u - i);
+
+            return (num >= 0) ? (num / den) : (-((-num + den) - 1) / den);
+        }
+    }
+
+    //----------//
+    // infinite //
+    //----------//
+    /**
+     * Report the value used for "no foreground in column", greater than any actual column
+     * distance, and such that its square exceeds any actual squared distance.
+     */
+    private static int infinite (int width,
+                                 int height)
+    {
+        return Math.min(Short.MAX_VALUE, width + height);
+    }
+}
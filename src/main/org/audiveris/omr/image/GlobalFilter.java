@@ -25,6 +25,9 @@ import ij.process.ByteProcessor;
 
 import net.jcip.annotations.ThreadSafe;
 
+import org.audiveris.omr.run.RunTable;
+import org.audiveris.omr.run.RunTableBuilder;
+
 /**
  * Class {@code GlobalFilter} implements Interface {@code PixelFilter} by using a
  * global threshold on pixel value.
@@ -74,6 +77,16 @@ public class GlobalFilter
         return ip;
     }
 
+    //---------------//
+    // filteredTable //
+    //---------------//
+    @Override
+    public RunTable filteredTable ()
+    {
+        return new RunTableBuilder(getWidth(), getHeight()).buildTable(
+                new RunTableBuilder.FilterFeeder(this));
+    }
+
     //------------//
     // getContext //
     //------------//
@@ -48,7 +48,11 @@ import java.awt.image.BufferedImage;
 import java.io.IOException;
 import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.ArrayList;
 import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
 
 import javax.imageio.ImageIO;
 import javax.imageio.ImageReader;
@@ -70,6 +74,8 @@ import javax.media.jai.JAI;
  * <li>{@link Loader#dispose()} to finally release any resources.</li>
  * </ul>
  * </ol>
+ * A Loader instance can be kept and shared by several threads, to load different images of the
+ * same input file concurrently, without re-opening the input file for each image.
  * This class leverages several software pieces, each with its own Loader subclass:
  * <ul>
  * <li><b>JPod</b> for PDF files. This replaces former use of GhostScript sub-process.</li>
@@ -205,16 +211,7 @@ public abstract class ImageLoading
     {
         logger.debug("getJPodLoader {}", imgPath);
 
-        PDDocument doc = null;
-
-        try {
-            FileLocator locator = new FileLocator(imgPath.toFile());
-            doc = PDDocument.createFromLocator(locator);
-        } catch (IOException ex) {
-            logger.warn("Error opening pdf file " + imgPath, ex);
-        } catch (COSLoadException ex) {
-            logger.warn("Invalid pdf file " + imgPath, ex);
-        }
+        PDDocument doc = openDocument(imgPath);
 
         if (doc == null) {
             return null;
@@ -222,7 +219,7 @@ public abstract class ImageLoading
 
         int imageCount = doc.getPageTree().getCount();
 
-        return new JPodLoader(doc, imageCount);
+        return new JPodLoader(imgPath, doc, imageCount);
     }
 
     //--------------//
@@ -253,11 +250,37 @@ public abstract class ImageLoading
         return null;
     }
 
+    //--------------//
+    // openDocument //
+    //--------------//
+    /**
+     * Open and parse a PDF document.
+     *
+     * @param imgPath the provided (PDF) input file.
+     * @return the document or null if failed
+     */
+    private static PDDocument openDocument (Path imgPath)
+    {
+        try {
+            FileLocator locator = new FileLocator(imgPath.toFile());
+
+            return PDDocument.createFromLocator(locator);
+        } catch (IOException ex) {
+            logger.warn("Error opening pdf file " + imgPath, ex);
+        } catch (COSLoadException ex) {
+            logger.warn("Invalid pdf file " + imgPath, ex);
+        }
+
+        return null;
+    }
+
     //--------//
     // Loader //
     //--------//
     /**
      * A loader dedicated to an input file.
+     * <p>
+     * Its methods can be called concurrently.
      */
     public static interface Loader
     {
@@ -296,6 +319,11 @@ public abstract class ImageLoading
                 "DPI",
                 300,
                 "DPI resolution for PDF images");
+
+        private final Constant.Integer pdfDocuments = new Constant.Integer(
+                "Documents",
+                2,
+                "Maximum number of PDF documents rendered concurrently per input file");
     }
 
     //----------------//
@@ -349,13 +377,20 @@ public abstract class ImageLoading
         }
 
         @Override
-        public void dispose ()
+        public synchronized void dispose ()
         {
             reader.dispose();
         }
 
+        /**
+         * {@inheritDoc}
+         * <p>
+         * The reader is shared and not thread-safe, hence reads are serialized, but images
+         * positions found so far in input stream are kept by the reader from one read to the
+         * next.
+         */
         @Override
-        public BufferedImage getImage (int id)
+        public synchronized BufferedImage getImage (int id)
                 throws IOException
         {
             checkId(id);
@@ -369,26 +404,69 @@ public abstract class ImageLoading
     //------------//
     // JPodLoader //
     //------------//
+    /**
+     * Loader for PDF files.
+     * <p>
+     * A parsed PDF document is not thread-safe, hence each rendering borrows a document from a
+     * bounded pool, capped by the {@code pdfDocuments} constant, and returns it when done.
+     * Documents are opened on demand and kept until the loader is disposed of, which waits for
+     * all borrowed documents to be returned.
+     */
     private static class JPodLoader
             extends AbstractLoader
     {
 
-        private final PDDocument doc;
+        /** Path to PDF file. */
+        private final Path imgPath;
 
-        JPodLoader (PDDocument doc,
+        /** All documents opened so far. */
+        private final List<PDDocument> docs = new ArrayList<>();
+
+        /** Idle documents. */
+        private final ConcurrentLinkedQueue<PDDocument> idles = new ConcurrentLinkedQueue<>();
+
+        /** Maximum number of documents. */
+        private final int maxDocs = Math.max(1, constants.pdfDocuments.getValue());
+
+        /** Permits for documents in use. */
+        private final Semaphore permits = new Semaphore(maxDocs, true);
+
+        /** Set once documents are closed. */
+        private volatile boolean disposed;
+
+        JPodLoader (Path imgPath,
+                    PDDocument doc,
                     int imageCount)
         {
             super(imageCount);
-            this.doc = doc;
+            this.imgPath = imgPath;
+            docs.add(doc);
+            idles.add(doc);
         }
 
         @Override
         public void dispose ()
         {
+            // Wait for all borrowed documents to be returned
+            permits.acquireUninterruptibly(maxDocs);
+
             try {
-                doc.close();
-            } catch (IOException ex) {
-                logger.warn("Could not close PDDocument", ex);
+                disposed = true;
+
+                synchronized (docs) {
+                    for (PDDocument doc : docs) {
+                        try {
+                            doc.close();
+                        } catch (IOException ex) {
+                            logger.warn("Could not close PDDocument", ex);
+                        }
+                    }
+
+                    docs.clear();
+                    idles.clear();
+                }
+            } finally {
+                permits.release(maxDocs);
             }
         }
 
@@ -398,6 +476,62 @@ public abstract class ImageLoading
         {
             checkId(id);
 
+            final PDDocument doc = acquire();
+
+            try {
+                return render(doc, id);
+            } finally {
+                release(doc);
+            }
+        }
+
+        /**
+         * Borrow a document from the pool, opening a new one if none is idle.
+         */
+        private PDDocument acquire ()
+                throws IOException
+        {
+            permits.acquireUninterruptibly();
+
+            if (disposed) {
+                permits.release();
+                throw new IOException("Loader disposed for " + imgPath);
+            }
+
+            PDDocument doc = idles.poll();
+
+            if (doc == null) {
+                logger.debug("Opening {} for {}", imgPath, Thread.currentThread().getName());
+                doc = openDocument(imgPath);
+
+                if (doc == null) {
+                    permits.release();
+                    throw new IOException("Could not open " + imgPath);
+                }
+
+                synchronized (docs) {
+                    docs.add(doc);
+                }
+            }
+
+            return doc;
+        }
+
+        /**
+         * Give the document back to the pool.
+         */
+        private void release (PDDocument doc)
+        {
+            idles.add(doc);
+            permits.release();
+        }
+
+        /**
+         * Render the specified page of the document.
+         */
+        private BufferedImage render (PDDocument doc,
+                                      int id)
+        {
             // desired scale = pdfResolution / default PDF resolution
             float scale = constants.pdfResolution.getValue() / 72.0f;
 
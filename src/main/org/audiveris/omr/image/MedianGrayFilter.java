@@ -23,11 +23,31 @@ package org.audiveris.omr.image;
 
 import ij.process.ByteProcessor;
 
+import org.audiveris.omr.step.ProcessingCancellationException;
+import org.audiveris.omr.util.OmrExecutors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Class {@code MedianGrayFilter} allows to run a median filter on an input image,
  * assumed to contain only gray values [0..255].
+ * <p>
+ * Pixels whose full square window lies within the image are processed by a sliding-histogram
+ * engine (Perreault &amp; Hébert), which keeps one histogram per image column and a two-level
+ * (coarse/fine) kernel histogram, so that the cost per pixel does not depend on radius.
+ * Pixels closer than radius to the image boundary use a reduced window and are processed by
+ * brute force, exactly as before.
+ * <p>
+ * When parallelism is allowed, the image interior is split in horizontal bands processed
+ * concurrently on the high executor.
  *
  * @author Hervé Bitteur
  */
@@ -35,6 +55,17 @@ public class MedianGrayFilter
         extends AbstractGrayFilter
 {
 
+    private static final Logger logger = LoggerFactory.getLogger(MedianGrayFilter.class);
+
+    /** Number of fine bins per coarse bin. */
+    private static final int FINE = 16;
+
+    /** Number of coarse bins. */
+    private static final int COARSE = 256 / FINE;
+
+    /** Minimum number of rows per band, to make parallel processing worthwhile. */
+    private static final int MIN_BAND_HEIGHT = 64;
+
     /** Desired radius for the filter. */
     private final int radius;
 
@@ -57,11 +88,89 @@ public class MedianGrayFilter
     {
         final int width = input.getWidth();
         final int height = input.getHeight();
+        final byte[] src = (byte[]) input.getPixels();
+        final byte[] dst = (byte[]) output.getPixels();
+
+        // Interior area, where the full window fits in image
+        final int xMin = radius;
+        final int xMax = width - 1 - radius;
+        final int yMin = radius;
+        final int yMax = height - 1 - radius;
+
+        if ((xMin > xMax) || (yMin > yMax)) {
+            // No interior at all
+            filterBruteForce(src, dst, width, height, 0, width - 1, 0, height - 1);
+
+            return;
+        }
+
+        // Boundary areas, with reduced windows
+        filterBruteForce(src, dst, width, height, 0, width - 1, 0, yMin - 1);
+        filterBruteForce(src, dst, width, height, 0, width - 1, yMax + 1, height - 1);
+        filterBruteForce(src, dst, width, height, 0, xMin - 1, yMin, yMax);
+        filterBruteForce(src, dst, width, height, xMax + 1, width - 1, yMin, yMax);
+
+        // Interior, split in bands
+        final int rows = yMax - yMin + 1;
+        final int bandCount = OmrExecutors.defaultParallelism.getValue()
+                ? Math.max(1, Math.min(OmrExecutors.getNumberOfCpus(), rows / MIN_BAND_HEIGHT)) : 1;
+
+        if (bandCount == 1) {
+            new Band(src, dst, width, yMin, yMax).call();
+
+            return;
+        }
+
+        try {
+            final List<Callable<Void>> tasks = new ArrayList<>(bandCount);
+
+            for (int i = 0; i < bandCount; i++) {
+                final int y0 = yMin + ((rows * i) / bandCount);
+                final int y1 = (yMin + ((rows * (i + 1)) / bandCount)) - 1;
+                tasks.add(new Band(src, dst, width, y0, y1));
+            }
+
+            for (Future<Void> future : OmrExecutors.getHighExecutor().invokeAll(tasks)) {
+                future.get();
+            }
+        } catch (InterruptedException ex) {
+            logger.warn("MedianGrayFilter got interrupted");
+            throw new ProcessingCancellationException(ex);
+        } catch (ExecutionException ex) {
+            logger.warn("Exception raised in MedianGrayFilter", ex.getCause());
+            throw new RuntimeException(ex.getCause());
+        }
+    }
+
+    //------------------//
+    // filterBruteForce //
+    //------------------//
+    /**
+     * Filter the provided rectangular area, one pixel at a time, using for each pixel a
+     * window reduced so as not to use pixels outside the image.
+     *
+     * @param src    input pixels
+     * @param dst    output pixels
+     * @param width  image width
+     * @param height image height
+     * @param x0     first abscissa
+     * @param x1     last abscissa
+     * @param y0     first ordinate
+     * @param y1     last ordinate
+     */
+    private void filterBruteForce (byte[] src,
+                                   byte[] dst,
+                                   int width,
+                                   int height,
+                                   int x0,
+                                   int x1,
+                                   int y0,
+                                   int y1)
+    {
         final int[] histogram = new int[256];
-        Arrays.fill(histogram, 0);
 
-        for (int y = 0; y < height; y++) {
-            for (int x = 0; x < width; x++) {
+        for (int y = y0; y <= y1; y++) {
+            for (int x = x0; x <= x1; x++) {
                 // To address specific behavior at image boundaries,
                 // reduce radius to not use pixels outside the image.
                 int rad = radius;
@@ -82,12 +191,13 @@ public class MedianGrayFilter
                     rad = height - 1 - y;
                 }
 
-                Arrays.fill(histogram, 0); // Brute force!
+                Arrays.fill(histogram, 0);
+
+                for (int j = y - rad; j <= (y + rad); j++) {
+                    final int row = j * width;
 
-                for (int i = x - rad; i <= (x + rad); i++) {
-                    for (int j = y - rad; j <= (y + rad); j++) {
-                        int val = input.get(i, j);
-                        histogram[val]++;
+                    for (int i = x - rad; i <= (x + rad); i++) {
+                        histogram[src[row + i] & 0xFF]++;
                     }
                 }
 
@@ -102,8 +212,180 @@ public class MedianGrayFilter
                     median--;
                 }
 
-                output.set(x, y, median + 1);
+                dst[(y * width) + x] = (byte) (median + 1);
+            }
+        }
+    }
+
+    //------//
+    // Band //
+    //------//
+    /**
+     * Sliding-histogram processing of a horizontal band of interior rows.
+     */
+    private class Band
+            implements Callable<Void>
+    {
+
+        private final byte[] src;
+
+        private final byte[] dst;
+
+        private final int width;
+
+        private final int y0;
+
+        private final int y1;
+
+        Band (byte[] src,
+              byte[] dst,
+              int width,
+              int y0,
+              int y1)
+        {
+            this.src = src;
+            this.dst = dst;
+            this.width = width;
+            this.y0 = y0;
+            this.y1 = y1;
+        }
+
+        @Override
+        public Void call ()
+        {
+            final int side = (2 * radius) + 1;
+            final int medianCount = ((side * side) + 1) / 2;
+            final int xMin = radius;
+            final int xMax = width - 1 - radius;
+
+            // Column histograms, at fine and coarse levels
+            final int[] colFine = new int[width * 256];
+            final int[] colCoarse = new int[width * COARSE];
+
+            // Kernel histogram, at fine and coarse levels
+            final int[] kerFine = new int[256];
+            final int[] kerCoarse = new int[COARSE];
+
+            // Abscissa at which each kernel fine segment was last updated
+            final int[] stamps = new int[COARSE];
+
+            // Initialize column histograms for first row of band
+            for (int y = y0 - radius; y <= (y0 + radius); y++) {
+                final int row = y * width;
+
+                for (int x = 0; x < width; x++) {
+                    final int val = src[row + x] & 0xFF;
+                    colFine[(x << 8) + val]++;
+                    colCoarse[(x * COARSE) + (val >> 4)]++;
+                }
+            }
+
+            for (int y = y0; y <= y1; y++) {
+                if (y > y0) {
+                    // Move all column histograms one row down
+                    final int outRow = (y - radius - 1) * width;
+                    final int inRow = (y + radius) * width;
+
+                    for (int x = 0; x < width; x++) {
+                        final int outVal = src[outRow + x] & 0xFF;
+                        colFine[(x << 8) + outVal]--;
+                        colCoarse[(x * COARSE) + (outVal >> 4)]--;
+
+                        final int inVal = src[inRow + x] & 0xFF;
+                        colFine[(x << 8) + inVal]++;
+                        colCoarse[(x * COARSE) + (inVal >> 4)]++;
+                    }
+                }
+
+                // Initialize kernel coarse level, fine level is lazily updated
+                Arrays.fill(kerCoarse, 0);
+                Arrays.fill(stamps, -1);
+
+                for (int x = 0; x < side; x++) {
+                    final int base = x * COARSE;
+
+                    for (int b = 0; b < COARSE; b++) {
+                        kerCoarse[b] += colCoarse[base + b];
+                    }
+                }
+
+                final int row = y * width;
+
+                for (int x = xMin; x <= xMax; x++) {
+                    if (x > xMin) {
+                        // Slide kernel coarse level one column right
+                        final int inBase = (x + radius) * COARSE;
+                        final int outBase = (x - radius - 1) * COARSE;
+
+                        for (int b = 0; b < COARSE; b++) {
+                            kerCoarse[b] += (colCoarse[inBase + b] - colCoarse[outBase + b]);
+                        }
+                    }
+
+                    // Locate coarse bin of median, browsing from highest values
+                    int sum = 0;
+                    int b = COARSE - 1;
+
+                    while ((sum + kerCoarse[b]) < medianCount) {
+                        sum += kerCoarse[b];
+                        b--;
+                    }
+
+                    // Bring fine segment of this coarse bin up to date
+                    updateFine(colFine, kerFine, stamps, b, x);
+
+                    // Locate median within fine segment
+                    final int fineBase = b * FINE;
+                    int f = FINE - 1;
+
+                    while ((sum + kerFine[fineBase + f]) < medianCount) {
+                        sum += kerFine[fineBase + f];
+                        f--;
+                    }
+
+                    dst[row + x] = (byte) (fineBase + f);
+                }
             }
+
+            return null;
+        }
+
+        /**
+         * Update kernel fine segment for coarse bin 'b', so that it corresponds to kernel
+         * centered on abscissa 'x'.
+         * This is done incrementally from its last update if cheaper, otherwise from scratch.
+         */
+        private void updateFine (int[] colFine,
+                                 int[] kerFine,
+                                 int[] stamps,
+                                 int b,
+                                 int x)
+        {
+            final int fineBase = b * FINE;
+            final int last = stamps[b];
+
+            if ((last >= 0) && ((2 * (x - last)) <= ((2 * radius) + 1))) {
+                for (int xx = last + 1; xx <= x; xx++) {
+                    final int inBase = ((xx + radius) << 8) + fineBase;
+                    final int outBase = ((xx - radius - 1) << 8) + fineBase;
+
+                    for (int f = 0; f < FINE; f++) {
+                        kerFine[fineBase + f] += (colFine[inBase + f] - colFine[outBase + f]);
+                    }
+                }
+            } else {
+                Arrays.fill(kerFine, fineBase, fineBase + FINE, 0);
+
+                for (int xx = x - radius; xx <= (x + radius); xx++) {
+                    final int base = (xx << 8) + fineBase;
+
+                    for (int f = 0; f < FINE; f++) {
+                        kerFine[fineBase + f] += colFine[base + f];
+                    }
+                }
+            }
+
+            stamps[b] = x;
         }
     }
 }
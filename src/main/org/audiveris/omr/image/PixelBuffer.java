@@ -25,6 +25,8 @@ import ij.process.ByteProcessor;
 
 import net.jcip.annotations.ThreadSafe;
 import static org.audiveris.omr.image.PixelSource.BACKGROUND;
+import org.audiveris.omr.run.RunTable;
+import org.audiveris.omr.run.RunTableBuilder;
 import org.audiveris.omr.util.StopWatch;
 
 import org.slf4j.Logger;
@@ -127,6 +129,16 @@ public class PixelBuffer
         throw new UnsupportedOperationException("Not supported yet.");
     }
 
+    //---------------//
+    // filteredTable //
+    //---------------//
+    @Override
+    public RunTable filteredTable ()
+    {
+        return new RunTableBuilder(getWidth(), getHeight()).buildTable(
+                new RunTableBuilder.FilterFeeder(this));
+    }
+
     @Override
     public int get (int x,
                     int y)
@@ -23,6 +23,8 @@ package org.audiveris.omr.image;
 
 import ij.process.ByteProcessor;
 
+import org.audiveris.omr.run.RunTable;
+
 /**
  * Interface {@code PixelFilter} reports the foreground pixels of a {@link PixelSource}.
  *
@@ -39,6 +41,14 @@ public interface PixelFilter
      */
     ByteProcessor filteredImage ();
 
+    /**
+     * Run the filter on source image and report the filtered runs, without materializing
+     * any intermediate image buffer.
+     *
+     * @return the table of VERTICAL runs
+     */
+    RunTable filteredTable ();
+
     /**
      * Report the source context at provided location.
      * This is meant for administration and display purposes, it does not need
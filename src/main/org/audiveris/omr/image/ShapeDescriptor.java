@@ -137,6 +137,29 @@ public class ShapeDescriptor
         return template.evaluate(x, y, anchor, distances);
     }
 
+    //----------//
+    // evaluate //
+    //----------//
+    /**
+     * Try the relevant templates at specified location and report best distance found,
+     * giving up as soon as distance is known to exceed maxDistance.
+     *
+     * @param x           location abscissa
+     * @param y           location ordinate
+     * @param anchor      location WRT template
+     * @param distances   table of distances
+     * @param maxDistance maximum distance of interest
+     * @return the best distance found if not larger than maxDistance, otherwise some larger value
+     */
+    public double evaluate (int x,
+                            int y,
+                            Anchor anchor,
+                            DistanceTable distances,
+                            double maxDistance)
+    {
+        return template.evaluate(x, y, anchor, distances, maxDistance);
+    }
+
     //--------------//
     // evaluateHole //
     //--------------//
@@ -186,6 +186,16 @@ public interface Table
             }
         }
 
+        /**
+         * Report whether this table is a view on an underlying table.
+         *
+         * @return true if a region of interest is defined
+         */
+        public boolean isView ()
+        {
+            return roi != null;
+        }
+
         protected final void checkRoi (Rectangle roi)
         {
             if ((roi.x < 0) || ((roi.x + roi.width) > width)) {
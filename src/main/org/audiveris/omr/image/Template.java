@@ -112,6 +112,9 @@ public class Template
      */
     private final Map<Anchor, Point> offsets = new EnumMap<>(Anchor.class);
 
+    /** Key points compiled for evaluation, lazily built. */
+    private volatile CompiledPoints compiled;
+
     /**
      * Creates a new Template object with a provided set of points.
      *
@@ -311,39 +314,79 @@ public class Template
                             Anchor anchor,
                             DistanceTable distances)
     {
-        final Point ul = upperLeft(x, y, anchor);
+        return evaluate(x, y, anchor, distances, Double.MAX_VALUE);
+    }
 
-        // Loop through template key positions and read related distance.
-        // Compute the mean value on all distances read
+    //----------//
+    // evaluate //
+    //----------//
+    /**
+     * Evaluate this template at location (x,y) in provided distances table, giving up as
+     * soon as the result is known to exceed the provided maximum distance.
+     * <p>
+     * Since every key point contributes a mismatch of 0 or 1, the weighted mismatches found so
+     * far divided by the largest possible sum of weights is a lower bound of the final distance.
+     * Evaluation stops as soon as this bound exceeds maxDistance.
+     *
+     * @param x           location abscissa
+     * @param y           location ordinate
+     * @param anchor      the anchor kind to use for (x,y), null for upper left
+     * @param distances   the distance table to search
+     * @param maxDistance the maximum distance of interest
+     * @return the weighted average distance computed on all key positions if not larger than
+     *         maxDistance, otherwise some value larger than maxDistance
+     */
+    public double evaluate (int x,
+                            int y,
+                            Anchor anchor,
+                            DistanceTable distances,
+                            double maxDistance)
+    {
+        final Point ul = upperLeft(x, y, anchor);
         final int imgWidth = distances.getWidth();
         final int imgHeight = distances.getHeight();
-        final double foreWeight = constants.foreWeight.getValue();
-        final double backWeight = constants.backWeight.getValue();
-        final double holeWeight = constants.holeWeight.getValue();
+        final CompiledPoints cp = getCompiled(imgWidth);
+
+        // Are all key positions located within image?
+        final boolean inside = ((ul.x + cp.xMin) >= 0) && ((ul.x + cp.xMax) < imgWidth)
+                               && ((ul.y + cp.yMin) >= 0) && ((ul.y + cp.yMax) < imgHeight);
+        final short[] values = inside ? rawValues(distances) : null;
+        final int base = (ul.y * imgWidth) + ul.x;
+        final int count = cp.dxs.length;
         double weights = 0; // Sum of weights
         double total = 0; // Sum of weighted distances
 
-        for (PixelDistance pix : keyPoints) {
-            int nx = ul.x + pix.x;
-            int ny = ul.y + pix.y;
+        for (int i = 0; i < count; i++) {
+            final int actualDist;
 
-            // Ignore tested point if located out of image
-            if ((nx >= 0) && (nx < imgWidth) && (ny >= 0) && (ny < imgHeight)) {
-                int actualDist = distances.getValue(nx, ny);
+            if (values != null) {
+                actualDist = values[base + cp.offsets[i]];
+            } else {
+                final int nx = ul.x + cp.dxs[i];
+                final int ny = ul.y + cp.dys[i];
 
-                // Ignore neutralized locations in distance table
-                if (actualDist != ChamferDistance.VALUE_UNKNOWN) {
-                    // pix.d < 0 for expected hole, expected negative distance to nearest foreground
-                    // pix.d == 0 for expected foreground, 0 distance
-                    // pix.d > 0 for expected background, expected distance to nearest foreground
-                    double weight = (pix.d == 0) ? foreWeight
-                            : ((pix.d > 0) ? backWeight : holeWeight);
-                    double expected = (pix.d == 0) ? 0 : 1;
-                    double actual = (actualDist == 0) ? 0 : 1;
-                    double dist = Math.abs(actual - expected);
-
-                    total += (weight * dist);
-                    weights += weight;
+                // Ignore tested point if located out of image
+                if ((nx < 0) || (nx >= imgWidth) || (ny < 0) || (ny >= imgHeight)) {
+                    continue;
+                }
+
+                actualDist = distances.getValue(nx, ny);
+            }
+
+            // Ignore neutralized locations in distance table
+            if (actualDist != ChamferDistance.VALUE_UNKNOWN) {
+                final double weight = cp.weights[i];
+                weights += weight;
+
+                // Mismatch between actual and expected foreground?
+                if ((actualDist == 0) != cp.fores[i]) {
+                    total += weight;
+
+                    final double maxWeights = weights + cp.remains[i + 1];
+
+                    if (total > (maxDistance * maxWeights)) {
+                        return total / maxWeights;
+                    }
                 }
             }
         }
@@ -675,6 +718,26 @@ public class Template
         return sb.toString();
     }
 
+    //-------------//
+    // getCompiled //
+    //-------------//
+    /**
+     * Report the key points compiled for a distance table of the provided width.
+     *
+     * @param tableWidth width of distance table
+     * @return the compiled key points
+     */
+    private CompiledPoints getCompiled (int tableWidth)
+    {
+        CompiledPoints cp = compiled;
+
+        if ((cp == null) || (cp.tableWidth != tableWidth)) {
+            compiled = cp = new CompiledPoints(keyPoints, tableWidth);
+        }
+
+        return cp;
+    }
+
     //-----------//
     // upperLeft //
     //-----------//
@@ -713,6 +776,28 @@ public class Template
         return 1 - (distance / maxDistanceHigh());
     }
 
+    //-----------//
+    // rawValues //
+    //-----------//
+    /**
+     * Report the underlying array of provided distance table, if directly accessible.
+     *
+     * @param distances the distance table
+     * @return the table data, or null if table is not a plain short table
+     */
+    private static short[] rawValues (DistanceTable distances)
+    {
+        if (distances instanceof DistanceTable.Short) {
+            final Table table = ((DistanceTable.Short) distances).getTable();
+
+            if ((table instanceof Table.Short) && !((Table.Short) table).isView()) {
+                return ((Table.Short) table).getValues();
+            }
+        }
+
+        return null;
+    }
+
     //-----------------//
     // maxDistanceHigh //
     //-----------------//
@@ -794,4 +879,95 @@ public class Template
                 1.0,
                 "Really bad matching distance");
     }
+
+    //----------------//
+    // CompiledPoints //
+    //----------------//
+    /**
+     * Key points flattened into arrays, with their weights resolved and their offsets
+     * pre-computed for a given table width.
+     */
+    private static class CompiledPoints
+    {
+
+        /** Width of distance table. */
+        final int tableWidth;
+
+        /** Key point abscissae, relative to template upper left corner. */
+        final int[] dxs;
+
+        /** Key point ordinates, relative to template upper left corner. */
+        final int[] dys;
+
+        /** Key point offsets in distance table data. */
+        final int[] offsets;
+
+        /** Key point weights. */
+        final double[] weights;
+
+        /** Remaining weights: sum of weights from index i on (with a trailing 0). */
+        final double[] remains;
+
+        /** Is foreground expected at key point?. */
+        final boolean[] fores;
+
+        /** Abscissa range of key points. */
+        final int xMin;
+
+        final int xMax;
+
+        /** Ordinate range of key points. */
+        final int yMin;
+
+        final int yMax;
+
+        CompiledPoints (List<PixelDistance> keyPoints,
+                        int tableWidth)
+        {
+            this.tableWidth = tableWidth;
+
+            final double foreWeight = constants.foreWeight.getValue();
+            final double backWeight = constants.backWeight.getValue();
+            final double holeWeight = constants.holeWeight.getValue();
+            final int count = keyPoints.size();
+            dxs = new int[count];
+            dys = new int[count];
+            offsets = new int[count];
+            weights = new double[count];
+            remains = new double[count + 1];
+            fores = new boolean[count];
+
+            int x1 = Integer.MAX_VALUE;
+            int x2 = Integer.MIN_VALUE;
+            int y1 = Integer.MAX_VALUE;
+            int y2 = Integer.MIN_VALUE;
+
+            for (int i = 0; i < count; i++) {
+                final PixelDistance pix = keyPoints.get(i);
+                dxs[i] = pix.x;
+                dys[i] = pix.y;
+                offsets[i] = (pix.y * tableWidth) + pix.x;
+
+                // pix.d < 0 for expected hole, expected negative distance to nearest foreground
+                // pix.d == 0 for expected foreground, 0 distance
+                // pix.d > 0 for expected background, expected distance to nearest foreground
+                weights[i] = (pix.d == 0) ? foreWeight : ((pix.d > 0) ? backWeight : holeWeight);
+                fores[i] = pix.d == 0;
+
+                x1 = Math.min(x1, pix.x);
+                x2 = Math.max(x2, pix.x);
+                y1 = Math.min(y1, pix.y);
+                y2 = Math.max(y2, pix.y);
+            }
+
+            for (int i = count - 1; i >= 0; i--) {
+                remains[i] = remains[i + 1] + weights[i];
+            }
+
+            xMin = x1;
+            xMax = x2;
+            yMin = y1;
+            yMax = y2;
+        }
+    }
 }
@@ -47,12 +47,14 @@ import java.awt.Rectangle;
 import java.awt.Stroke;
 import java.awt.geom.PathIterator;
 import java.awt.geom.Point2D;
+import java.util.AbstractList;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.Collections;
 import java.util.List;
 import java.util.Objects;
 
+import javax.xml.bind.Marshaller;
+import javax.xml.bind.Unmarshaller;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
@@ -62,6 +64,12 @@ import javax.xml.bind.annotation.adapters.XmlAdapter;
 
 /**
  * Class {@code BasicSection} is a basic implementation of {@link Section}.
+ * <p>
+ * Runs are kept as packed arrays of starts and lengths, rather than as {@link Run} instances,
+ * and section geometry (bounds, centroid, polygon, line) is computed only when first needed.
+ * {@link Run} instances are created on demand by {@link #getRuns()}, {@link #getFirstRun()} and
+ * {@link #getLastRun()}, the hot paths use {@link #getRunStart(int)} and
+ * {@link #getRunLength(int)} instead.
  *
  * @author Hervé Bitteur
  */
@@ -74,6 +82,9 @@ public class BasicSection
 
     private static final Logger logger = LoggerFactory.getLogger(BasicSection.class);
 
+    /** Shared empty array, for sections with no run yet. */
+    protected static final int[] NO_RUNS = new int[0];
+
     /** Position of first run */
     @XmlAttribute(name = "first-pos")
     protected int firstPos;
@@ -82,18 +93,27 @@ public class BasicSection
     @XmlAttribute(name = "orientation")
     protected Orientation orientation;
 
-    /** The collection of runs that make up the section */
+    /** The runs that make up the section, only meant for XML (un)marshalling */
     @XmlElement(name = "run")
-    protected final List<Run> runs = new ArrayList<>();
+    private List<Run> xmlRuns;
+
+    /** Start coordinate of each run, only the first runCount cells are meaningful */
+    protected int[] starts = NO_RUNS;
+
+    /** Length of each run, only the first runCount cells are meaningful */
+    protected int[] lengths = NO_RUNS;
+
+    /** Number of runs */
+    protected int runCount;
 
     /** Containing lag, if any. */
     protected Lag lag;
 
-    /** Oriented bounding rectangle */
-    protected Rectangle orientedBounds;
+    /** Oriented bounding rectangle, lazily computed */
+    protected volatile Rectangle orientedBounds;
 
-    /** Absolute mass center */
-    protected Point centroid;
+    /** Absolute mass center, lazily computed */
+    protected volatile Point centroid;
 
     /** Length of longest run */
     protected int maxRunLength;
@@ -101,11 +121,11 @@ public class BasicSection
     /** Number of foreground pixels. */
     protected int weight;
 
-    /** Absolute contour points */
-    protected Polygon polygon;
+    /** Absolute contour points, lazily computed */
+    protected volatile Polygon polygon;
 
-    /** Approximating oriented line for this section */
-    protected Line orientedLine;
+    /** Approximating oriented line for this section, lazily computed */
+    protected volatile Line orientedLine;
 
     /**
      * Creates a new BasicSection.
@@ -126,14 +146,18 @@ public class BasicSection
     {
         orientation = ds.getOrientation();
         firstPos = ds.getFirstPos();
-        runs.addAll(ds.getRuns());
+        runCount = ds.getRunCount();
+        starts = Arrays.copyOf(ds.starts, runCount);
+        lengths = Arrays.copyOf(ds.lengths, runCount);
         lag = ds.getLag();
-        orientedBounds = ds.getOrientedBounds();
-        centroid = ds.getCentroid();
         maxRunLength = ds.getMaxRunLength();
         weight = ds.getWeight();
-        polygon = ds.getPolygon();
-        orientedLine = ds.getOrientedLine();
+
+        // Reuse geometry already computed, if any
+        orientedBounds = ds.orientedBounds;
+        centroid = ds.centroid;
+        polygon = ds.polygon;
+        orientedLine = ds.orientedLine;
     }
 
     //----------//
@@ -168,39 +192,29 @@ public class BasicSection
 
         if (absRoi == null) {
             // Take all run pixels
-            int pos = firstPos - 1;
-
-            for (Run run : runs) {
-                double coord = run.getStart() + (run.getLength() / 2d);
-                pos++;
+            for (int i = 0; i < runCount; i++) {
+                final int length = lengths[i];
+                final double coord = starts[i] + (length / 2d);
+                final int pos = firstPos + i;
 
                 if (orientation == HORIZONTAL) {
-                    barycenter.include(run.getLength(), coord, pos);
+                    barycenter.include(length, coord, pos);
                 } else {
-                    barycenter.include(run.getLength(), pos, coord);
+                    barycenter.include(length, pos, coord);
                 }
             }
         } else {
             Rectangle oRoi = orientation.oriented(absRoi);
 
             // Take only the pixels contained by the oriented roi
-            int pos = firstPos - 1;
-            int posMax = Math.min(firstPos + runs.size(), oRoi.y + oRoi.height) - 1;
+            int posMin = Math.max(firstPos, oRoi.y);
+            int posMax = Math.min(firstPos + runCount, oRoi.y + oRoi.height) - 1;
             int coordMax = (oRoi.x + oRoi.width) - 1;
 
-            for (Run run : runs) {
-                pos++;
-
-                if (pos < oRoi.y) {
-                    continue;
-                }
-
-                if (pos > posMax) {
-                    break;
-                }
-
-                final int roiStart = Math.max(run.getStart(), oRoi.x);
-                final int roiStop = Math.min(run.getStop(), coordMax);
+            for (int pos = posMin; pos <= posMax; pos++) {
+                final int i = pos - firstPos;
+                final int roiStart = Math.max(starts[i], oRoi.x);
+                final int roiStop = Math.min((starts[i] + lengths[i]) - 1, coordMax);
 
                 for (int coord = roiStart; coord <= roiStop; coord++) {
                     if (orientation == HORIZONTAL) {
@@ -222,43 +236,30 @@ public class BasicSection
         final Rectangle roi = collector.getRoi();
 
         if (roi == null) {
-            int p = firstPos;
-
-            for (Run run : runs) {
-                final int start = run.getStart();
+            for (int i = 0; i < runCount; i++) {
+                final int start = starts[i];
+                final int p = firstPos + i;
 
-                for (int ic = run.getLength() - 1; ic >= 0; ic--) {
+                for (int ic = lengths[i] - 1; ic >= 0; ic--) {
                     if (orientation == HORIZONTAL) {
                         collector.include(start + ic, p);
                     } else {
                         collector.include(p, start + ic);
                     }
                 }
-
-                p++;
             }
         } else {
             // Take only the pixels contained by the absolute roi
             Rectangle oRoi = orientation.oriented(roi);
-            final int pMin = oRoi.y;
-            final int pMax = -1 + Math.min(firstPos + runs.size(), oRoi.y + oRoi.height);
+            final int pMin = Math.max(firstPos, oRoi.y);
+            final int pMax = -1 + Math.min(firstPos + runCount, oRoi.y + oRoi.height);
             final int cMin = oRoi.x;
             final int cMax = (oRoi.x + oRoi.width) - 1;
-            int p = firstPos - 1;
-
-            for (Run run : runs) {
-                p++;
-
-                if (p < pMin) {
-                    continue;
-                }
-
-                if (p > pMax) {
-                    break;
-                }
 
-                final int roiStart = Math.max(run.getStart(), cMin);
-                final int roiStop = Math.min(run.getStop(), cMax);
+            for (int p = pMin; p <= pMax; p++) {
+                final int i = p - firstPos;
+                final int roiStart = Math.max(starts[i], cMin);
+                final int roiStop = Math.min((starts[i] + lengths[i]) - 1, cMax);
                 final int length = roiStop - roiStart + 1;
 
                 if (length > 0) {
@@ -313,8 +314,10 @@ public class BasicSection
         if (isVertical()) {
             int x = getFirstPos() - offset.x;
 
-            for (Run run : runs) {
-                for (int y = run.getStart(); y <= run.getStop(); y++) {
+            for (int i = 0; i < runCount; i++) {
+                final int stop = (starts[i] + lengths[i]) - 1;
+
+                for (int y = starts[i]; y <= stop; y++) {
                     buffer.set(x, y - offset.y, 0);
                 }
 
@@ -323,8 +326,10 @@ public class BasicSection
         } else {
             int y = getFirstPos() - offset.y;
 
-            for (Run run : runs) {
-                for (int x = run.getStart(); x <= run.getStop(); x++) {
+            for (int i = 0; i < runCount; i++) {
+                final int stop = (starts[i] + lengths[i]) - 1;
+
+                for (int x = starts[i]; x <= stop; x++) {
                     buffer.set(x - offset.x, y, 0);
                 }
 
@@ -341,7 +346,7 @@ public class BasicSection
                            Rectangle box)
     {
         // Determine the bounds
-        getPolygon(); // Make sure the polygon is available
+        final Polygon polygon = getPolygon();
 
         int xPrev = 0;
         int yPrev = 0;
@@ -389,9 +394,7 @@ public class BasicSection
     @Override
     public Line getAbsoluteLine ()
     {
-        getOrientedLine();
-
-        return orientation.switchRef(orientedLine);
+        return orientation.switchRef(getOrientedLine());
     }
 
     //---------------//
@@ -429,6 +432,10 @@ public class BasicSection
     @Override
     public Point getCentroid ()
     {
+        if (centroid == null) {
+            centroid = computeCentroid();
+        }
+
         return centroid;
     }
 
@@ -439,13 +446,11 @@ public class BasicSection
     public Point2D getCentroid2D ()
     {
         Point2D.Double orientedPoint = new Point2D.Double(0, 0);
-        int y = firstPos;
 
-        for (Run run : runs) {
-            final int length = run.getLength();
-            orientedPoint.y += (length * (2 * y));
-            orientedPoint.x += (length * ((2 * run.getStart()) + length));
-            y++;
+        for (int i = 0; i < runCount; i++) {
+            final int length = lengths[i];
+            orientedPoint.y += (length * (2 * (firstPos + i)));
+            orientedPoint.x += (length * ((2 * starts[i]) + length));
         }
 
         orientedPoint.x /= (2 * getWeight());
@@ -472,7 +477,7 @@ public class BasicSection
     @Override
     public Run getFirstRun ()
     {
-        return runs.get(0);
+        return getRun(0);
     }
 
     //--------//
@@ -512,7 +517,7 @@ public class BasicSection
     @Override
     public Run getLastRun ()
     {
-        return runs.get(runs.size() - 1);
+        return getRun(runCount - 1);
     }
 
     //-----------//
@@ -579,6 +584,10 @@ public class BasicSection
     @Override
     public Rectangle getOrientedBounds ()
     {
+        if (orientedBounds == null) {
+            orientedBounds = orientation.oriented(getBounds());
+        }
+
         return orientedBounds;
     }
 
@@ -588,6 +597,10 @@ public class BasicSection
     @Override
     public Line getOrientedLine ()
     {
+        if ((orientedLine == null) && (getWeight() > 1)) {
+            orientedLine = computeOrientedLine();
+        }
+
         return orientedLine;
     }
 
@@ -606,6 +619,10 @@ public class BasicSection
     @Override
     public Polygon getPolygon ()
     {
+        if (polygon == null) {
+            polygon = computePolygon();
+        }
+
         return polygon;
     }
 
@@ -635,16 +652,68 @@ public class BasicSection
     @Override
     public int getRunCount ()
     {
-        return runs.size();
+        return runCount;
+    }
+
+    //--------------//
+    // getRunLength //
+    //--------------//
+    /**
+     * Report the length of run at provided index, with no Run allocation.
+     *
+     * @param index run index within section
+     * @return the run length
+     */
+    public int getRunLength (int index)
+    {
+        checkRunIndex(index);
+
+        return lengths[index];
+    }
+
+    //-------------//
+    // getRunStart //
+    //-------------//
+    /**
+     * Report the start coordinate of run at provided index, with no Run allocation.
+     *
+     * @param index run index within section
+     * @return the run start
+     */
+    public int getRunStart (int index)
+    {
+        checkRunIndex(index);
+
+        return starts[index];
     }
 
     //---------//
     // getRuns //
     //---------//
+    /**
+     * {@inheritDoc}
+     * <p>
+     * This is a read-only view on section runs, each Run being created on demand.
+     *
+     * @return the runs view
+     */
     @Override
     public List<Run> getRuns ()
     {
-        return Collections.unmodifiableList(runs);
+        return new AbstractList<Run>()
+        {
+            @Override
+            public Run get (int index)
+            {
+                return getRun(index);
+            }
+
+            @Override
+            public int size ()
+            {
+                return runCount;
+            }
+        };
     }
 
     //---------------//
@@ -717,19 +786,20 @@ public class BasicSection
     @Override
     public boolean intersects (java.awt.Shape shape)
     {
-        int pos = getFirstPos();
+        final Rectangle runBox = new Rectangle();
 
-        for (Run run : runs) {
-            final int start = run.getStart();
-            final Rectangle runBox = (orientation == HORIZONTAL) ? new Rectangle(start, pos, run
-                                                                                 .getLength(), 1)
-                    : new Rectangle(pos, start, 1, run.getLength());
+        for (int i = 0; i < runCount; i++) {
+            final int pos = firstPos + i;
+
+            if (orientation == HORIZONTAL) {
+                runBox.setBounds(starts[i], pos, lengths[i], 1);
+            } else {
+                runBox.setBounds(pos, starts[i], 1, lengths[i]);
+            }
 
             if (shape.intersects(runBox)) {
                 return true;
             }
-
-            pos++;
         }
 
         return false;
@@ -785,7 +855,7 @@ public class BasicSection
         }
 
         // Fill polygon
-        getPolygon();
+        final Polygon polygon = getPolygon();
         g.fillPolygon(polygon.xpoints, polygon.ypoints, polygon.npoints);
 
         // Draw polygon borders if so desired
@@ -814,6 +884,7 @@ public class BasicSection
             if (g instanceof Graphics2D) {
                 Graphics2D g2 = (Graphics2D) g;
                 final Stroke oldStroke = UIUtil.setAbsoluteStroke(g2, 1f);
+                final Polygon polygon = getPolygon();
                 g.setColor(Color.white);
                 g.fillPolygon(polygon.xpoints, polygon.ypoints, polygon.npoints);
                 g.setColor(Color.black);
@@ -841,13 +912,13 @@ public class BasicSection
             return false;
         }
 
-        int pos = getFirstPos();
-
-        for (Run run : runs) {
-            final int start = run.getStart();
-            final Rectangle r1 = (orientation == HORIZONTAL) ? new Rectangle(start, pos, run
-                                                                             .getLength(), 1)
-                    : new Rectangle(pos, start, 1, run.getLength());
+        for (int i = 0; i < runCount; i++) {
+            final int pos = firstPos + i;
+            final Rectangle r1 = (orientation == HORIZONTAL) ? new Rectangle(
+                    starts[i],
+                    pos,
+                    lengths[i],
+                    1) : new Rectangle(pos, starts[i], 1, lengths[i]);
 
             if (thatFatBox.intersects(r1)) {
                 // Check contact between this run and one of that runs
@@ -867,8 +938,6 @@ public class BasicSection
                     thatPos++;
                 }
             }
-
-            pos++;
         }
 
         return false;
@@ -886,21 +955,36 @@ public class BasicSection
 
         firstPos += dp;
 
-        for (Run run : runs) {
-            run.translate(dc);
+        for (int i = 0; i < runCount; i++) {
+            starts[i] += dc;
         }
 
-        if (centroid != null) {
-            centroid.translate(dx, dy);
-        }
+        // Geometry will be recomputed on demand
+        invalidateCache();
+    }
 
-        if (polygon != null) {
-            polygon.translate(dx, dy);
-        }
+    //-----------------//
+    // computeCentroid //
+    //-----------------//
+    /**
+     * Compute section centroid.
+     *
+     * @return absolute centroid
+     */
+    protected Point computeCentroid ()
+    {
+        Point orientedPoint = new Point(0, 0);
 
-        if (orientedLine != null) {
-            orientedLine = computeOrientedLine();
+        for (int i = 0; i < runCount; i++) {
+            final int length = lengths[i];
+            orientedPoint.y += (length * (2 * (firstPos + i)));
+            orientedPoint.x += (length * ((2 * starts[i]) + length));
         }
+
+        orientedPoint.x /= (2 * getWeight());
+        orientedPoint.y /= (2 * getWeight());
+
+        return orientation.absolute(orientedPoint);
     }
 
     //---------------------//
@@ -916,21 +1000,94 @@ public class BasicSection
         // Compute the section line
         Line oLine = new BasicLine();
 
-        int y = getFirstPos();
+        for (int i = 0; i < runCount; i++) {
+            final int y = firstPos + i;
+            final int stop = (starts[i] + lengths[i]) - 1;
 
-        for (Run run : runs) {
-            int stop = run.getStop();
-
-            for (int x = run.getStart(); x <= stop; x++) {
+            for (int x = starts[i]; x <= stop; x++) {
                 oLine.includePoint(x, y);
             }
-
-            y++;
         }
 
         return oLine;
     }
 
+    //-------------------//
+    // computeParameters //
+    //-------------------//
+    /**
+     * Update weight and maximum run length for this section.
+     */
+    protected void computeParameters ()
+    {
+        int w = 0;
+        int max = 0;
+
+        for (int i = 0; i < runCount; i++) {
+            final int length = lengths[i];
+            w += length;
+            max = Math.max(max, length);
+        }
+
+        maxRunLength = max;
+        weight = w;
+
+        // Invalidate cached data
+        invalidateCache();
+
+        logger.debug(
+                "Parameters of {} maxRunLength={} meanRunLength={}" + " weight={}",
+                this,
+                maxRunLength,
+                getMeanRunLength(),
+                weight);
+    }
+
+    //----------------//
+    // computePolygon //
+    //----------------//
+    /**
+     * Compute the arrays of points needed to draw the section runs.
+     * This is an absolute definition.
+     *
+     * @return the created polygon that represents the section geometry
+     */
+    protected Polygon computePolygon ()
+    {
+        final int maxNb = 1 + (4 * getRunCount()); // Upper value
+        final int[] xx = new int[maxNb];
+        final int[] yy = new int[maxNb];
+        int idx = 0; // Current filling index in xx & yy arrays
+
+        if (isVertical()) {
+            idx = populatePolygon(yy, xx, idx, 1);
+            idx = populatePolygon(yy, xx, idx, -1);
+        } else {
+            idx = populatePolygon(xx, yy, idx, 1);
+            idx = populatePolygon(xx, yy, idx, -1);
+        }
+
+        Polygon poly = new Polygon(xx, yy, idx);
+
+        return poly;
+    }
+
+    //--------//
+    // getRun //
+    //--------//
+    /**
+     * Create a Run instance for the run at provided index.
+     *
+     * @param index run index within section
+     * @return a new Run instance
+     */
+    protected Run getRun (int index)
+    {
+        checkRunIndex(index);
+
+        return new Run(starts[index], lengths[index]);
+    }
+
     //-----------//
     // internals //
     //-----------//
@@ -940,6 +1097,140 @@ public class BasicSection
         return orientation.isVertical() ? "V" : "H";
     }
 
+    //-----------------//
+    // invalidateCache //
+    //-----------------//
+    /**
+     * Nullify all cached data.
+     */
+    protected void invalidateCache ()
+    {
+        orientedBounds = null;
+        centroid = null;
+        polygon = null;
+        orientedLine = null;
+    }
+
+    //-----------------//
+    // populatePolygon //
+    //-----------------//
+    /**
+     * Compute the arrays of points needed to draw the section runs
+     *
+     * @param xpoints to receive abscissae
+     * @param ypoints to receive coordinates
+     * @param dir     direction for browsing runs
+     * @param index   first index available in arrays
+     * @return last index value
+     */
+    protected int populatePolygon (int[] xpoints,
+                                   int[] ypoints,
+                                   int index,
+                                   int dir)
+    {
+        // Precise delimitating points
+        int runNb = getRunCount();
+        int iStart = (dir > 0) ? 0 : (runNb - 1);
+        int iBreak = (dir > 0) ? runNb : (-1);
+        int y = (dir > 0) ? getFirstPos() : (getFirstPos() + runNb);
+        int xPrev = -1;
+
+        for (int i = iStart; i != iBreak; i += dir) {
+            // +----------------------------+
+            // +--+-------------------------+
+            //    +----------------------+--+
+            //    +----------------------+
+            //
+            // Order of the 4 angle points for a run is
+            // Vertical lag:    Horizontal lag:
+            //     1 2              1 4
+            //     4 3              2 3
+            int x = (dir > 0) ? starts[i] : (starts[i] + lengths[i]);
+
+            if (x != xPrev) {
+                if (xPrev != -1) {
+                    // Insert last vertex
+                    xpoints[index] = xPrev;
+                    ypoints[index] = y;
+                    index++;
+                }
+
+                // Insert new vertex
+                xpoints[index] = x;
+                ypoints[index] = y;
+                index++;
+                xPrev = x;
+            }
+
+            y += dir;
+        }
+
+        // Complete the sequence, with a new vertex
+        xpoints[index] = xPrev;
+        ypoints[index] = y;
+        index++;
+
+        if (dir < 0) {
+            // Finish with starting point
+            xpoints[index] = starts[0];
+            ypoints[index] = getFirstPos();
+            index++;
+        }
+
+        return index;
+    }
+
+    //--------------//
+    // afterMarshal //
+    //--------------//
+    @SuppressWarnings("unused")
+    private void afterMarshal (Marshaller m)
+    {
+        xmlRuns = null;
+    }
+
+    //----------------//
+    // afterUnmarshal //
+    //----------------//
+    @SuppressWarnings("unused")
+    private void afterUnmarshal (Unmarshaller um,
+                                 Object parent)
+    {
+        if (xmlRuns != null) {
+            runCount = xmlRuns.size();
+            starts = new int[runCount];
+            lengths = new int[runCount];
+
+            for (int i = 0; i < runCount; i++) {
+                final Run run = xmlRuns.get(i);
+                starts[i] = run.getStart();
+                lengths[i] = run.getLength();
+            }
+
+            xmlRuns = null;
+            computeParameters();
+        }
+    }
+
+    //---------------//
+    // beforeMarshal //
+    //---------------//
+    @SuppressWarnings("unused")
+    private void beforeMarshal (Marshaller m)
+    {
+        xmlRuns = new ArrayList<>(getRuns());
+    }
+
+    //---------------//
+    // checkRunIndex //
+    //---------------//
+    private void checkRunIndex (int index)
+    {
+        if ((index < 0) || (index >= runCount)) {
+            throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + runCount);
+        }
+    }
+
     //---------------//
     // allocateTable //
     //---------------//
@@ -21,7 +21,6 @@
 // </editor-fold>
 package org.audiveris.omr.lag;
 
-import org.audiveris.omr.math.Line;
 import org.audiveris.omr.run.Orientation;
 import org.audiveris.omr.run.Run;
 
@@ -29,8 +28,7 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.awt.Point;
-import java.awt.Polygon;
-import java.awt.Rectangle;
+import java.util.Arrays;
 
 /**
  * Class {@code DynamicSection} is a section that can evolve by adding runs or
@@ -44,6 +42,12 @@ public class DynamicSection
 
     private static final Logger logger = LoggerFactory.getLogger(DynamicSection.class);
 
+    /** Initial capacity of run arrays. */
+    private static final int INITIAL_CAPACITY = 8;
+
+    /** Set by {@link SectionFactory} when this section can no longer be continued. */
+    boolean processed;
+
     /**
      * Creates a new {@code DynamicSection} object.
      *
@@ -66,65 +70,15 @@ public class DynamicSection
      */
     public void append (Run run)
     {
-        run = new Run(run);
-        runs.add(run);
-        addRun(run);
+        ensureCapacity(runCount + 1);
+        starts[runCount] = run.getStart();
+        lengths[runCount] = run.getLength();
+        runCount++;
+        addRun(run.getLength());
 
         logger.debug("Appended {} to {}", run, this);
     }
 
-    //-------------//
-    // getCentroid //
-    //-------------//
-    @Override
-    public Point getCentroid ()
-    {
-        if (centroid == null) {
-            centroid = computeCentroid();
-        }
-
-        return centroid;
-    }
-
-    //-------------------//
-    // getOrientedBounds //
-    //-------------------//
-    @Override
-    public Rectangle getOrientedBounds ()
-    {
-        if (orientedBounds == null) {
-            orientedBounds = orientation.oriented(getBounds());
-        }
-
-        return orientedBounds;
-    }
-
-    //-----------------//
-    // getOrientedLine //
-    //-----------------//
-    @Override
-    public Line getOrientedLine ()
-    {
-        if ((orientedLine == null) && (getWeight() > 1)) {
-            orientedLine = computeOrientedLine();
-        }
-
-        return orientedLine;
-    }
-
-    //------------//
-    // getPolygon //
-    //------------//
-    @Override
-    public Polygon getPolygon ()
-    {
-        if (polygon == null) {
-            polygon = computePolygon();
-        }
-
-        return polygon;
-    }
-
     //-----------//
     // getWeight //
     //-----------//
@@ -148,12 +102,17 @@ public class DynamicSection
      */
     public void prepend (Run run)
     {
-        run = new Run(run);
         logger.debug("Prepending {} to {}", run, this);
 
+        ensureCapacity(runCount + 1);
+        System.arraycopy(starts, 0, starts, 1, runCount);
+        System.arraycopy(lengths, 0, lengths, 1, runCount);
+        starts[0] = run.getStart();
+        lengths[0] = run.getLength();
+        runCount++;
+
         firstPos--;
-        runs.add(0, run);
-        addRun(run);
+        addRun(run.getLength());
 
         logger.debug("Prepended {}", this);
     }
@@ -182,20 +141,7 @@ public class DynamicSection
      */
     public void translate (Point vector)
     {
-        // Get the coord/pos equivalent of dx/dy vector
-        Point cp = orientation.oriented(vector);
-        int dc = cp.x;
-        int dp = cp.y;
-
-        // Apply the needed modifications
-        firstPos += dp;
-
-        for (Run run : runs) {
-            run.translate(dc);
-        }
-
-        // Force update
-        invalidateCache();
+        translateAbsolute(vector.x, vector.y);
     }
 
     //--------//
@@ -204,197 +150,34 @@ public class DynamicSection
     /**
      * Compute incrementally the cached parameters.
      *
-     * @param run the run to be processed
+     * @param length the length of run just added
      */
-    protected void addRun (Run run)
+    protected void addRun (int length)
     {
         // Invalidate cached data
         invalidateCache();
 
         // Compute contribution of this run
-        computeRunContribution(run);
-    }
-
-    //-----------------//
-    // computeCentroid //
-    //-----------------//
-    /**
-     * Compute section centroid.
-     *
-     * @return absolute centroid
-     */
-    protected Point computeCentroid ()
-    {
-        Point orientedPoint = new Point(0, 0);
-        int y = firstPos;
-
-        for (Run run : runs) {
-            final int length = run.getLength();
-            orientedPoint.y += (length * (2 * y));
-            orientedPoint.x += (length * ((2 * run.getStart()) + length));
-            y++;
-        }
-
-        orientedPoint.x /= (2 * getWeight());
-        orientedPoint.y /= (2 * getWeight());
-
-        return orientation.absolute(orientedPoint);
-    }
-
-    //-------------------//
-    // computeParameters //
-    //-------------------//
-    /**
-     * Update cached data for this section.
-     */
-    protected void computeParameters ()
-    {
-        // weight & maxRunLength
-        weight = 0;
-        maxRunLength = 0;
-
-        // maxRunLength
-        for (Run run : runs) {
-            computeRunContribution(run);
-        }
-
-        // Invalidate cached data
-        invalidateCache();
-
-        logger.debug(
-                "Parameters of {} maxRunLength={} meanRunLength={}" + " weight={}",
-                this,
-                maxRunLength,
-                getMeanRunLength(),
-                weight);
-    }
-
-    //----------------//
-    // computePolygon //
-    //----------------//
-    /**
-     * Compute the arrays of points needed to draw the section runs.
-     * This is an absolute definition.
-     *
-     * @return the created polygon that represents the section geometry
-     */
-    protected Polygon computePolygon ()
-    {
-        final int maxNb = 1 + (4 * getRunCount()); // Upper value
-        final int[] xx = new int[maxNb];
-        final int[] yy = new int[maxNb];
-        int idx = 0; // Current filling index in xx & yy arrays
-
-        if (isVertical()) {
-            idx = populatePolygon(yy, xx, idx, 1);
-            idx = populatePolygon(yy, xx, idx, -1);
-        } else {
-            idx = populatePolygon(xx, yy, idx, 1);
-            idx = populatePolygon(xx, yy, idx, -1);
-        }
-
-        Polygon poly = new Polygon(xx, yy, idx);
-
-        return poly;
-    }
-
-    //------------------------//
-    // computeRunContribution //
-    //------------------------//
-    /**
-     * Compute the contribution of provided run to section data.
-     *
-     * @param run provided run
-     */
-    protected void computeRunContribution (Run run)
-    {
-        final int length = run.getLength();
         weight += length;
         maxRunLength = Math.max(maxRunLength, length);
     }
 
-    //-----------------//
-    // invalidateCache //
-    //-----------------//
-    /**
-     * Nullify all cached data.
-     */
-    protected void invalidateCache ()
-    {
-        orientedBounds = null;
-        centroid = null;
-        polygon = null;
-        orientedLine = null;
-    }
-
-    //-----------------//
-    // populatePolygon //
-    //-----------------//
+    //----------------//
+    // ensureCapacity //
+    //----------------//
     /**
-     * Compute the arrays of points needed to draw the section runs
+     * Make sure run arrays can hold the provided number of runs.
      *
-     * @param xpoints to receive abscissae
-     * @param ypoints to receive coordinates
-     * @param dir     direction for browsing runs
-     * @param index   first index available in arrays
-     * @return last index value
+     * @param capacity the minimum capacity
      */
-    protected int populatePolygon (int[] xpoints,
-                                   int[] ypoints,
-                                   int index,
-                                   int dir)
-    {
-        // Precise delimitating points
-        int runNb = getRunCount();
-        int iStart = (dir > 0) ? 0 : (runNb - 1);
-        int iBreak = (dir > 0) ? runNb : (-1);
-        int y = (dir > 0) ? getFirstPos() : (getFirstPos() + runNb);
-        int xPrev = -1;
-
-        for (int i = iStart; i != iBreak; i += dir) {
-            Run run = runs.get(i);
-
-            // +----------------------------+
-            // +--+-------------------------+
-            //    +----------------------+--+
-            //    +----------------------+
-            //
-            // Order of the 4 angle points for a run is
-            // Vertical lag:    Horizontal lag:
-            //     1 2              1 4
-            //     4 3              2 3
-            int x = (dir > 0) ? run.getStart() : (run.getStop() + 1);
-
-            if (x != xPrev) {
-                if (xPrev != -1) {
-                    // Insert last vertex
-                    xpoints[index] = xPrev;
-                    ypoints[index] = y;
-                    index++;
-                }
-
-                // Insert new vertex
-                xpoints[index] = x;
-                ypoints[index] = y;
-                index++;
-                xPrev = x;
-            }
-
-            y += dir;
+    private void ensureCapacity (int capacity)
+    {
+        if (capacity > starts.length) {
+            final int newCapacity = Math.max(
+                    capacity,
+                    Math.max(INITIAL_CAPACITY, 2 * starts.length));
+            starts = Arrays.copyOf(starts, newCapacity);
+            lengths = Arrays.copyOf(lengths, newCapacity);
         }
-
-        // Complete the sequence, with a new vertex
-        xpoints[index] = xPrev;
-        ypoints[index] = y;
-        index++;
-
-        if (dir < 0) {
-            // Finish with starting point
-            xpoints[index] = runs.get(0).getStart();
-            ypoints[index] = getFirstPos();
-            index++;
-        }
-
-        return index;
     }
 }
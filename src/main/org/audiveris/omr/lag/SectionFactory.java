@@ -37,9 +37,7 @@ import java.awt.Point;
 import java.awt.Rectangle;
 import java.util.ArrayList;
 import java.util.Iterator;
-import java.util.LinkedHashSet;
 import java.util.List;
-import java.util.Set;
 
 /**
  * Class {@code SectionFactory} builds a collection of sections out of provided runs.
@@ -78,9 +76,6 @@ public class SectionFactory
     /** Policy for detection of junctions. */
     private final JunctionPolicy junctionPolicy;
 
-    /** Processed sections. true/false */
-    private final Set<DynamicSection> processedSections = new LinkedHashSet<>();
-
     /**
      * Create an instance of SectionFactory with a target lag.
      *
@@ -202,22 +197,6 @@ public class SectionFactory
         return sections;
     }
 
-    //-------------//
-    // isProcessed //
-    //-------------//
-    private boolean isProcessed (DynamicSection dynSection)
-    {
-        return processedSections.contains(dynSection);
-    }
-
-    //--------------//
-    // setProcessed //
-    //--------------//
-    private void setProcessed (DynamicSection dynSection)
-    {
-        processedSections.add(dynSection);
-    }
-
     //-------//
     // Build //
     //-------//
@@ -241,7 +220,7 @@ public class SectionFactory
         private final List<DynamicSection> created = new ArrayList<>();
 
         /** All Active sections in the next sequence. */
-        private final List<DynamicSection> nextActives = new ArrayList<>();
+        private List<DynamicSection> nextActives = new ArrayList<>();
 
         /** List of sections in previous sequence that overlap given run in next sequence. */
         private final List<DynamicSection> overlappingSections = new ArrayList<>();
@@ -250,7 +229,7 @@ public class SectionFactory
          * List of all Active sections in the previous sequence, which means only
          * sections that have a run in previous sequence.
          */
-        private final List<DynamicSection> prevActives = new ArrayList<>();
+        private List<DynamicSection> prevActives = new ArrayList<>();
 
         //--------------//
         // buidSections //
@@ -274,9 +253,10 @@ public class SectionFactory
             for (int col = 1, size = runTable.getSize(); col < size; col++) {
                 // If we have runs in this sequence
                 if (!runTable.isSequenceEmpty(col)) {
-                    // Copy the former next actives sections as the new previous active sections
-                    prevActives.clear();
-                    prevActives.addAll(nextActives);
+                    // Swap lists: former next actives become the new previous actives
+                    final List<DynamicSection> swap = prevActives;
+                    prevActives = nextActives;
+                    nextActives = swap;
                     nextActives.clear();
 
                     // Process all sections of previous sequence, then prevActives
@@ -371,14 +351,15 @@ public class SectionFactory
             overlappingSections.clear();
 
             for (DynamicSection dynSection : prevActives) {
-                Run lastRun = dynSection.getLastRun();
+                final int last = dynSection.getRunCount() - 1;
+                final int lastStart = dynSection.getRunStart(last);
 
-                if (lastRun.getStart() > nextStop) {
+                if (lastStart > nextStop) {
                     break;
                 }
 
-                if (lastRun.getStop() >= nextStart) {
-                    logger.debug("Overlap from {} to {}", lastRun, run);
+                if (((lastStart + dynSection.getRunLength(last)) - 1) >= nextStart) {
+                    logger.debug("Overlap from {} to {}", dynSection, run);
                     overlappingSections.add(dynSection);
                 }
             }
@@ -396,7 +377,7 @@ public class SectionFactory
 
                 DynamicSection prevSection = overlappingSections.get(0);
 
-                if (!isProcessed(prevSection)) {
+                if (!prevSection.processed) {
                     continueSection(prevSection, run);
                 } else {
                     // Create a new section, linked by a junction
@@ -429,9 +410,9 @@ public class SectionFactory
                                       RunTable runTable,
                                       int nextCol)
         {
-            Run lastRun = dynSection.getLastRun();
-            int prevStart = lastRun.getStart();
-            int prevStop = lastRun.getStop();
+            final int last = dynSection.getRunCount() - 1;
+            int prevStart = dynSection.getRunStart(last);
+            int prevStop = (prevStart + dynSection.getRunLength(last)) - 1;
             logger.debug("processPrevSide for section {}", dynSection);
 
             // Check if overlap with a run in next sequence
@@ -446,7 +427,7 @@ public class SectionFactory
                 }
 
                 if (run.getStop() >= prevStart) {
-                    logger.debug("Overlap from {} to {}", lastRun, run);
+                    logger.debug("Overlap from {} to {}", dynSection, run);
                     overlapNb++;
                     overlapRun = new Run(run);
                 }
@@ -473,13 +454,13 @@ public class SectionFactory
                             "Incompatible height between {} and run {}",
                             dynSection,
                             overlapRun);
-                    setProcessed(dynSection);
+                    dynSection.processed = true;
                 }
 
                 break;
 
             default: // Diverging, so conclude the section here
-                setProcessed(dynSection);
+                dynSection.processed = true;
             }
         }
     }
@@ -22,7 +22,9 @@
 package org.audiveris.omr.math;
 
 import org.audiveris.omr.classifier.TrainingMonitor;
+import org.audiveris.omr.step.ProcessingCancellationException;
 import org.audiveris.omr.util.Jaxb;
+import org.audiveris.omr.util.OmrExecutors;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
@@ -30,7 +32,13 @@ import org.slf4j.LoggerFactory;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.Objects;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 import javax.xml.bind.JAXBContext;
 import javax.xml.bind.JAXBException;
@@ -56,6 +64,9 @@ import javax.xml.stream.XMLStreamException;
  * <p>
  * The class also allows in-memory {@link #backup} and {@link #restore} operation, mainly used to
  * save the most efficient weight values during the network training.
+ * <p>
+ * Training can be performed pattern per pattern (see {@link #train}) or by mini-batches whose
+ * gradients are computed in parallel (see {@link #trainByBatch}).
  *
  * @author Hervé Bitteur
  */
@@ -416,6 +427,32 @@ public class NeuralNetwork
         return outputs;
     }
 
+    //-----//
+    // run //
+    //-----//
+    /**
+     * Run the neural network on a batch of input vectors, writing the computed output
+     * values into the provided buffers.
+     * <p>
+     * Each layer is computed as a dense matrix product, every weight row being applied to all the
+     * batch patterns in turn.
+     * No allocation is performed, all buffers being provided by the caller and possibly larger
+     * than needed.
+     *
+     * @param count   number of patterns in batch
+     * @param inputs  input vectors, at least count of them, each of input size
+     * @param hiddens buffer for hidden vectors, at least count of them, each of hidden size
+     * @param outputs buffer for output vectors, at least count of them, each of output size
+     */
+    public void run (int count,
+                     double[][] inputs,
+                     double[][] hiddens,
+                     double[][] outputs)
+    {
+        forwardBatch(count, inputs, inputSize, hiddenWeights, hiddenSize, hiddens);
+        forwardBatch(count, hiddens, hiddenSize, outputWeights, outputSize, outputs);
+    }
+
     //-----------//
     // setEpochs //
     //-----------//
@@ -571,20 +608,11 @@ public class NeuralNetwork
 
             if (listener != null) {
                 if ((iter % iterPeriod) == 0) {
-                    double mse = 0d; // Mean Squared Error
-
-                    for (int ip = 0; ip < patterns; ip++) {
-                        final double[] patternDesiredOutputs = desiredOutputs[ip];
-                        run(inputs[ip], hiddens, gottenOutputs);
-
-                        for (int o = outputSize - 1; o >= 0; o--) {
-                            double out = gottenOutputs[o];
-                            double dif = patternDesiredOutputs[o] - out;
-                            mse += (dif * dif);
-                        }
-                    }
-
-                    mse /= patterns;
+                    final double mse = meanSquaredError(
+                            inputs,
+                            desiredOutputs,
+                            hiddens,
+                            gottenOutputs);
                     listener.iterationPeriodDone(iter, mse);
                 }
             }
@@ -603,6 +631,196 @@ public class NeuralNetwork
         stopping = false;
     }
 
+    //--------------//
+    // trainByBatch //
+    //--------------//
+    /**
+     * Train the neural network on a collection of input patterns, by mini-batches.
+     * <p>
+     * For each mini-batch, the gradients of all its patterns are computed with the same current
+     * weights, the batch being split into chunks processed in parallel when allowed.
+     * The gradients, accumulated in float arrays, are then averaged to update the weights once
+     * per batch.
+     * <p>
+     * Listener notifications are the same as for {@link #train}.
+     *
+     * @param inputs         the provided patterns of values for input cells
+     * @param desiredOutputs the corresponding desired values for output cells
+     * @param listener       listener to be kept informed
+     * @param iterPeriod     period for iteration notification
+     * @param batchSize      number of patterns per batch
+     */
+    public void trainByBatch (double[][] inputs,
+                              double[][] desiredOutputs,
+                              TrainingMonitor listener,
+                              int iterPeriod,
+                              int batchSize)
+    {
+        stopping = false;
+
+        Objects.requireNonNull(inputs, "inputs array is null");
+        Objects.requireNonNull(desiredOutputs, "desiredOutputs array is null");
+        logger.info("Network is being trained by batches of {} on {} epochs...", batchSize, epochs);
+
+        final int patterns = inputs.length;
+        final long startTime = System.currentTimeMillis();
+
+        // One gradient worker per chunk of batch
+        final boolean parallel = OmrExecutors.defaultParallelism.getValue() == true;
+        final int chunkNb = parallel ? Math.max(1, Math.min(OmrExecutors.getNumberOfCpus(),
+                                                            batchSize)) : 1;
+        final List<GradientWorker> workers = new ArrayList<>(chunkNb);
+
+        for (int ic = 0; ic < chunkNb; ic++) {
+            workers.add(new GradientWorker(inputs, desiredOutputs));
+        }
+
+        final double[][] hiddenDeltas = createMatrix(hiddenSize, inputSize + 1, 0);
+        final double[][] outputDeltas = createMatrix(outputSize, hiddenSize + 1, 0);
+        final double[] gottenOutputs = new double[outputSize];
+        final double[] hiddens = new double[hiddenSize];
+        int iter = 0;
+
+        try {
+            for (int ie = 1; ie <= epochs; ie++) {
+                iter++; // For this old engine, iter = epoch
+
+                if (listener != null) {
+                    listener.epochStarted(ie);
+                }
+
+                for (int start = 0; start < patterns; start += batchSize) {
+                    final int stop = Math.min(patterns, start + batchSize);
+                    final int size = stop - start;
+
+                    // Compute gradients, chunk by chunk
+                    for (int ic = 0; ic < chunkNb; ic++) {
+                        workers.get(ic).setRange(
+                                start + ((size * ic) / chunkNb),
+                                start + ((size * (ic + 1)) / chunkNb));
+                    }
+
+                    if (chunkNb > 1) {
+                        for (Future<Void> future : OmrExecutors.getHighExecutor().invokeAll(
+                                workers)) {
+                            future.get();
+                        }
+                    } else {
+                        workers.get(0).call();
+                    }
+
+                    // Update weights with averaged gradients
+                    final double rate = learningRate / size;
+                    applyGradients(workers, true, rate, outputWeights, outputDeltas);
+                    applyGradients(workers, false, rate, hiddenWeights, hiddenDeltas);
+
+                    if (stopping) {
+                        break;
+                    }
+                }
+
+                if (listener != null) {
+                    if ((iter % iterPeriod) == 0) {
+                        final double mse = meanSquaredError(
+                                inputs,
+                                desiredOutputs,
+                                hiddens,
+                                gottenOutputs);
+                        listener.iterationPeriodDone(iter, mse);
+                    }
+                }
+
+                // Stop required?
+                if (stopping) {
+                    logger.info("Stopping.");
+
+                    break;
+                }
+            }
+        } catch (InterruptedException ex) {
+            logger.warn("Training got interrupted");
+            throw new ProcessingCancellationException(ex);
+        } catch (ExecutionException ex) {
+            logger.warn("Exception raised in training", ex.getCause());
+            throw new RuntimeException(ex.getCause());
+        }
+
+        final long dur = System.currentTimeMillis() - startTime;
+        logger.info(String.format("Duration %,d seconds, %d iterations on %d patterns", dur / 1_000,
+                                  epochs, patterns));
+        stopping = false;
+    }
+
+    //----------------//
+    // applyGradients //
+    //----------------//
+    /**
+     * Sum the gradients of all workers for one layer and update the layer weights.
+     *
+     * @param workers the gradient workers
+     * @param output  true for output layer, false for hidden layer
+     * @param rate    learning rate, divided by batch size
+     * @param weights the layer weights to update
+     * @param deltas  the previous layer updates, for momentum
+     */
+    private void applyGradients (List<GradientWorker> workers,
+                                 boolean output,
+                                 double rate,
+                                 double[][] weights,
+                                 double[][] deltas)
+    {
+        for (int row = weights.length - 1; row >= 0; row--) {
+            final double[] ws = weights[row];
+            final double[] ds = deltas[row];
+
+            for (int col = ws.length - 1; col >= 0; col--) {
+                double grad = 0;
+
+                for (GradientWorker worker : workers) {
+                    grad += (output ? worker.outputGrads : worker.hiddenGrads)[row][col];
+                }
+
+                final double dw = (rate * grad) + (momentum * ds[col]);
+                ws[col] += dw;
+                ds[col] = dw;
+            }
+        }
+    }
+
+    //------------------//
+    // meanSquaredError //
+    //------------------//
+    /**
+     * Compute the mean squared error of the network on the provided patterns.
+     *
+     * @param inputs         the patterns of values for input cells
+     * @param desiredOutputs the corresponding desired values for output cells
+     * @param hiddens        buffer for hidden values
+     * @param gottenOutputs  buffer for output values
+     * @return the mean squared error
+     */
+    private double meanSquaredError (double[][] inputs,
+                                     double[][] desiredOutputs,
+                                     double[] hiddens,
+                                     double[] gottenOutputs)
+    {
+        final int patterns = inputs.length;
+        double mse = 0d; // Mean Squared Error
+
+        for (int ip = 0; ip < patterns; ip++) {
+            final double[] patternDesiredOutputs = desiredOutputs[ip];
+            run(inputs[ip], hiddens, gottenOutputs);
+
+            for (int o = outputSize - 1; o >= 0; o--) {
+                double out = gottenOutputs[o];
+                double dif = patternDesiredOutputs[o] - out;
+                mse += (dif * dif);
+            }
+        }
+
+        return mse / patterns;
+    }
+
     //------------//
     // dumpMatrix //
     //------------//
@@ -670,6 +888,45 @@ public class NeuralNetwork
         }
     }
 
+    //--------------//
+    // forwardBatch //
+    //--------------//
+    /**
+     * Re-entrant method, processing a batch of patterns.
+     *
+     * @param count   number of patterns
+     * @param ins     input cells, per pattern
+     * @param inSize  number of input cells
+     * @param weights applied weights
+     * @param outSize number of output cells
+     * @param outs    output cells, per pattern
+     */
+    private void forwardBatch (int count,
+                               double[][] ins,
+                               int inSize,
+                               double[][] weights,
+                               int outSize,
+                               double[][] outs)
+    {
+        for (int o = outSize - 1; o >= 0; o--) {
+            final double[] ws = weights[o];
+
+            for (int p = 0; p < count; p++) {
+                final double[] in = ins[p];
+                double sum = 0;
+
+                for (int i = inSize - 1; i >= 0; i--) {
+                    sum += (ws[i + 1] * in[i]);
+                }
+
+                // Bias
+                sum += ws[0];
+
+                outs[p][o] = sigmoid(sum);
+            }
+        }
+    }
+
     private double relu (double val)
     {
         return Math.max(0, val);
@@ -813,6 +1070,116 @@ public class NeuralNetwork
         }
     }
 
+    //----------------//
+    // GradientWorker //
+    //----------------//
+    /**
+     * Computes the gradients accumulated on a range of patterns, using the current weights.
+     */
+    private class GradientWorker
+            implements Callable<Void>
+    {
+
+        private final double[][] inputs;
+
+        private final double[][] desiredOutputs;
+
+        /** Accumulated gradients for hidden weights. */
+        final float[][] hiddenGrads = new float[hiddenSize][inputSize + 1];
+
+        /** Accumulated gradients for output weights. */
+        final float[][] outputGrads = new float[outputSize][hiddenSize + 1];
+
+        private final double[] hiddens = new double[hiddenSize];
+
+        private final double[] outs = new double[outputSize];
+
+        private final double[] hiddenErrors = new double[hiddenSize];
+
+        private final double[] outputErrors = new double[outputSize];
+
+        /** First pattern index (inclusive). */
+        private int first;
+
+        /** Last pattern index (exclusive). */
+        private int last;
+
+        GradientWorker (double[][] inputs,
+                        double[][] desiredOutputs)
+        {
+            this.inputs = inputs;
+            this.desiredOutputs = desiredOutputs;
+        }
+
+        @Override
+        public Void call ()
+        {
+            for (float[] row : hiddenGrads) {
+                Arrays.fill(row, 0f);
+            }
+
+            for (float[] row : outputGrads) {
+                Arrays.fill(row, 0f);
+            }
+
+            for (int ip = first; ip < last; ip++) {
+                final double[] ins = inputs[ip];
+                run(ins, hiddens, outs);
+
+                // Compute the output layer error terms
+                for (int io = outputSize - 1; io >= 0; io--) {
+                    double out = outs[io];
+                    double dif = desiredOutputs[ip][io] - out;
+                    outputErrors[io] = dif * sigmoidDif(out); // Sigmoid'
+                }
+
+                // Compute the hidden layer error terms
+                for (int ih = hiddenSize - 1; ih >= 0; ih--) {
+                    double sum = 0;
+
+                    for (int o = outputSize - 1; o >= 0; o--) {
+                        sum += (outputErrors[o] * outputWeights[o][ih + 1]);
+                    }
+
+                    hiddenErrors[ih] = sum * sigmoidDif(hiddens[ih]); // Sigmoid'
+                }
+
+                // Accumulate output gradients
+                for (int io = outputSize - 1; io >= 0; io--) {
+                    final float[] grads = outputGrads[io];
+                    final double err = outputErrors[io];
+
+                    for (int ih = hiddenSize - 1; ih >= 0; ih--) {
+                        grads[ih + 1] += (float) (err * hiddens[ih]);
+                    }
+
+                    grads[0] += (float) err; // Bias
+                }
+
+                // Accumulate hidden gradients
+                for (int ih = hiddenSize - 1; ih >= 0; ih--) {
+                    final float[] grads = hiddenGrads[ih];
+                    final double err = hiddenErrors[ih];
+
+                    for (int i = inputSize - 1; i >= 0; i--) {
+                        grads[i + 1] += (float) (err * ins[i]);
+                    }
+
+                    grads[0] += (float) err; // Bias
+                }
+            }
+
+            return null;
+        }
+
+        void setRange (int first,
+                       int last)
+        {
+            this.first = first;
+            this.last = last;
+        }
+    }
+
     //-------------//
     // StringArray //
     //-------------//
@@ -26,12 +26,15 @@ import org.audiveris.omr.constant.ConstantSet;
 import static org.audiveris.omr.moments.ARTMoments.*;
 import org.audiveris.omr.util.StopWatch;
 
+import java.awt.geom.Point2D;
 import java.awt.image.WritableRaster;
 
 /**
  * Class {@code BasicARTExtractor} implements extraction of ART Moments.
  * <p>
  * See MPEG-7 Experimentation Model for the original C++ code
+ * <p>
+ * Input can also be provided as runs of foreground points, see {@link #extractRuns}.
  *
  * @author Hervé Bitteur
  */
@@ -50,10 +53,38 @@ public class BasicARTExtractor
     /** Imaginary values of ARTMoments basis function */
     private static final LUT[][] imagLuts = new LUT[ANGULAR][RADIAL];
 
+    /** Line integrals of real values, [p][r][y][x] from 0 to x on row y. */
+    private static final float[][][][] realRowSums = new float[ANGULAR][RADIAL][][];
+
+    /** Line integrals of imaginary values, [p][r][y][x] from 0 to x on row y. */
+    private static final float[][][][] imagRowSums = new float[ANGULAR][RADIAL][][];
+
+    /** Line integrals of real values, [p][r][x][y] from 0 to y on column x. */
+    private static final float[][][][] realColSums = new float[ANGULAR][RADIAL][][];
+
+    /** Line integrals of imaginary values, [p][r][x][y] from 0 to y on column x. */
+    private static final float[][][][] imagColSums = new float[ANGULAR][RADIAL][][];
+
     static {
         initLUT();
+        initSums();
     }
 
+    /** True for vertical input runs. */
+    private boolean runVertical;
+
+    /** Input runs sequence coordinate (ordinate for horizontal runs, abscissa for vertical). */
+    private int[] runSeqs;
+
+    /** Input runs starting coordinate. */
+    private int[] runStarts;
+
+    /** Input runs lengths, if extraction is driven by runs. */
+    private int[] runLengths;
+
+    /** Number of input runs, if extraction is driven by runs. */
+    private int runCount;
+
     /**
      * Creates a new BasicARTExtractor object and process the provided foreground points.
      */
@@ -61,6 +92,96 @@ public class BasicARTExtractor
     {
     }
 
+    //-------------//
+    // extractRuns //
+    //-------------//
+    /**
+     * Extract moments from provided runs of foreground points.
+     * <p>
+     * The points of a run are regularly spaced in LUT coordinates, so the sum of their basis
+     * values is approximated by the integral of basis function along the run divided by points
+     * spacing, using the line integrals computed once for all.
+     * A run thus costs the same whatever its length.
+     * This applies only to runs of at least {@code minIntegralRun} points and when LUT resolution
+     * is not coarser than image resolution, otherwise run points are processed one by one.
+     *
+     * @param vertical true for vertical runs, false for horizontal runs
+     * @param seqs     sequence coordinate of each run (abscissa for vertical runs, ordinate for
+     *                 horizontal runs)
+     * @param starts   coordinate of first point of each run
+     * @param lengths  number of points of each run
+     * @param count    number of runs
+     */
+    public void extractRuns (boolean vertical,
+                             int[] seqs,
+                             int[] starts,
+                             int[] lengths,
+                             int count)
+    {
+        // Check arguments
+        if ((seqs == null) || (starts == null) || (lengths == null)) {
+            throw new IllegalArgumentException(
+                    getClass().getSimpleName() + " cannot process a null array");
+        }
+
+        if ((count <= 0) || (count > seqs.length) || (count > starts.length)
+                    || (count > lengths.length)) {
+            throw new IllegalArgumentException(
+                    getClass().getSimpleName() + " on inconsistent input");
+        }
+
+        if (descriptor == null) {
+            throw new IllegalArgumentException(
+                    getClass().getSimpleName() + " has no target descriptor");
+        }
+
+        runVertical = vertical;
+        runSeqs = seqs;
+        runStarts = starts;
+        runLengths = lengths;
+        runCount = count;
+
+        // Mass and center of mass
+        long mSeq = 0;
+        long mRun = 0;
+        mass = 0;
+
+        for (int i = 0; i < count; i++) {
+            final long length = lengths[i];
+            mass += length;
+            mSeq += (length * seqs[i]);
+            mRun += ((length * starts[i]) + ((length * (length - 1)) / 2));
+        }
+
+        if (mass <= 0) {
+            throw new IllegalArgumentException(
+                    getClass().getSimpleName() + " on inconsistent input");
+        }
+
+        final double cSeq = mSeq / (double) mass;
+        final double cRun = mRun / (double) mass;
+        center = vertical ? new Point2D.Double(cSeq, cRun) : new Point2D.Double(cRun, cSeq);
+
+        // Radius, using run extrema
+        double dSeqMax = Double.MIN_VALUE;
+        double dRunMax = Double.MIN_VALUE;
+
+        for (int i = 0; i < count; i++) {
+            final int stop = (starts[i] + lengths[i]) - 1;
+            dSeqMax = Math.max(dSeqMax, Math.abs(seqs[i] - cSeq));
+            dRunMax = Math.max(dRunMax, Math.abs(starts[i] - cRun));
+            dRunMax = Math.max(dRunMax, Math.abs(stop - cRun));
+        }
+
+        radius = Math.hypot(dSeqMax, dRunMax);
+
+        try {
+            extractRunMoments();
+        } finally {
+            runSeqs = runStarts = runLengths = null;
+        }
+    }
+
     @Override
     public void reconstruct (WritableRaster raster)
     {
@@ -100,6 +221,130 @@ public class BasicARTExtractor
             }
         }
 
+        saveMoments(coeffReal, coeffImag);
+    }
+
+    //-------------------//
+    // extractRunMoments //
+    //-------------------//
+    /**
+     * Moments extraction core, from input runs.
+     */
+    private void extractRunMoments ()
+    {
+        final LUT anyLut = realLuts[0][0]; // Just for LUT dimensions
+        final int lutRadius = anyLut.getRadius();
+        final int max = anyLut.getSize() - 1;
+        final double step = lutRadius / radius; // Points spacing in LUT
+        final boolean byIntegral = step <= 1;
+        final int minRun = constants.minIntegralRun.getValue();
+        final double cSeq = runVertical ? center.getX() : center.getY();
+        final double cRun = runVertical ? center.getY() : center.getX();
+        final float[][][][] realSums = runVertical ? realColSums : realRowSums;
+        final float[][][][] imagSums = runVertical ? imagColSums : imagRowSums;
+
+        // Coefficients, real part & imaginary part
+        final double[][] coeffReal = new double[ANGULAR][RADIAL];
+        final double[][] coeffImag = new double[ANGULAR][RADIAL];
+
+        for (int i = 0; i < runCount; i++) {
+            final int length = runLengths[i];
+            final double lSeq = ((runSeqs[i] - cSeq) * step) + lutRadius;
+            final double lRun0 = ((runStarts[i] - cRun) * step) + lutRadius;
+
+            if (!byIntegral || (length < minRun)) {
+                // Summation of basis function, point by point
+                for (int k = 0; k < length; k++) {
+                    final double lRun = lRun0 + (k * step);
+                    final double lx = runVertical ? lSeq : lRun;
+                    final double ly = runVertical ? lRun : lSeq;
+
+                    if (anyLut.contains(lx, ly)) {
+                        for (int p = 0; p < ANGULAR; p++) {
+                            for (int r = 0; r < RADIAL; r++) {
+                                coeffReal[p][r] += realLuts[p][r].interpolate(lx, ly);
+                                coeffImag[p][r] -= imagLuts[p][r].interpolate(lx, ly);
+                            }
+                        }
+                    }
+                }
+
+                continue;
+            }
+
+            // Integral of basis function along the run, each point covering one step
+            final double a = Math.max(0, lRun0 - (step / 2));
+            final double b = Math.min(max, (lRun0 + ((length - 1) * step)) + (step / 2));
+
+            if (b <= a) {
+                continue;
+            }
+
+            // Interpolation between the two LUT lines around the run
+            final int s0 = Math.min((int) lSeq, max);
+            final int s1 = Math.min(s0 + 1, max);
+            final double w1 = lSeq - s0;
+            final double w0 = 1 - w1;
+            final int ia = Math.min((int) a, max - 1);
+            final double da = a - ia;
+            final int ib = Math.min((int) b, max - 1);
+            final double db = b - ib;
+
+            for (int p = 0; p < ANGULAR; p++) {
+                for (int r = 0; r < RADIAL; r++) {
+                    final LUT realLut = realLuts[p][r];
+                    final float[][] realSum = realSums[p][r];
+                    coeffReal[p][r] += (((w0 * (integral(realLut, realSum, s0, ib, db)
+                                                - integral(realLut, realSum, s0, ia, da)))
+                                         + (w1 * (integral(realLut, realSum, s1, ib, db)
+                                                  - integral(realLut, realSum, s1, ia, da))))
+                                        / step);
+
+                    final LUT imagLut = imagLuts[p][r];
+                    final float[][] imagSum = imagSums[p][r];
+                    coeffImag[p][r] -= (((w0 * (integral(imagLut, imagSum, s0, ib, db)
+                                                - integral(imagLut, imagSum, s0, ia, da)))
+                                         + (w1 * (integral(imagLut, imagSum, s1, ib, db)
+                                                  - integral(imagLut, imagSum, s1, ia, da))))
+                                        / step);
+                }
+            }
+        }
+
+        saveMoments(coeffReal, coeffImag);
+    }
+
+    //----------//
+    // integral //
+    //----------//
+    /**
+     * Report the integral of LUT values along a LUT line, from 0 to pos + d.
+     *
+     * @param lut  the LUT
+     * @param sums the LUT line integrals
+     * @param line the LUT line (row or column)
+     * @param pos  integer part of integral upper bound
+     * @param d    fractional part of integral upper bound
+     * @return the integral value
+     */
+    private double integral (LUT lut,
+                             float[][] sums,
+                             int line,
+                             int pos,
+                             double d)
+    {
+        final double v0 = runVertical ? lut.getValue(line, pos) : lut.getValue(pos, line);
+        final double v1 = runVertical ? lut.getValue(line, pos + 1) : lut.getValue(pos + 1, line);
+
+        return sums[line][pos] + (d * (v0 + ((d * (v1 - v0)) / 2)));
+    }
+
+    //-------------//
+    // saveMoments //
+    //-------------//
+    private void saveMoments (double[][] coeffReal,
+                              double[][] coeffImag)
+    {
         // Save to descriptor
         for (int p = 0; p < ANGULAR; p++) {
             for (int r = 0; r < RADIAL; r++) {
@@ -172,6 +417,51 @@ public class BasicARTExtractor
         }
     }
 
+    //----------//
+    // initSums //
+    //----------//
+    /**
+     * Compute, once for all, the row and column integrals of LUT values, each LUT line
+     * being considered as linear between integer coordinates.
+     */
+    private static void initSums ()
+    {
+        final int lutSize = realLuts[0][0].getSize();
+
+        for (int p = 0; p < ANGULAR; p++) {
+            for (int r = 0; r < RADIAL; r++) {
+                final LUT realLut = realLuts[p][r];
+                final LUT imagLut = imagLuts[p][r];
+                realRowSums[p][r] = new float[lutSize][lutSize];
+                imagRowSums[p][r] = new float[lutSize][lutSize];
+                realColSums[p][r] = new float[lutSize][lutSize];
+                imagColSums[p][r] = new float[lutSize][lutSize];
+
+                for (int line = 0; line < lutSize; line++) {
+                    double realRow = 0;
+                    double imagRow = 0;
+                    double realCol = 0;
+                    double imagCol = 0;
+
+                    for (int k = 1; k < lutSize; k++) {
+                        realRow += ((realLut.getValue(k - 1, line)
+                                     + realLut.getValue(k, line)) / 2);
+                        imagRow += ((imagLut.getValue(k - 1, line)
+                                     + imagLut.getValue(k, line)) / 2);
+                        realCol += ((realLut.getValue(line, k - 1)
+                                     + realLut.getValue(line, k)) / 2);
+                        imagCol += ((imagLut.getValue(line, k - 1)
+                                     + imagLut.getValue(line, k)) / 2);
+                        realRowSums[p][r][line][k] = (float) realRow;
+                        imagRowSums[p][r][line][k] = (float) imagRow;
+                        realColSums[p][r][line][k] = (float) realCol;
+                        imagColSums[p][r][line][k] = (float) imagCol;
+                    }
+                }
+            }
+        }
+    }
+
     //-----------//
     // Constants //
     //-----------//
@@ -182,5 +472,10 @@ public class BasicARTExtractor
         private final Constant.Boolean printWatch = new Constant.Boolean(
                 false,
                 "Should we print out the stop watch?");
+
+        private final Constant.Integer minIntegralRun = new Constant.Integer(
+                "Pixels",
+                4,
+                "Minimum run length to sum basis values by integral");
     }
 }
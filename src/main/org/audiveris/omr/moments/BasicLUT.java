@@ -103,6 +103,16 @@ public class BasicLUT
         return SIZE;
     }
 
+    //----------//
+    // getValue //
+    //----------//
+    @Override
+    public double getValue (int x,
+                            int y)
+    {
+        return table[x][y];
+    }
+
     //-------------//
     // interpolate //
     //-------------//
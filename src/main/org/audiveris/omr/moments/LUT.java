@@ -72,6 +72,16 @@ public interface LUT
      */
     int getSize ();
 
+    /**
+     * Report the value defined for integer coordinates (x,y).
+     *
+     * @param x integer abscissa
+     * @param y integer ordinate
+     * @return the defined value
+     */
+    double getValue (int x,
+                     int y);
+
     /**
      * Report the value for precise point (px,py) by interpolation of values defined
      * for integer coordinates.
@@ -308,6 +308,8 @@ public class RunTable
     //-------------------//
     /**
      * Compute the Angular Radial Transform moments for this runTable
+     * <p>
+     * Moments are extracted from the runs themselves, rather than from individual points.
      *
      * @param left abscissa of topLeft corner (TODO: useful?)
      * @param top  ordinate of topLeft corner (TODO: useful?)
@@ -316,16 +318,30 @@ public class RunTable
     public ARTMoments computeArtMoments (int left,
                                          int top)
     {
-        // Retrieve glyph foreground points
-        final PointsCollector collector = new PointsCollector(null, getWeight());
-        cumulate(collector, new Point(left, top));
+        // Retrieve glyph runs
+        final boolean vertical = orientation.isVertical();
+        final int count = getTotalRunCount();
+        final int[] seqs = new int[count];
+        final int[] starts = new int[count];
+        final int[] lengths = new int[count];
+        int n = 0;
+
+        for (int iSeq = 0, size = getSize(); iSeq < size; iSeq++) {
+            for (Iterator<Run> it = iterator(iSeq); it.hasNext();) {
+                final Run run = it.next();
+                seqs[n] = (vertical ? left : top) + iSeq;
+                starts[n] = (vertical ? top : left) + run.getStart();
+                lengths[n] = run.getLength();
+                n++;
+            }
+        }
 
         ///ARTMoments artMoments = new QuantizedARTMoments();
         ARTMoments artMoments = new BasicARTMoments();
 
         BasicARTExtractor extractor = new BasicARTExtractor();
         extractor.setDescriptor(artMoments);
-        extractor.extract(collector.getXValues(), collector.getYValues(), collector.getSize());
+        extractor.extractRuns(vertical, seqs, starts, lengths, n);
 
         return artMoments;
     }
@@ -824,6 +840,55 @@ public class RunTable
         return new Dimension(width, height);
     }
 
+    //--------------//
+    // getForeCount //
+    //--------------//
+    /**
+     * Report the number of foreground pixels in the provided sequence, limited to the
+     * provided range of coordinates.
+     * <p>
+     * This works directly on run-length encoding, with no Run allocation, and is meant for
+     * projections.
+     *
+     * @param index index of sequence in table
+     * @param cMin  minimum coordinate (x for horizontal, y for vertical), inclusive
+     * @param cMax  maximum coordinate (x for horizontal, y for vertical), inclusive
+     * @return the count of foreground pixels in [cMin..cMax] range
+     */
+    public int getForeCount (int index,
+                             int cMin,
+                             int cMax)
+    {
+        final RunSequence seq = sequences[index];
+
+        if ((seq == null) || (seq.rle == null)) {
+            return 0;
+        }
+
+        final int[] rle = seq.rle;
+        int count = 0;
+        int loc = 0;
+
+        // Sequence alternates foreground and background lengths, starting with foreground
+        for (int i = 0; (i < rle.length) && (loc <= cMax); i += 2) {
+            final int foreLg = rle[i] & 0xFFFF;
+            final int start = Math.max(loc, cMin);
+            final int stop = Math.min((loc + foreLg) - 1, cMax);
+
+            if (stop >= start) {
+                count += ((stop - start) + 1);
+            }
+
+            loc += foreLg;
+
+            if ((i + 1) < rle.length) {
+                loc += (rle[i + 1] & 0xFFFF);
+            }
+        }
+
+        return count;
+    }
+
     //-----------//
     // getHeight //
     //-----------//
@@ -985,11 +1050,104 @@ public class RunTable
         Jaxb.marshal(this, path, getJaxbContext());
     }
 
+    //-------//
+    // merge //
+    //-------//
+    /**
+     * Build a table as the union of provided tables, each translated to its own location,
+     * working directly on their run-length encodings without any intermediate buffer.
+     * <p>
+     * All tables must have the provided orientation.
+     * Any run portion located outside of the provided box is ignored.
+     *
+     * @param orientation orientation of the resulting table
+     * @param box         absolute bounds of the resulting table
+     * @param tables      the tables to merge
+     * @param origins     absolute location of each table top-left corner
+     * @return the resulting table
+     */
+    public static RunTable merge (Orientation orientation,
+                                  Rectangle box,
+                                  List<RunTable> tables,
+                                  List<Point> origins)
+    {
+        final RunTable table = new RunTable(orientation, box.width, box.height);
+        final boolean vertical = orientation.isVertical();
+        final int coordMax = (vertical ? box.height : box.width) - 1;
+        long[] runs = new long[16]; // Each run as start (high word) and stop (low word)
+
+        for (RunTable part : tables) {
+            table.checkOrientation(part);
+        }
+
+        for (int i = 0, size = table.getSize(); i < size; i++) {
+            int count = 0;
+
+            for (int t = 0, tBreak = tables.size(); t < tBreak; t++) {
+                final RunTable part = tables.get(t);
+                final Point origin = origins.get(t);
+                final int j = i - (vertical ? (origin.x - box.x) : (origin.y - box.y));
+
+                if ((j < 0) || (j >= part.getSize())) {
+                    continue;
+                }
+
+                final RunSequence seq = part.sequences[j];
+
+                if ((seq == null) || (seq.rle == null)) {
+                    continue;
+                }
+
+                final int[] rle = seq.rle;
+                int loc = vertical ? (origin.y - box.y) : (origin.x - box.x);
+
+                for (int k = 0; k < rle.length; k += 2) {
+                    final int start = Math.max(0, loc);
+                    final int stop = Math.min(coordMax, (loc + rle[k]) - 1);
+
+                    if (stop >= start) {
+                        if (count == runs.length) {
+                            runs = Arrays.copyOf(runs, 2 * count);
+                        }
+
+                        runs[count++] = ((long) start << 32) | stop;
+                    }
+
+                    loc += (rle[k] + (((k + 1) < rle.length) ? rle[k + 1] : 0));
+                }
+            }
+
+            if (count > 0) {
+                Arrays.sort(runs, 0, count);
+                table.sequences[i] = encodeRuns(runs, count);
+            }
+        }
+
+        return table;
+    }
+
+    //-------//
+    // store //
+    //-------//
+    /**
+     * Store this RunTable to the provided path, using compact binary format.
+     *
+     * @param path target path
+     * @throws IOException on IO error
+     * @see RunTableCodec
+     */
+    public void store (Path path)
+            throws IOException
+    {
+        RunTableCodec.write(this, path);
+    }
+
     //-----------//
     // unmarshal //
     //-----------//
     /**
-     * Unmarshal a RunTable from a file.
+     * Unmarshal a RunTable from a file, either in binary format (see {@link RunTableCodec})
+     * or in legacy XML format.
      *
      * @param path path to file
      * @return unmarshalled run table
@@ -998,6 +1156,16 @@ public class RunTable
     {
         logger.debug("RunTable unmarshalling {}", path);
 
+        try {
+            if (RunTableCodec.isBinary(path)) {
+                return RunTableCodec.read(path);
+            }
+        } catch (IOException ex) {
+            logger.warn("RunTable. Error reading " + path + " " + ex, ex);
+
+            return null;
+        }
+
         try (InputStream is = Files.newInputStream(path, StandardOpenOption.READ)) {
             Unmarshaller um = getJaxbContext().createUnmarshaller();
             RunTable runTable = (RunTable) um.unmarshal(is);
@@ -1080,6 +1248,40 @@ public class RunTable
         }
     }
 
+    //-------------------//
+    // intersectionCount //
+    //-------------------//
+    /**
+     * Report the number of pixels this runTable has in common with another runTable,
+     * working directly on their run-length encodings.
+     * <p>
+     * The tables must have the same orientation.
+     *
+     * @param offset     absolute location of this table top-left corner
+     * @param that       the other table
+     * @param thatOffset absolute location of the other table top-left corner
+     * @return the count of common pixels
+     */
+    public int intersectionCount (Point offset,
+                                  RunTable that,
+                                  Point thatOffset)
+    {
+        checkOrientation(that);
+
+        final boolean vertical = orientation.isVertical();
+        final int dSeq = vertical ? (thatOffset.x - offset.x) : (thatOffset.y - offset.y);
+        final int dCoord = vertical ? (thatOffset.y - offset.y) : (thatOffset.x - offset.x);
+        final int iMin = Math.max(0, dSeq);
+        final int iMax = Math.min(getSize(), dSeq + that.getSize()) - 1;
+        int count = 0;
+
+        for (int i = iMin; i <= iMax; i++) {
+            count += overlap(sequences[i], that.sequences[i - dSeq], dCoord, 0, false);
+        }
+
+        return count;
+    }
+
     //------------//
     // intersects //
     //------------//
@@ -1156,6 +1358,71 @@ public class RunTable
         return false;
     }
 
+    //------------//
+    // intersects //
+    //------------//
+    /**
+     * Report whether this runTable has at least one pixel in common with another
+     * runTable, working directly on their run-length encodings.
+     * <p>
+     * The tables must have the same orientation.
+     *
+     * @param offset     absolute location of this table top-left corner
+     * @param that       the other table
+     * @param thatOffset absolute location of the other table top-left corner
+     * @param fat        true for touch detection, that is with this table pixels grown by their 4
+     *                   direct neighbors
+     * @return true if non-null intersection found
+     */
+    public boolean intersects (Point offset,
+                               RunTable that,
+                               Point thatOffset,
+                               boolean fat)
+    {
+        checkOrientation(that);
+
+        final boolean vertical = orientation.isVertical();
+        final int dSeq = vertical ? (thatOffset.x - offset.x) : (thatOffset.y - offset.y);
+        final int dCoord = vertical ? (thatOffset.y - offset.y) : (thatOffset.x - offset.x);
+        final int size = getSize();
+
+        if (!fat) {
+            final int iMin = Math.max(0, dSeq);
+            final int iMax = Math.min(size, dSeq + that.getSize()) - 1;
+
+            for (int i = iMin; i <= iMax; i++) {
+                if (overlap(sequences[i], that.sequences[i - dSeq], dCoord, 0, true) > 0) {
+                    return true;
+                }
+            }
+
+            return false;
+        }
+
+        // Each sequence of that table is checked against the same sequence of this table with
+        // runs grown by 1, and against the two adjacent sequences of this table.
+        final int iMin = Math.max(-1, dSeq);
+        final int iMax = Math.min(size, dSeq + that.getSize() - 1);
+
+        for (int i = iMin; i <= iMax; i++) {
+            final RunSequence thatSeq = that.sequences[i - dSeq];
+
+            if (thatSeq == null) {
+                continue;
+            }
+
+            for (int k = Math.max(0, i - 1), kBreak = Math.min(size - 1, i + 1); k <= kBreak; k++) {
+                final int grow = (k == i) ? 1 : 0;
+
+                if (overlap(sequences[k], thatSeq, dCoord, grow, true) > 0) {
+                    return true;
+                }
+            }
+        }
+
+        return false;
+    }
+
     //-----------------//
     // isSequenceEmpty //
     //-----------------//
@@ -1624,6 +1891,120 @@ public class RunTable
         return new RunSequence(rle);
     }
 
+    //------------//
+    // encodeRuns //
+    //------------//
+    /**
+     * Encode sorted runs, perhaps overlapping or touching, into a table sequence.
+     *
+     * @param runs  the runs, each as start (high word) and stop (low word), sorted by start
+     * @param count the number of runs to consider
+     * @return the sequence of merged runs
+     */
+    private static RunSequence encodeRuns (long[] runs,
+                                           int count)
+    {
+        final int[] rle = new int[(2 * count) + 1];
+        int n = 0;
+        int end = 0; // Location right after last encoded foreground
+        int curStart = (int) (runs[0] >>> 32);
+        int curStop = (int) runs[0];
+
+        for (int r = 1; r <= count; r++) {
+            if (r < count) {
+                final int start = (int) (runs[r] >>> 32);
+                final int stop = (int) runs[r];
+
+                if (start <= (curStop + 1)) {
+                    curStop = Math.max(curStop, stop);
+
+                    continue;
+                }
+            }
+
+            // Background, then foreground
+            if (n == 0) {
+                if (curStart > 0) {
+                    rle[n++] = 0;
+                    rle[n++] = curStart;
+                }
+            } else {
+                rle[n++] = curStart - end;
+            }
+
+            rle[n++] = curStop - curStart + 1;
+            end = curStop + 1;
+
+            if (r < count) {
+                curStart = (int) (runs[r] >>> 32);
+                curStop = (int) runs[r];
+            }
+        }
+
+        return new RunSequence(Arrays.copyOf(rle, n));
+    }
+
+    //---------//
+    // overlap //
+    //---------//
+    /**
+     * Count the locations shared by two run sequences.
+     *
+     * @param one    a sequence, perhaps null
+     * @param two    another sequence, perhaps null
+     * @param dCoord coordinate shift to apply to the second sequence
+     * @param grow   margin to add on both sides of each run of the first sequence
+     * @param any    true to stop at first shared location (the result is then 0 or 1)
+     * @return count of shared locations
+     */
+    private static int overlap (RunSequence one,
+                                RunSequence two,
+                                int dCoord,
+                                int grow,
+                                boolean any)
+    {
+        if ((one == null) || (two == null) || (one.rle == null) || (two.rle == null)) {
+            return 0;
+        }
+
+        final int[] a = one.rle;
+        final int[] b = two.rle;
+        int ia = 0;
+        int ib = 0;
+        int aStart = 0;
+        int bStart = dCoord;
+        int count = 0;
+
+        while ((ia < a.length) && (ib < b.length)) {
+            final int aStop = (aStart + a[ia]) - 1;
+            final int bStop = (bStart + b[ib]) - 1;
+
+            if ((a[ia] > 0) && (b[ib] > 0)) {
+                final int lo = Math.max(aStart - grow, bStart);
+                final int hi = Math.min(aStop + grow, bStop);
+
+                if (hi >= lo) {
+                    if (any) {
+                        return 1;
+                    }
+
+                    count += (hi - lo + 1);
+                }
+            }
+
+            // Move forward on the sequence whose current run ends first
+            if ((a[ia] == 0) || ((aStop + grow) < bStop)) {
+                aStart += (a[ia] + (((ia + 1) < a.length) ? a[ia + 1] : 0));
+                ia += 2;
+            } else {
+                bStart += (b[ib] + (((ib + 1) < b.length) ? b[ib + 1] : 0));
+                ib += 2;
+            }
+        }
+
+        return count;
+    }
+
     //-------------//
     // getSequence //
     //-------------//
@@ -1653,6 +2034,16 @@ public class RunTable
         sequences[index] = seq;
     }
 
+    //------------------//
+    // checkOrientation //
+    //------------------//
+    private void checkOrientation (RunTable that)
+    {
+        if (that.orientation != orientation) {
+            throw new IllegalArgumentException("RunTable orientations differ");
+        }
+    }
+
     //--------------//
     // afterMarshal //
     //--------------//
@@ -1728,6 +2119,16 @@ public class RunTable
         {
         }
 
+        /**
+         * (package private) Report the underlying RLE array.
+         *
+         * @return the rle array, perhaps null
+         */
+        int[] getRle ()
+        {
+            return rle;
+        }
+
         @Override
         public boolean equals (Object obj)
         {
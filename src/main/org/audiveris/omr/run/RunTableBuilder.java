@@ -0,0 +1,486 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                                  R u n T a b l e B u i l d e r                                 //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.run;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.audiveris.omr.constant.Constant;
+import org.audiveris.omr.constant.ConstantSet;
+import org.audiveris.omr.image.PixelFilter;
+import org.audiveris.omr.step.ProcessingCancellationException;
+import org.audiveris.omr.util.Concurrency;
+import org.audiveris.omr.util.OmrExecutors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+
+/**
+ * Class {@code RunTableBuilder} assembles a VERTICAL {@link RunTable} out of pixels
+ * decided in row-major order, without any intermediate image buffer.
+ * <p>
+ * The table height is split into horizontal {@link Band} instances.
+ * Each band must be fed by a single thread, row after row, but different bands can be fed
+ * concurrently.
+ * Once all bands have been fed, {@link #buildTable()} assembles the table sequences, merging the
+ * runs that cross band borders.
+ * <p>
+ * A {@link Feeder} can be provided to {@link #buildTable(Feeder)}, which then takes care of
+ * feeding all bands, in parallel if possible, before assembling the table.
+ * This allows any {@link PixelFilter} to be streamed into a table, see {@link FilterFeeder}.
+ *
+ * @author Hervé Bitteur
+ */
+public class RunTableBuilder
+{
+
+    private static final Constants constants = new Constants();
+
+    private static final Logger logger = LoggerFactory.getLogger(RunTableBuilder.class);
+
+    /** Table width. */
+    private final int width;
+
+    /** Table height. */
+    private final int height;
+
+    /** Height of every band (except perhaps the last one). */
+    private final int bandHeight;
+
+    /** Bands, from top to bottom. */
+    private final Band[] bands;
+
+    /**
+     * Creates a new {@code RunTableBuilder} object, with default band height.
+     *
+     * @param width  table width
+     * @param height table height
+     */
+    public RunTableBuilder (int width,
+                            int height)
+    {
+        this(width, height, constants.bandHeight.getValue());
+    }
+
+    /**
+     * Creates a new {@code RunTableBuilder} object.
+     *
+     * @param width      table width
+     * @param height     table height
+     * @param bandHeight height of bands
+     */
+    public RunTableBuilder (int width,
+                            int height,
+                            int bandHeight)
+    {
+        this.width = width;
+        this.height = height;
+        this.bandHeight = Math.max(1, bandHeight);
+
+        bands = new Band[(height + this.bandHeight - 1) / this.bandHeight];
+    }
+
+    //------------//
+    // buildTable //
+    //------------//
+    /**
+     * Assemble the resulting table, once all bands have been fed.
+     *
+     * @return the populated VERTICAL run table
+     */
+    public RunTable buildTable ()
+    {
+        // Count runs per column
+        final int[] counts = new int[width + 1];
+        int total = 0;
+
+        for (Band band : bands) {
+            if (band != null) {
+                band.close();
+
+                for (int i = 0; i < band.count; i += 3) {
+                    counts[band.runs[i] + 1]++;
+                }
+
+                total += (band.count / 3);
+            }
+        }
+
+        // Compute column offsets
+        for (int x = 0; x < width; x++) {
+            counts[x + 1] += counts[x];
+        }
+
+        // Dispatch runs per column, bands being browsed from top to bottom
+        final int[] starts = new int[total];
+        final int[] lengths = new int[total];
+        final int[] cursors = Arrays.copyOf(counts, width);
+
+        for (Band band : bands) {
+            if (band != null) {
+                final int[] runs = band.runs;
+
+                for (int i = 0; i < band.count; i += 3) {
+                    final int c = cursors[runs[i]]++;
+                    starts[c] = runs[i + 1];
+                    lengths[c] = runs[i + 2];
+                }
+            }
+        }
+
+        // Encode each column sequence, merging adjacent runs
+        final RunTable table = new RunTable(Orientation.VERTICAL, width, height);
+
+        for (int x = 0; x < width; x++) {
+            final int first = counts[x];
+            final int last = counts[x + 1] - 1;
+
+            if (first > last) {
+                continue;
+            }
+
+            // Merge in place
+            int n = first;
+
+            for (int c = first + 1; c <= last; c++) {
+                if ((starts[n] + lengths[n]) == starts[c]) {
+                    lengths[n] += lengths[c];
+                } else {
+                    n++;
+                    starts[n] = starts[c];
+                    lengths[n] = lengths[c];
+                }
+            }
+
+            final int runCount = n - first + 1;
+            final boolean initialBack = starts[first] != 0;
+            final int[] rle = new int[((2 * runCount) - 1) + (initialBack ? 2 : 0)];
+            int cursor = 0;
+            int loc = 0;
+
+            if (initialBack) {
+                rle[cursor++] = 0;
+            }
+
+            for (int c = first; c <= n; c++) {
+                if ((c > first) || initialBack) {
+                    rle[cursor++] = starts[c] - loc;
+                }
+
+                rle[cursor++] = lengths[c];
+                loc = starts[c] + lengths[c];
+            }
+
+            table.setSequence(x, new RunTable.RunSequence(rle));
+        }
+
+        return table;
+    }
+
+    //------------//
+    // buildTable //
+    //------------//
+    /**
+     * Feed all bands with the provided feeder, then assemble the resulting table.
+     * <p>
+     * Bands are fed in parallel on the high executor, if parallelism is allowed and if feeder
+     * is thread safe.
+     *
+     * @param feeder the provider of pixels
+     * @return the populated VERTICAL run table
+     */
+    public RunTable buildTable (final Feeder feeder)
+    {
+        final List<Callable<Void>> tasks = new ArrayList<>(bands.length);
+
+        for (int i = 0; i < bands.length; i++) {
+            final Band band = getBand(i);
+            tasks.add(
+                    new Callable<Void>()
+            {
+                @Override
+                public Void call ()
+                        throws Exception
+                {
+                    feeder.feed(band);
+
+                    return null;
+                }
+            });
+        }
+
+        try {
+            if ((OmrExecutors.defaultParallelism.getValue() == true) && feeder.isThreadSafe()) {
+                for (Future<Void> future : OmrExecutors.getHighExecutor().invokeAll(tasks)) {
+                    future.get();
+                }
+            } else {
+                for (Callable<Void> task : tasks) {
+                    task.call();
+                }
+            }
+        } catch (InterruptedException ex) {
+            logger.warn("RunTableBuilder got interrupted");
+            throw new ProcessingCancellationException(ex);
+        } catch (ExecutionException ex) {
+            logger.warn("Exception raised in RunTableBuilder", ex.getCause());
+            throw new RuntimeException(ex.getCause());
+        } catch (ProcessingCancellationException pce) {
+            throw pce;
+        } catch (Exception ex) {
+            throw new RuntimeException(ex);
+        }
+
+        return buildTable();
+    }
+
+    //---------//
+    // getBand //
+    //---------//
+    /**
+     * Report the band at provided index, allocated if needed.
+     * <p>
+     * Each band index is meant to be used by one thread only.
+     *
+     * @param index band index, from 0 to {@link #getBandCount()} - 1
+     * @return the band
+     */
+    public Band getBand (int index)
+    {
+        Band band = bands[index];
+
+        if (band == null) {
+            final int yMin = index * bandHeight;
+            bands[index] = band = new Band(yMin, Math.min(height, yMin + bandHeight) - 1);
+        }
+
+        return band;
+    }
+
+    //--------------//
+    // getBandCount //
+    //--------------//
+    /**
+     * Report the number of bands.
+     *
+     * @return count of bands
+     */
+    public int getBandCount ()
+    {
+        return bands.length;
+    }
+
+    //------//
+    // Band //
+    //------//
+    /**
+     * A horizontal band of rows, fed pixel by pixel in row-major order.
+     */
+    public class Band
+    {
+
+        /** First row of band. */
+        private final int yMin;
+
+        /** Last row of band. */
+        private final int yMax;
+
+        /** For each column, start of run in progress, or -1. */
+        private final int[] runStarts;
+
+        /** Runs found, as (column, start, length) triplets. */
+        private int[] runs;
+
+        /** Number of cells used in runs array. */
+        private int count;
+
+        /** Whether pending runs have been closed. */
+        private boolean closed;
+
+        private Band (int yMin,
+                      int yMax)
+        {
+            this.yMin = yMin;
+            this.yMax = yMax;
+
+            runStarts = new int[width];
+            Arrays.fill(runStarts, -1);
+            runs = new int[3 * width];
+        }
+
+        /**
+         * Record the value of pixel at (x,y).
+         * Within a band, pixels must be provided row by row, from top to bottom.
+         *
+         * @param x    pixel abscissa
+         * @param y    pixel ordinate
+         * @param fore true for a foreground pixel
+         */
+        public void feed (int x,
+                          int y,
+                          boolean fore)
+        {
+            final int start = runStarts[x];
+
+            if (fore) {
+                if (start == -1) {
+                    runStarts[x] = y;
+                }
+            } else if (start != -1) {
+                addRun(x, start, y - start);
+                runStarts[x] = -1;
+            }
+        }
+
+        /**
+         * Report the last row of this band.
+         *
+         * @return last ordinate
+         */
+        public int getYMax ()
+        {
+            return yMax;
+        }
+
+        /**
+         * Report the first row of this band.
+         *
+         * @return first ordinate
+         */
+        public int getYMin ()
+        {
+            return yMin;
+        }
+
+        private void addRun (int x,
+                             int start,
+                             int length)
+        {
+            if ((count + 3) > runs.length) {
+                runs = Arrays.copyOf(runs, 2 * runs.length);
+            }
+
+            runs[count++] = x;
+            runs[count++] = start;
+            runs[count++] = length;
+        }
+
+        private void close ()
+        {
+            if (!closed) {
+                for (int x = 0; x < width; x++) {
+                    final int start = runStarts[x];
+
+                    if (start != -1) {
+                        addRun(x, start, yMax + 1 - start);
+                    }
+                }
+
+                closed = true;
+            }
+        }
+    }
+
+    //--------//
+    // Feeder //
+    //--------//
+    /**
+     * Interface {@code Feeder} is meant to feed a band with all its pixels.
+     */
+    public static interface Feeder
+            extends Concurrency
+    {
+
+        /**
+         * Feed the provided band, row by row, with its pixels.
+         *
+         * @param band the band to populate
+         */
+        void feed (Band band);
+    }
+
+    //--------------//
+    // FilterFeeder //
+    //--------------//
+    /**
+     * Feeder which streams the foreground decisions of a {@link PixelFilter}.
+     */
+    public static class FilterFeeder
+            implements Feeder
+    {
+
+        /** The pixel filter to stream. */
+        private final PixelFilter filter;
+
+        /**
+         * Create a {@code FilterFeeder} on the provided filter.
+         *
+         * @param filter the filter to stream
+         */
+        public FilterFeeder (PixelFilter filter)
+        {
+            this.filter = filter;
+        }
+
+        @Override
+        public void feed (Band band)
+        {
+            final int width = filter.getWidth();
+
+            for (int y = band.getYMin(), yMax = band.getYMax(); y <= yMax; y++) {
+                for (int x = 0; x < width; x++) {
+                    band.feed(x, y, filter.isFore(x, y));
+                }
+            }
+        }
+
+        /**
+         * The concurrency aspects of the feeder depend on the underlying PixelFilter.
+         *
+         * @return true if filter class is annotated as ThreadSafe
+         */
+        @Override
+        public boolean isThreadSafe ()
+        {
+            return filter.getClass().getAnnotation(ThreadSafe.class) != null;
+        }
+    }
+
+    //-----------//
+    // Constants //
+    //-----------//
+    private static class Constants
+            extends ConstantSet
+    {
+
+        private final Constant.Integer bandHeight = new Constant.Integer(
+                "Pixels",
+                64,
+                "Default height of image bands processed in parallel");
+    }
+}
@@ -0,0 +1,332 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                                    R u n T a b l e C o d e c                                   //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.run;
+
+import org.audiveris.omr.constant.Constant;
+import org.audiveris.omr.constant.ConstantSet;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.zip.Deflater;
+import java.util.zip.DeflaterOutputStream;
+import java.util.zip.Inflater;
+import java.util.zip.InflaterInputStream;
+
+/**
+ * Class {@code RunTableCodec} handles the compact binary format of a {@link RunTable}.
+ * <p>
+ * Layout, all integers being written as unsigned variable-length quantities (7 bits per byte,
+ * least significant group first):
+ * <pre>
+ * header:  'R' 'T' 'B' 'L'  version(byte)  flags(byte)
+ * body:    orientation  width  height
+ *          for each sequence: rleLength  rle[0] .. rle[rleLength-1]
+ * </pre>
+ * A null sequence is written with a zero rleLength.
+ * If the {@link #DEFLATED} flag is set, the whole body is deflated.
+ * <p>
+ * The magic header allows to tell a binary file from a legacy XML file.
+ *
+ * @author Hervé Bitteur
+ */
+public abstract class RunTableCodec
+{
+
+    private static final Constants constants = new Constants();
+
+    /** File extension for binary run tables: {@value}. */
+    public static final String BINARY_EXTENSION = ".bin";
+
+    /** File extension for XML run tables: {@value}. */
+    public static final String XML_EXTENSION = ".xml";
+
+    /** Current format version. */
+    public static final int VERSION = 1;
+
+    /** Flag for a deflated body. */
+    public static final int DEFLATED = 0x01;
+
+    /** Magic bytes at beginning of binary format. */
+    private static final byte[] MAGIC = new byte[]{'R', 'T', 'B', 'L'};
+
+    private RunTableCodec ()
+    {
+    }
+
+    //----------//
+    // isBinary //
+    //----------//
+    /**
+     * Check whether the provided file starts with the binary magic header.
+     *
+     * @param path path to file
+     * @return true if binary format
+     * @throws IOException on IO error
+     */
+    public static boolean isBinary (Path path)
+            throws IOException
+    {
+        try (InputStream is = Files.newInputStream(path, StandardOpenOption.READ)) {
+            for (byte b : MAGIC) {
+                if (is.read() != b) {
+                    return false;
+                }
+            }
+
+            return true;
+        }
+    }
+
+    //------//
+    // read //
+    //------//
+    /**
+     * Read a run table from a binary file.
+     *
+     * @param path path to binary file
+     * @return the run table read
+     * @throws IOException on IO error or invalid format
+     */
+    public static RunTable read (Path path)
+            throws IOException
+    {
+        try (InputStream is = new BufferedInputStream(
+                Files.newInputStream(path, StandardOpenOption.READ))) {
+            return read(is);
+        }
+    }
+
+    //------//
+    // read //
+    //------//
+    /**
+     * Read a run table from a binary input stream.
+     *
+     * @param is the input stream
+     * @return the run table read
+     * @throws IOException on IO error or invalid format
+     */
+    public static RunTable read (InputStream is)
+            throws IOException
+    {
+        for (byte b : MAGIC) {
+            if (is.read() != b) {
+                throw new IOException("Not a binary run table");
+            }
+        }
+
+        final int version = readByte(is);
+
+        if (version > VERSION) {
+            throw new IOException("Unsupported binary run table version " + version);
+        }
+
+        final int flags = readByte(is);
+        final Inflater inflater = ((flags & DEFLATED) != 0) ? new Inflater() : null;
+
+        try {
+            final InputStream body = (inflater != null)
+                    ? new BufferedInputStream(new InflaterInputStream(is, inflater)) : is;
+
+            final int ordinal = readVarInt(body);
+
+            if (ordinal >= Orientation.values().length) {
+                throw new IOException("Invalid orientation " + ordinal);
+            }
+
+            final Orientation orientation = Orientation.values()[ordinal];
+            final int width = readVarInt(body);
+            final int height = readVarInt(body);
+            final RunTable table = new RunTable(orientation, width, height);
+
+            for (int i = 0, iBreak = table.getSize(); i < iBreak; i++) {
+                final int length = readVarInt(body);
+
+                if (length > 0) {
+                    final int[] rle = new int[length];
+
+                    for (int j = 0; j < length; j++) {
+                        rle[j] = readVarInt(body);
+                    }
+
+                    table.setSequence(i, new RunTable.RunSequence(rle));
+                }
+            }
+
+            return table;
+        } finally {
+            if (inflater != null) {
+                inflater.end(); // Release native resources, leaving input stream open
+            }
+        }
+    }
+
+    //-------//
+    // write //
+    //-------//
+    /**
+     * Write the provided run table to a binary file, using default compression.
+     *
+     * @param table the table to write
+     * @param path  path to target file
+     * @throws IOException on IO error
+     */
+    public static void write (RunTable table,
+                              Path path)
+            throws IOException
+    {
+        try (OutputStream os = new BufferedOutputStream(Files.newOutputStream(path))) {
+            write(table, os, constants.deflate.isSet());
+        }
+    }
+
+    //-------//
+    // write //
+    //-------//
+    /**
+     * Write the provided run table to a binary output stream.
+     *
+     * @param table    the table to write
+     * @param os       the output stream
+     * @param deflated true to deflate the body
+     * @throws IOException on IO error
+     */
+    public static void write (RunTable table,
+                              OutputStream os,
+                              boolean deflated)
+            throws IOException
+    {
+        os.write(MAGIC);
+        os.write(VERSION);
+        os.write(deflated ? DEFLATED : 0);
+
+        final Deflater deflater = deflated ? new Deflater(Deflater.BEST_SPEED) : null;
+
+        try {
+            final DeflaterOutputStream dos = deflated ? new DeflaterOutputStream(os, deflater)
+                    : null;
+            final OutputStream body = deflated ? dos : os;
+
+            writeVarInt(body, table.getOrientation().ordinal());
+            writeVarInt(body, table.getWidth());
+            writeVarInt(body, table.getHeight());
+
+            for (int i = 0, iBreak = table.getSize(); i < iBreak; i++) {
+                final RunTable.RunSequence seq = table.getSequence(i);
+                final int[] rle = (seq != null) ? seq.getRle() : null;
+
+                if (rle == null) {
+                    writeVarInt(body, 0);
+                } else {
+                    writeVarInt(body, rle.length);
+
+                    for (int val : rle) {
+                        writeVarInt(body, val);
+                    }
+                }
+            }
+
+            if (dos != null) {
+                dos.finish();
+            }
+        } finally {
+            if (deflater != null) {
+                deflater.end(); // Release native resources, leaving output stream open
+            }
+        }
+
+        os.flush();
+    }
+
+    //----------//
+    // readByte //
+    //----------//
+    private static int readByte (InputStream is)
+            throws IOException
+    {
+        final int b = is.read();
+
+        if (b < 0) {
+            throw new EOFException("Truncated binary run table");
+        }
+
+        return b;
+    }
+
+    //------------//
+    // readVarInt //
+    //------------//
+    private static int readVarInt (InputStream is)
+            throws IOException
+    {
+        int value = 0;
+
+        for (int shift = 0; shift < 32; shift += 7) {
+            final int b = readByte(is);
+            value |= ((b & 0x7F) << shift);
+
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+
+        throw new IOException("Malformed variable-length integer");
+    }
+
+    //-------------//
+    // writeVarInt //
+    //-------------//
+    private static void writeVarInt (OutputStream os,
+                                     int value)
+            throws IOException
+    {
+        if (value < 0) {
+            throw new IllegalArgumentException("Negative value " + value);
+        }
+
+        while ((value & ~0x7F) != 0) {
+            os.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+
+        os.write(value);
+    }
+
+    //-----------//
+    // Constants //
+    //-----------//
+    private static class Constants
+            extends ConstantSet
+    {
+
+        private final Constant.Boolean deflate = new Constant.Boolean(
+                false,
+                "Should binary run tables be deflated? (not needed within a zip archive)");
+    }
+}
@@ -31,7 +31,6 @@ import org.slf4j.LoggerFactory;
 
 import java.awt.Point;
 import java.awt.Rectangle;
-import java.util.List;
 
 /**
  * Class {@code RunTableFactory} retrieves the runs structure out of a given pixel
@@ -211,9 +210,11 @@ public class RunTableFactory
 
         @Override
         public void endPosition (int pos,
-                                 List<Run> runs)
+                                 int[] rle)
         {
-            table.setSequence(pos - tableOffset.y, RunTable.encode(runs));
+            table.setSequence(
+                    pos - tableOffset.y,
+                    (rle != null) ? new RunTable.RunSequence(rle) : null);
         }
 
         @Override
@@ -251,9 +252,11 @@ public class RunTableFactory
 
         @Override
         public void endPosition (int pos,
-                                 List<Run> runs)
+                                 int[] rle)
         {
-            table.setSequence(pos - tableOffset.x, RunTable.encode(runs));
+            table.setSequence(
+                    pos - tableOffset.x,
+                    (rle != null) ? new RunTable.RunSequence(rle) : null);
         }
 
         @Override
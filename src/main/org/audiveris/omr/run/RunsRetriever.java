@@ -21,6 +21,8 @@
 // </editor-fold>
 package org.audiveris.omr.run;
 
+import org.audiveris.omr.constant.Constant;
+import org.audiveris.omr.constant.ConstantSet;
 import org.audiveris.omr.step.ProcessingCancellationException;
 import org.audiveris.omr.util.Concurrency;
 import org.audiveris.omr.util.OmrExecutors;
@@ -30,8 +32,11 @@ import org.slf4j.LoggerFactory;
 
 import java.awt.Rectangle;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.List;
 import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Class {@code RunsRetriever} is in charge of reading a source of pixels and
@@ -44,6 +49,8 @@ import java.util.concurrent.Callable;
 public class RunsRetriever
 {
 
+    private static final Constants constants = new Constants();
+
     private static final Logger logger = LoggerFactory.getLogger(RunsRetriever.class);
 
     /** The orientation of desired runs */
@@ -85,22 +92,54 @@ public class RunsRetriever
         rowBasedRetrieval(pMin, pMax, cMin, cMax);
     }
 
+    //--------------//
+    // processChunk //
+    //--------------//
+    /**
+     * Process the positions of a chunk, with a single RLE buffer for the whole chunk.
+     *
+     * @param pFirst first position in chunk
+     * @param pLast  last position in chunk
+     * @param cMin   the starting coordinate
+     * @param cMax   the ending coordinate
+     */
+    private void processChunk (int pFirst,
+                               int pLast,
+                               int cMin,
+                               int cMax)
+    {
+        // At most one (foreground, background) pair per 2 pixels, plus a leading empty foreground
+        final int[] buffer = new int[(cMax - cMin) + 3];
+
+        for (int p = pFirst; p <= pLast; p++) {
+            processPosition(p, cMin, cMax, buffer);
+        }
+    }
+
     //-----------------//
     // processPosition //
     //-----------------//
     /**
-     * Process the pixels in position 'p' between coordinates 'cMin' and 'cMax'
+     * Process the pixels in position 'p' between coordinates 'cMin' and 'cMax'.
+     * <p>
+     * Accepted foreground runs are directly encoded as RLE in the provided buffer, a rejected
+     * foreground run being merged with surrounding background.
      *
-     * @param pos  the position in the pixels array (x for vertical)
-     * @param cMin the starting coordinate (y for vertical)
-     * @param cMax the ending coordinate
+     * @param pos    the position in the pixels array (x for vertical)
+     * @param cMin   the starting coordinate (y for vertical)
+     * @param cMax   the ending coordinate
+     * @param buffer RLE buffer, large enough for the whole position
      */
     private void processPosition (int pos,
                                   int cMin,
-                                  int cMax)
+                                  int cMax,
+                                  int[] buffer)
     {
-        /** Buffer of runs for current position. */
-        final List<Run> posRuns = new ArrayList<>();
+        // Number of RLE values in buffer
+        int n = 0;
+
+        // Relative coordinate right after last accepted foreground run
+        int end = 0;
 
         // Current run is FOREGROUND or BACKGROUND
         boolean isFore = false;
@@ -108,10 +147,9 @@ public class RunsRetriever
         // Current length of the run in progress
         int length = 0;
 
-        // Browse other dimension
-        for (int c = cMin; c <= cMax; c++) {
-            ///logger.info("p:" + p + " c:" + c + " level:" + level);
-            if (adapter.isFore(c, pos)) {
+        // Browse other dimension (one more time to close the last run)
+        for (int c = cMin; c <= (cMax + 1); c++) {
+            if ((c <= cMax) && adapter.isFore(c, pos)) {
                 // We are on a foreground pixel
                 if (isFore) {
                     // Append to the foreground run in progress
@@ -121,35 +159,31 @@ public class RunsRetriever
                     isFore = true;
                     length = 1;
                 }
-            } else // We are on a background pixel
-            {
-                if (isFore) {
-                    // End the previous foreground run
-                    if (adapter.foreRun(c, pos, length)) {
-                        // Bufferize the runs
-                        posRuns.add(new Run(c - cMin - length, length));
+            } else if (isFore) {
+                // End the previous foreground run
+                if (adapter.foreRun(c, pos, length)) {
+                    final int start = c - cMin - length;
+
+                    // Background, then foreground
+                    if (n == 0) {
+                        if (start > 0) {
+                            buffer[n++] = 0;
+                            buffer[n++] = start;
+                        }
+                    } else {
+                        buffer[n++] = start - end;
                     }
 
-                    // Initialize values for the starting background run
-                    isFore = false;
-                    length = 1;
-                } else {
-                    // Append to the background run in progress
-                    length++;
+                    buffer[n++] = length;
+                    end = start + length;
                 }
-            }
-        }
 
-        // Process end of last run in this position
-        if (isFore) {
-            if (adapter.foreRun((cMax + 1) - cMin, pos, length)) {
-                // Bufferize the runs
-                posRuns.add(new Run((cMax + 1) - cMin - length, length));
+                isFore = false;
             }
         }
 
-        // Forward the buffer of runs
-        adapter.endPosition(pos, posRuns);
+        // Forward the runs
+        adapter.endPosition(pos, (n == 0) ? null : Arrays.copyOf(buffer, n));
     }
 
     //-------------------//
@@ -157,27 +191,33 @@ public class RunsRetriever
     //-------------------//
     /**
      * Retrieve runs row by row.
-     * This method handles the pixels run either in a parallel or a serial way,
-     * according to the possibilities of the high OMR executor.
+     * <p>
+     * Positions are split into chunks of consecutive positions, each chunk being processed as a
+     * whole, either in a parallel or a serial way, according to the possibilities of the high OMR
+     * executor.
+     * There are several chunks per CPU, to balance the load, while each chunk is kept large
+     * enough to make task overhead negligible.
      */
     private void rowBasedRetrieval (int pMin,
                                     int pMax,
                                     final int cMin,
                                     final int cMax)
     {
-        if ((OmrExecutors.defaultParallelism.getValue() == false) || !adapter.isThreadSafe()) {
+        final int posCount = (pMax - pMin) + 1;
+        final int chunkSize = getChunkSize(posCount, (cMax - cMin) + 1);
+
+        if ((chunkSize >= posCount) || (OmrExecutors.defaultParallelism.getValue() == false)
+                    || !adapter.isThreadSafe()) {
             // Sequential
-            for (int p = pMin; p <= pMax; p++) {
-                processPosition(p, cMin, cMax);
-            }
+            processChunk(pMin, pMax, cMin, cMax);
         } else {
-            // Parallel (TODO: should use Java 7 fork/join someday...)
+            // Parallel
             try {
-                // Browse one dimension
-                List<Callable<Void>> tasks = new ArrayList<>(pMax - pMin + 1);
+                final List<Callable<Void>> tasks = new ArrayList<>();
 
-                for (int p = pMin; p <= pMax; p++) {
-                    final int pp = p;
+                for (int p = pMin; p <= pMax; p += chunkSize) {
+                    final int pFirst = p;
+                    final int pLast = Math.min(pMax, (p + chunkSize) - 1);
                     tasks.add(
                             new Callable<Void>()
                     {
@@ -185,7 +225,7 @@ public class RunsRetriever
                         public Void call ()
                                 throws Exception
                         {
-                            processPosition(pp, cMin, cMax);
+                            processChunk(pFirst, pLast, cMin, cMax);
 
                             return null;
                         }
@@ -193,19 +233,42 @@ public class RunsRetriever
                 }
 
                 // Launch the tasks and wait for their completion
-                OmrExecutors.getHighExecutor().invokeAll(tasks);
+                for (Future<Void> future : OmrExecutors.getHighExecutor().invokeAll(tasks)) {
+                    future.get();
+                }
             } catch (InterruptedException ex) {
                 logger.warn("ParallelRuns got interrupted");
                 throw new ProcessingCancellationException(ex);
-            } catch (ProcessingCancellationException pce) {
-                throw pce;
-            } catch (Throwable ex) {
-                logger.warn("Exception raised in ParallelRuns", ex);
-                throw new RuntimeException(ex);
+            } catch (ExecutionException ex) {
+                if (ex.getCause() instanceof ProcessingCancellationException) {
+                    throw (ProcessingCancellationException) ex.getCause();
+                }
+
+                logger.warn("Exception raised in ParallelRuns", ex.getCause());
+                throw new RuntimeException(ex.getCause());
             }
         }
     }
 
+    //--------------//
+    // getChunkSize //
+    //--------------//
+    /**
+     * Report the number of positions per chunk.
+     *
+     * @param posCount   number of positions
+     * @param coordCount number of coordinates per position
+     * @return positions per chunk
+     */
+    private static int getChunkSize (int posCount,
+                                     int coordCount)
+    {
+        final int chunks = OmrExecutors.getNumberOfCpus() * constants.chunksPerCpu.getValue();
+        final int minSize = (constants.minChunkPixels.getValue() + coordCount - 1) / coordCount;
+
+        return Math.max(Math.max(1, minSize), (posCount + chunks - 1) / chunks);
+    }
+
     //---------//
     // Adapter //
     //---------//
@@ -219,11 +282,12 @@ public class RunsRetriever
         /**
          * Called at end of position.
          *
-         * @param pos  position value
-         * @param runs sequence of runs for this position
+         * @param pos position value
+         * @param rle sequence of runs for this position, encoded as in {@link RunTable}, or null
+         *            if there is no foreground run
          */
         void endPosition (int pos,
-                          List<Run> runs);
+                          int[] rle);
 
         /**
          * Called at end of a foreground run.
@@ -247,4 +311,22 @@ public class RunsRetriever
         boolean isFore (int coord,
                         int pos);
     }
+
+    //-----------//
+    // Constants //
+    //-----------//
+    private static class Constants
+            extends ConstantSet
+    {
+
+        private final Constant.Integer chunksPerCpu = new Constant.Integer(
+                "chunks",
+                4,
+                "Number of position chunks per CPU, for parallel run retrieval");
+
+        private final Constant.Integer minChunkPixels = new Constant.Integer(
+                "pixels",
+                32768,
+                "Minimum number of pixels per chunk, for parallel run retrieval");
+    }
 }
@@ -83,7 +83,9 @@ import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.zip.ZipOutputStream;
 
 import javax.swing.JFrame;
@@ -135,8 +137,11 @@ import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
  * <li>{@link #isClosing}</li>
  * <li>{@link #setClosing}</li>
  * <li>{@link #getLock}</li>
+ * <li>{@link #getSidecarLock}</li>
+ * <li>{@link #prepareSidecar}</li>
  * <li>{@link #openBookFile}</li>
  * <li>{@link #openSheetFolder}</li>
+ * <li>{@link #closeSheetFolder}</li>
  * </ul>
  * </dd>
  *
@@ -293,6 +298,12 @@ public class Book
     /** Project file lock. */
     private final Lock lock = new ReentrantLock();
 
+    /** Sidecar lock: shared by sheets stored aside, exclusive for consolidation. */
+    private final ReadWriteLock sidecarLock = new ReentrantReadWriteLock();
+
+    /** Path of the book file that sheets of this book are stored aside for, if any. */
+    private volatile Path sidecarBookPath;
+
     /** The related file radix (file name without extension). */
     private String radix;
 
@@ -317,6 +328,9 @@ public class Book
     /** Book-level sample repository. */
     private SampleRepository repository;
 
+    /** Loader on input images file, kept open until book is closed. */
+    private ImageLoading.Loader imageLoader;
+
     /**
      * Create a Book with a path to an input images file.
      *
@@ -445,6 +459,32 @@ public class Book
             bookBrowser.close();
         }
 
+        // Consolidate sheets stored aside if any, as they would be in book file
+        // But discard them if book was never stored, since there is no book file to receive them
+        final Path sidecarPath = (bookPath != null) ? bookPath : sidecarBookPath;
+
+        if (sidecarPath != null) {
+            final Lock sidecarWriteLock = getSidecarLock().writeLock();
+            sidecarWriteLock.lock();
+            getLock().lock();
+
+            try {
+                if (bookPath != null) {
+                    BookSidecar.consolidate(bookPath);
+                } else {
+                    BookSidecar.delete(sidecarPath);
+                }
+            } catch (IOException ex) {
+                logger.warn("Error closing sheets aside {} {}", sidecarPath, ex.toString(), ex);
+            } finally {
+                getLock().unlock();
+                sidecarWriteLock.unlock();
+            }
+        }
+
+        // Release input images file
+        disposeImageLoader();
+
         // Remove from OMR instances
         OMR.engine.removeBook(this);
 
@@ -465,11 +505,10 @@ public class Book
      */
     public void createStubs (SortedSet<Integer> sheetNumbers)
     {
-        ImageLoading.Loader loader = ImageLoading.getLoader(path);
+        final ImageLoading.Loader loader = getImageLoader();
 
         if (loader != null) {
             final int imageCount = loader.getImageCount();
-            loader.dispose();
             logger.info("{} sheet{} in {}", imageCount, ((imageCount > 1) ? "s" : ""), path);
 
             if (sheetNumbers == null) {
@@ -931,6 +970,23 @@ public class Book
         return Collections.unmodifiableList(scores);
     }
 
+    //----------------//
+    // getSidecarLock //
+    //----------------//
+    /**
+     * Report the lock that protects book sidecar folder.
+     * <p>
+     * Sheets stored aside share the read lock, the consolidation of sidecar into book file takes
+     * the write lock.
+     *
+     * @return book sidecar lock
+     * @see BookSidecar
+     */
+    public ReadWriteLock getSidecarLock ()
+    {
+        return sidecarLock;
+    }
+
     //-----------------------------//
     // getSpecificSampleRepository //
     //-----------------------------//
@@ -1121,6 +1177,8 @@ public class Book
     //------------//
     /**
      * Report whether the book has been modified with respect to its persisted data.
+     * <p>
+     * Sheets stored aside, in the sidecar owned by this book, are not yet in book file.
      *
      * @return true if modified
      */
@@ -1130,6 +1188,12 @@ public class Book
             return true; // The book itself is modified
         }
 
+        final Path sidecarPath = sidecarBookPath;
+
+        if ((sidecarPath != null) && BookSidecar.exists(sidecarPath)) {
+            return true; // Some sheets are stored aside, not yet in book file
+        }
+
         if ((repository != null) && repository.isModified()) {
             return true; // The book sample repository is modified
         }
@@ -1209,6 +1273,9 @@ public class Book
     //----------------//
     /**
      * Actually load the image that corresponds to the specified sheet id.
+     * <p>
+     * The book image loader is shared by all sheets, so that input file is opened and parsed only
+     * once, and several sheet images can be loaded concurrently.
      *
      * @param id specified sheet id
      * @return the loaded sheet image
@@ -1216,7 +1283,7 @@ public class Book
     public BufferedImage loadSheetImage (int id)
     {
         try {
-            final ImageLoading.Loader loader = ImageLoading.getLoader(path);
+            final ImageLoading.Loader loader = getImageLoader();
 
             if (loader == null) {
                 return null;
@@ -1225,8 +1292,6 @@ public class Book
             BufferedImage img = loader.getImage(id);
             logger.info("Loaded image {} {}x{} from {}", id, img.getWidth(), img.getHeight(), path);
 
-            loader.dispose();
-
             return img;
         } catch (IOException ex) {
             logger.warn("Error in book.loadSheetImage", ex);
@@ -1272,6 +1337,38 @@ public class Book
         return root.resolve(INTERNALS_RADIX + number);
     }
 
+    //-----------------//
+    // openSheetFolder //
+    //-----------------//
+    /**
+     * Open the folder where the provided file of provided sheet number can be read.
+     * <p>
+     * This is the sheet sidecar folder if it contains the file and was prepared by this book,
+     * otherwise the sheet folder in book file.
+     * The returned folder must be closed via {@link #closeSheetFolder(java.nio.file.Path)}
+     *
+     * @param number   sheet number (1-based) within the book
+     * @param fileName name of desired file, relative to sheet folder
+     * @return the path to sheet folder
+     * @throws IOException if anything goes wrong
+     */
+    public Path openSheetFolder (int number,
+                                 String fileName)
+            throws IOException
+    {
+        final Path bookFile = BookManager.getDefaultSavePath(this);
+
+        if (bookFile.equals(sidecarBookPath)) {
+            final Path sidecarFolder = BookSidecar.getSheetFolder(bookFile, number);
+
+            if (Files.exists(sidecarFolder.resolve(fileName))) {
+                return sidecarFolder;
+            }
+        }
+
+        return openSheetFolder(number);
+    }
+
     //-------//
     // print //
     //-------//
@@ -1293,6 +1390,42 @@ public class Book
         }
     }
 
+    //----------------//
+    // prepareSidecar //
+    //----------------//
+    /**
+     * Make sure the sidecar of the provided book file is ready to receive sheets of this book.
+     * <p>
+     * On first use of this sidecar by this book, any sidecar left over by another session is
+     * consolidated into its book file, or discarded if orphan or stale.
+     * This method must be called before the sidecar read lock is taken.
+     *
+     * @param bookFile path to book file the sidecar is named after
+     * @throws IOException if anything goes wrong
+     * @see BookSidecar#consolidate(Path)
+     */
+    public void prepareSidecar (Path bookFile)
+            throws IOException
+    {
+        if (bookFile.equals(sidecarBookPath)) {
+            return;
+        }
+
+        final Lock sidecarWriteLock = getSidecarLock().writeLock();
+        sidecarWriteLock.lock();
+        getLock().lock();
+
+        try {
+            if (!bookFile.equals(sidecarBookPath)) {
+                BookSidecar.consolidate(bookFile);
+                sidecarBookPath = bookFile;
+            }
+        } finally {
+            getLock().unlock();
+            sidecarWriteLock.unlock();
+        }
+    }
+
     //---------------//
     // reachBookStep //
     //---------------//
@@ -1336,62 +1469,105 @@ public class Book
 
                 if (isMultiSheet() && constants.processAllStubsInParallel.isSet()
                             && (OmrExecutors.defaultParallelism.getValue() == true)) {
-                    // Process all stubs in parallel
-                    List<Callable<Boolean>> tasks = new ArrayList<>();
-
-                    for (final SheetStub stub : concernedStubs) {
-                        tasks.add(new Callable<Boolean>()
-                        {
-                            @Override
-                            public Boolean call ()
-                                    throws StepException
-                            {
-                                LogUtil.start(stub);
+                    // Process stubs in parallel
+                    // In batch, stubs are admitted by the scheduler and swapped once processed
+                    final SheetScheduler scheduler = (OMR.gui == null) ? SheetScheduler
+                            .getInstance() : null;
+                    List<Future<Boolean>> futures = new ArrayList<>();
 
-                                try {
-                                    boolean ok = stub.reachStep(target, force);
+                    try {
+                        for (final SheetStub stub : concernedStubs) {
+                            final long reserved = (scheduler != null)
+                                    ? scheduler.admit(stub, target) : 0;
 
-                                    if (ok && (OMR.gui == null)) {
-                                        stub.swapSheet(); // Save sheet & global book info to disk
+                            futures.add(OmrExecutors.getCachedLowExecutor().submit(
+                                    new Callable<Boolean>()
+                            {
+                                @Override
+                                public Boolean call ()
+                                        throws StepException
+                                {
+                                    LogUtil.start(stub);
+
+                                    try {
+                                        boolean ok = stub.reachStep(target, force);
+
+                                        if (scheduler != null) {
+                                            scheduler.measure(stub);
+
+                                            if (ok) {
+                                                stub.swapSheet(); // Save sheet & book info to disk
+                                            }
+                                        }
+
+                                        return ok;
+                                    } finally {
+                                        if (scheduler != null) {
+                                            scheduler.release(reserved);
+                                        }
+
+                                        LogUtil.stopStub();
                                     }
-
-                                    return ok;
-                                } finally {
-                                    LogUtil.stopStub();
                                 }
-                            }
-                        });
+                            }));
+                        }
+                    } catch (InterruptedException ex) {
+                        logger.warn("Error in parallel reachBookStep", ex);
+                        someFailure = true;
                     }
 
-                    try {
-                        List<Future<Boolean>> futures = OmrExecutors.getCachedLowExecutor()
-                                .invokeAll(tasks);
-
-                        for (Future<Boolean> future : futures) {
-                            try {
-                                if (!future.get()) {
-                                    someFailure = true;
-                                }
-                            } catch (InterruptedException |
-                                     ExecutionException ex) {
-                                logger.warn("Future exception", ex);
+                    for (Future<Boolean> future : futures) {
+                        try {
+                            if (!future.get()) {
                                 someFailure = true;
                             }
+                        } catch (InterruptedException |
+                                 ExecutionException ex) {
+                            logger.warn("Future exception", ex);
+                            someFailure = true;
                         }
-
-                        return !someFailure;
-                    } catch (InterruptedException ex) {
-                        logger.warn("Error in parallel reachBookStep", ex);
-                        someFailure = true;
                     }
                 } else {
                     // Process one stub after the other
-                    for (SheetStub stub : concernedStubs) {
+                    // In batch, stubs are admitted by the scheduler shared with the other books
+                    // and the early steps of next stub overlap the processing of current stub
+                    final SheetScheduler scheduler = (OMR.gui == null) ? SheetScheduler
+                            .getInstance() : null;
+                    final Step early = ((scheduler != null) && !force
+                                                && constants.anticipateEarlySteps.isSet()
+                                                && (target.compareTo(Step.BINARY) > 0))
+                            ? Step.BINARY : null;
+                    Future<Long> nextAdmission = null; // Admission of next stub, if anticipated
+
+                    for (int i = 0; i < concernedStubs.size(); i++) {
+                        final SheetStub stub = concernedStubs.get(i);
                         LogUtil.start(stub);
 
+                        boolean admitted = false;
+                        long reserved = 0;
+
                         try {
+                            if (nextAdmission != null) {
+                                final Future<Long> admission = nextAdmission;
+                                nextAdmission = null;
+                                reserved = admission.get();
+                                admitted = true;
+                            } else if (scheduler != null) {
+                                reserved = scheduler.admit(stub, target);
+                                admitted = true;
+                            }
+
+                            if ((early != null) && (i < (concernedStubs.size() - 1))) {
+                                nextAdmission = anticipate(
+                                        concernedStubs.get(i + 1),
+                                        early,
+                                        target,
+                                        scheduler);
+                            }
+
                             if (stub.reachStep(target, force)) {
-                                if (OMR.gui == null) {
+                                if (scheduler != null) {
+                                    scheduler.measure(stub);
                                     stub.swapSheet(); // Save sheet & global book info to disk
                                 }
                             } else {
@@ -1403,6 +1579,10 @@ public class Book
                             logger.warn("Error processing stub");
                             someFailure = true;
                         } finally {
+                            if (admitted) {
+                                scheduler.release(reserved);
+                            }
+
                             LogUtil.stopStub();
                         }
                     }
@@ -1544,9 +1724,15 @@ public class Book
         }
 
         Path root = null; // Root of the zip file system
+        final Lock sidecarWriteLock = getSidecarLock().writeLock();
 
         try {
+            sidecarWriteLock.lock(); // No sheet being stored aside
             getLock().lock();
+
+            // Sheets stored aside, if any, are located by current book path
+            final Path sidecarPath = BookManager.getDefaultSavePath(this);
+            final boolean sidecarOwned = sidecarPath.equals(sidecarBookPath);
             checkRadixChange(bookPath);
             logger.debug("Storing book...");
 
@@ -1559,7 +1745,10 @@ public class Book
                     root = ZipFileSystem.open(bookPath);
                 }
 
-                if (modified) {
+                // Sheets stored aside
+                final boolean merged = sidecarOwned && BookSidecar.merge(sidecarPath, root);
+
+                if (modified || merged) {
                     storeBookInfo(root); // Book info (book.xml)
                     diskWritten = true;
                 }
@@ -1595,6 +1784,16 @@ public class Book
                     if (Files.exists(oldSheetFolder)) {
                         FileUtil.copyTree(oldSheetFolder, sheetFolder);
                     }
+                }
+
+                // Then sheets stored aside
+                if (sidecarOwned && BookSidecar.merge(sidecarPath, root)) {
+                    storeBookInfo(root); // Book info (book.xml) overwritten by merge
+                }
+
+                for (SheetStub stub : stubs) {
+                    final Path oldSheetFolder = oldRoot.resolve(INTERNALS_RADIX + stub.getNumber());
+                    final Path sheetFolder = root.resolve(INTERNALS_RADIX + stub.getNumber());
 
                     // Update modified sheet files
                     if (stub.isModified() || stub.isUpgraded()) {
@@ -1605,6 +1804,14 @@ public class Book
                 oldRoot.getFileSystem().close(); // Close old book file
             }
 
+            // Book file is now complete, hence sheets stored aside are no longer needed
+            root.getFileSystem().close();
+            root = null;
+
+            if (sidecarOwned) {
+                BookSidecar.delete(sidecarPath);
+            }
+
             this.bookPath = bookPath;
 
             BookManager.getInstance().getBookHistory().add(bookPath); // Insert in history
@@ -1623,6 +1830,7 @@ public class Book
             }
 
             getLock().unlock();
+            sidecarWriteLock.unlock();
         }
     }
 
@@ -1826,6 +2034,51 @@ public class Book
         }
     }
 
+    //------------//
+    // anticipate //
+    //------------//
+    /**
+     * Launch, in the background, the admission and the early steps of the provided stub,
+     * while the previous stub is still being processed.
+     * <p>
+     * The early steps thus overlap the later steps of previous stub, each within the bounds of
+     * its {@link org.audiveris.omr.step.StepStages stage}.
+     * The remaining steps are performed later by the caller, once the stub gets its turn.
+     *
+     * @param stub      the next stub to process
+     * @param early     the last early step to perform in advance
+     * @param target    the targeted step, for admission
+     * @param scheduler the sheet scheduler
+     * @return the future admission, to be released by the caller once stub is processed
+     */
+    private Future<Long> anticipate (final SheetStub stub,
+                                     final Step early,
+                                     final Step target,
+                                     final SheetScheduler scheduler)
+    {
+        return OmrExecutors.getCachedLowExecutor().submit(new Callable<Long>()
+        {
+            @Override
+            public Long call ()
+                    throws Exception
+            {
+                final long reserved = scheduler.admit(stub, target);
+                LogUtil.start(stub);
+
+                try {
+                    stub.reachStep(early, false);
+
+                    return reserved;
+                } catch (Exception ex) {
+                    scheduler.release(reserved);
+                    throw ex;
+                } finally {
+                    LogUtil.stopStub();
+                }
+            }
+        });
+    }
+
     //-----------------------//
     // areVersionsCompatible //
     //-----------------------//
@@ -1973,6 +2226,20 @@ public class Book
         logger.debug("Created scores:{}", scores);
     }
 
+    //--------------------//
+    // disposeImageLoader //
+    //--------------------//
+    /**
+     * Release the book image loader, if any.
+     */
+    private synchronized void disposeImageLoader ()
+    {
+        if (imageLoader != null) {
+            imageLoader.dispose();
+            imageLoader = null;
+        }
+    }
+
     //-------------------//
     // getConcernedStubs //
     //-------------------//
@@ -1989,6 +2256,23 @@ public class Book
         return list;
     }
 
+    //----------------//
+    // getImageLoader //
+    //----------------//
+    /**
+     * Report the loader on book input images file, opened on first call.
+     *
+     * @return the image loader, or null if input file cannot be loaded
+     */
+    private synchronized ImageLoading.Loader getImageLoader ()
+    {
+        if (imageLoader == null) {
+            imageLoader = ImageLoading.getLoader(path);
+        }
+
+        return imageLoader;
+    }
+
     //--------------//
     // getLeastStep //
     //--------------//
@@ -2221,6 +2505,25 @@ public class Book
         }
     }
 
+    //------------------//
+    // closeSheetFolder //
+    //------------------//
+    /**
+     * Close the file system of the provided sheet folder, if it is the book file system.
+     *
+     * @param sheetFolder the sheet folder, as returned by {@link #openSheetFolder(int, String)}
+     * @throws IOException if anything goes wrong
+     */
+    public static void closeSheetFolder (Path sheetFolder)
+            throws IOException
+    {
+        final FileSystem fileSystem = sheetFolder.getFileSystem();
+
+        if (fileSystem != FileSystems.getDefault()) {
+            fileSystem.close();
+        }
+    }
+
     //-----//
     // ids //
     //-----//
@@ -2266,6 +2569,9 @@ public class Book
             logger.info("Loading book {}", bookPath);
             watch.start("book");
 
+            // Sheets left aside by an interrupted session?
+            BookSidecar.consolidate(bookPath);
+
             // Open book file
             Path rootPath = ZipFileSystem.open(bookPath);
 
@@ -2424,7 +2730,11 @@ public class Book
 
         private final Constant.Boolean processAllStubsInParallel = new Constant.Boolean(
                 false,
-                "Should we process all stubs of a book in parallel? (beware of many stubs)");
+                "Should we process stubs of a book in parallel? (bounded in batch)");
+
+        private final Constant.Boolean anticipateEarlySteps = new Constant.Boolean(
+                true,
+                "In batch, should we load next stub while current stub is being processed?");
 
         private final Constant.Boolean checkBookVersion = new Constant.Boolean(
                 true,
@@ -0,0 +1,284 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                                     B o o k S i d e c a r                                      //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.sheet;
+
+import static org.audiveris.omr.sheet.Sheet.INTERNALS_RADIX;
+import org.audiveris.omr.util.FileUtil;
+import org.audiveris.omr.util.ZipFileSystem;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.nio.file.attribute.FileTime;
+
+/**
+ * Class {@code BookSidecar} handles the folder where sheet internals are stored aside
+ * from the book file, until they get consolidated into the book file.
+ * <p>
+ * Storing a sheet directly into the (zipped) book file requires to open and close the book file
+ * system, and closing a zip file system rewrites the whole archive.
+ * Doing so at each sheet swap would make the saving of a book quadratic in its number of sheets,
+ * and would serialize all sheet workers on book lock.
+ * <p>
+ * Instead, each sheet is stored in its own folder within a sidecar folder, located next to the
+ * book file and named after it (e.g. "foo.omr.sheets/sheet#3/"), so that sheets can be stored
+ * independently of each other.
+ * The sidecar content, which overrides the book file content, is merged into the book file on
+ * next book store and then deleted.
+ * A sidecar left over by an interrupted session gets merged when the book is loaded again,
+ * unless it is orphan (no book file) or stale (older than book file), in which case it is
+ * discarded.
+ *
+ * @author Hervé Bitteur
+ */
+public abstract class BookSidecar
+{
+
+    private static final Logger logger = LoggerFactory.getLogger(BookSidecar.class);
+
+    /** Suffix appended to book file name for its sidecar folder: {@value}. */
+    public static final String SIDECAR_SUFFIX = ".sheets";
+
+    /** Not meant to be instantiated. */
+    private BookSidecar ()
+    {
+    }
+
+    //-------------//
+    // consolidate //
+    //-------------//
+    /**
+     * Merge the sidecar content, if any, into the book file and delete the sidecar.
+     * <p>
+     * A sidecar with no book file, or older than book file, is deleted without being merged.
+     *
+     * @param bookPath path to book file
+     * @return true if book file was actually written
+     * @throws IOException if anything goes wrong
+     */
+    public static boolean consolidate (Path bookPath)
+            throws IOException
+    {
+        if (!exists(bookPath)) {
+            return false;
+        }
+
+        if (!Files.exists(bookPath)) {
+            logger.info("Discarding orphan sheets in {}", getFolder(bookPath));
+            delete(bookPath);
+
+            return false;
+        }
+
+        if (isStale(bookPath)) {
+            logger.warn("Discarding sheets in {} older than {}", getFolder(bookPath), bookPath);
+            delete(bookPath);
+
+            return false;
+        }
+
+        final Path root = ZipFileSystem.open(bookPath);
+
+        try {
+            merge(bookPath, root);
+        } finally {
+            root.getFileSystem().close();
+        }
+
+        delete(bookPath);
+        logger.info("Consolidated sheets into {}", bookPath);
+
+        return true;
+    }
+
+    //--------//
+    // delete //
+    //--------//
+    /**
+     * Delete the sidecar folder, if any.
+     *
+     * @param bookPath path to book file
+     * @throws IOException if anything goes wrong
+     */
+    public static void delete (Path bookPath)
+            throws IOException
+    {
+        if (exists(bookPath)) {
+            FileUtil.deleteDirectory(getFolder(bookPath));
+        }
+    }
+
+    //--------//
+    // exists //
+    //--------//
+    /**
+     * Report whether a sidecar folder exists for the provided book file.
+     *
+     * @param bookPath path to book file
+     * @return true if so
+     */
+    public static boolean exists (Path bookPath)
+    {
+        return Files.isDirectory(getFolder(bookPath));
+    }
+
+    //-----------//
+    // getFolder //
+    //-----------//
+    /**
+     * Report the sidecar folder for the provided book file.
+     *
+     * @param bookPath path to book file
+     * @return path to sidecar folder (which may not exist)
+     */
+    public static Path getFolder (Path bookPath)
+    {
+        return bookPath.resolveSibling(bookPath.getFileName() + SIDECAR_SUFFIX);
+    }
+
+    //----------------//
+    // getSheetFolder //
+    //----------------//
+    /**
+     * Report the sidecar folder for the provided sheet.
+     *
+     * @param bookPath path to book file
+     * @param number   sheet number (1-based) within the book
+     * @return path to sheet sidecar folder (which may not exist)
+     */
+    public static Path getSheetFolder (Path bookPath,
+                                       int number)
+    {
+        return getFolder(bookPath).resolve(INTERNALS_RADIX + number);
+    }
+
+    //---------//
+    // isStale //
+    //---------//
+    /**
+     * Report whether the sidecar content is older than the existing book file, meaning that
+     * the book file was written since and the sidecar must not override it.
+     *
+     * @param bookPath path to book file
+     * @return true if some book file is more recent than any sidecar file
+     * @throws IOException if anything goes wrong
+     */
+    public static boolean isStale (Path bookPath)
+            throws IOException
+    {
+        if (!exists(bookPath) || !Files.exists(bookPath)) {
+            return false;
+        }
+
+        final FileTime bookTime = Files.getLastModifiedTime(bookPath);
+        final FileTime[] latest = new FileTime[]{FileTime.fromMillis(0)};
+
+        Files.walkFileTree(getFolder(bookPath), new SimpleFileVisitor<Path>()
+                   {
+                       @Override
+                       public FileVisitResult visitFile (Path file,
+                                                         BasicFileAttributes attrs)
+                       {
+                           if (attrs.lastModifiedTime().compareTo(latest[0]) > 0) {
+                               latest[0] = attrs.lastModifiedTime();
+                           }
+
+                           return FileVisitResult.CONTINUE;
+                       }
+                   });
+
+        return latest[0].compareTo(bookTime) < 0;
+    }
+
+    //-------//
+    // merge //
+    //-------//
+    /**
+     * Copy the whole sidecar content, if any, into the provided book file system, replacing
+     * any existing entry.
+     *
+     * @param bookPath path to book file
+     * @param root     root of (opened) book file system
+     * @return true if some content was merged
+     * @throws IOException if anything goes wrong
+     */
+    public static boolean merge (Path bookPath,
+                                 final Path root)
+            throws IOException
+    {
+        if (!exists(bookPath)) {
+            return false;
+        }
+
+        final Path folder = getFolder(bookPath);
+
+        Files.walkFileTree(folder, new SimpleFileVisitor<Path>()
+                   {
+                       @Override
+                       public FileVisitResult preVisitDirectory (Path dir,
+                                                                 BasicFileAttributes attrs)
+                               throws IOException
+                       {
+                           Files.createDirectories(target(dir));
+
+                           return FileVisitResult.CONTINUE;
+                       }
+
+                       @Override
+                       public FileVisitResult visitFile (Path file,
+                                                         BasicFileAttributes attrs)
+                               throws IOException
+                       {
+                           Files.copy(file, target(file), StandardCopyOption.REPLACE_EXISTING);
+                           logger.debug("Merged {}", file);
+
+                           return FileVisitResult.CONTINUE;
+                       }
+
+                       /**
+                        * Map a sidecar path to book file system, name by name, since the two
+                        * file systems are of different providers.
+                        */
+                       private Path target (Path path)
+                       {
+                           Path target = root;
+
+                           for (Path name : folder.relativize(path)) {
+                               if (!name.toString().isEmpty()) {
+                                   target = target.resolve(name.toString());
+                               }
+                           }
+
+                           return target;
+                       }
+                   });
+
+        return true;
+    }
+}
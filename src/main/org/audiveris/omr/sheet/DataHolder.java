@@ -114,8 +114,8 @@ public class DataHolder<T>
                     Unmarshaller um = jaxbContext.createUnmarshaller();
 
                     // Open book file system
-                    Path dataFile = book.openSheetFolder(sheet.getStub().getNumber()).resolve(
-                            pathString);
+                    Path dataFile = book.openSheetFolder(sheet.getStub().getNumber(), pathString)
+                            .resolve(pathString);
                     logger.debug("path: {}", dataFile);
 
                     try (InputStream is = Files.newInputStream(dataFile, StandardOpenOption.READ)) {
@@ -123,7 +123,7 @@ public class DataHolder<T>
                     }
 
                     logger.info("Loaded {}", dataFile);
-                    dataFile.getFileSystem().close(); // Close book file system
+                    Book.closeSheetFolder(dataFile); // Close book file system
                 }
             } catch (IOException |
                      JAXBException ex) {
@@ -66,13 +66,11 @@ import java.util.Map.Entry;
 import java.util.concurrent.ConcurrentSkipListMap;
 
 import javax.media.jai.JAI;
-import javax.xml.bind.JAXBException;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
 import javax.xml.bind.annotation.XmlAttribute;
 import javax.xml.bind.annotation.XmlElement;
 import javax.xml.bind.annotation.XmlRootElement;
-import javax.xml.stream.XMLStreamException;
 
 /**
  * Class {@code Picture} starts from the original BufferedImage to provide all {@link
@@ -759,15 +757,22 @@ public class Picture
     {
         // Each handled table
         for (Entry<TableKey, RunTableHolder> entry : tables.entrySet()) {
-            final TableKey key = entry.getKey();
-            final RunTableHolder holder = entry.getValue();
-            final Path tablepath = sheetFolder.resolve(key + ".xml");
+            RunTableHolder holder = entry.getValue();
+
+            if (holder.hasData() && holder.isModified() && holder.isLegacy()) {
+                // Table from an old book, to be now written in binary format under binary name
+                final RunTableHolder binHolder = new RunTableHolder(entry.getKey());
+                binHolder.setData(holder.getData(sheet.getStub()), true);
+                entry.setValue(holder = binHolder);
+            }
+
+            final Path tablepath = sheetFolder.resolve(holder.getPathString());
 
             if (!holder.hasData()) {
                 if (oldSheetFolder != null) {
                     try {
                         // Copy from old book file to new
-                        Path oldTablePath = oldSheetFolder.resolve(key + ".xml");
+                        Path oldTablePath = oldSheetFolder.resolve(holder.getPathString());
                         Files.copy(oldTablePath, tablepath);
                         logger.info("Copied {}", tablepath);
                     } catch (IOException ex) {
@@ -778,13 +783,14 @@ public class Picture
                 try {
                     Files.deleteIfExists(tablepath);
 
+                    // Remove any obsolete XML version of the table
+                    Files.deleteIfExists(sheetFolder.resolve(holder.getXmlPathString()));
+
                     RunTable table = holder.getData(sheet.getStub());
-                    table.marshal(tablepath);
+                    table.store(tablepath);
                     holder.setModified(false);
                     logger.info("Stored {}", tablepath);
-                } catch (IOException |
-                         JAXBException |
-                         XMLStreamException ex) {
+                } catch (IOException ex) {
                     logger.warn("Error in picture.store " + ex, ex);
                 }
             }
@@ -22,12 +22,14 @@
 package org.audiveris.omr.sheet;
 
 import org.audiveris.omr.run.RunTable;
+import org.audiveris.omr.run.RunTableCodec;
 import org.audiveris.omr.sheet.Picture.TableKey;
 
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.IOException;
+import java.nio.file.Files;
 import java.nio.file.Path;
 import javax.xml.bind.annotation.XmlAccessType;
 import javax.xml.bind.annotation.XmlAccessorType;
@@ -36,6 +38,9 @@ import javax.xml.bind.annotation.XmlAttribute;
 /**
  * Class {@code RunTableHolder} holds the reference to a run table, at least the path
  * to its marshalled data on disk, and (on demand) the unmarshalled run table itself.
+ * <p>
+ * New tables are stored in compact binary format (.bin), while tables of old books may still
+ * be found in XML format (.xml).
  *
  * @author Hervé Bitteur
  */
@@ -62,7 +67,7 @@ public class RunTableHolder
      */
     public RunTableHolder (TableKey key)
     {
-        pathString = key + ".xml";
+        pathString = key + RunTableCodec.BINARY_EXTENSION;
     }
 
     /** No-arg constructor needed for JAXB. */
@@ -88,11 +93,21 @@ public class RunTableHolder
 
                 if (data == null) {
                     // Open book file system
-                    Path dataFolder = stub.getBook().openSheetFolder(stub.getNumber());
+                    Path dataFolder = stub.getBook().openSheetFolder(stub.getNumber(), pathString);
                     Path dataFile = dataFolder.resolve(pathString);
+
+                    if (!Files.exists(dataFile)) {
+                        // Perhaps an old book, with table in XML format
+                        Path xmlFile = dataFolder.resolve(getXmlPathString());
+
+                        if (Files.exists(xmlFile)) {
+                            dataFile = xmlFile;
+                        }
+                    }
+
                     logger.debug("path to file: {}", dataFile);
                     data = RunTable.unmarshal(dataFile);
-                    dataFile.getFileSystem().close(); // Close book file system
+                    Book.closeSheetFolder(dataFile); // Close book file system
                     modified = false;
                     logger.debug("Loaded {}", dataFile);
                 }
@@ -106,6 +121,19 @@ public class RunTableHolder
         return data;
     }
 
+    //---------------//
+    // getPathString //
+    //---------------//
+    /**
+     * Report the path to data file, relative to sheet folder.
+     *
+     * @return the relative path string
+     */
+    public String getPathString ()
+    {
+        return pathString;
+    }
+
     //---------//
     // hasData //
     //---------//
@@ -119,6 +147,19 @@ public class RunTableHolder
         return data != null;
     }
 
+    //----------//
+    // isLegacy //
+    //----------//
+    /**
+     * Tell whether data file is a legacy one, in XML format.
+     *
+     * @return true if path has XML extension
+     */
+    public boolean isLegacy ()
+    {
+        return pathString.endsWith(RunTableCodec.XML_EXTENSION);
+    }
+
     //------------//
     // isModified //
     //------------//
@@ -161,6 +202,22 @@ public class RunTableHolder
         setModified(modified);
     }
 
+    //------------------//
+    // getXmlPathString //
+    //------------------//
+    /**
+     * Report the legacy path to data file in XML format, relative to sheet folder.
+     *
+     * @return the relative path string, with XML extension
+     */
+    public String getXmlPathString ()
+    {
+        final int dot = pathString.lastIndexOf('.');
+        final String radix = (dot != -1) ? pathString.substring(0, dot) : pathString;
+
+        return radix + RunTableCodec.XML_EXTENSION;
+    }
+
     //----------//
     // toString //
     //----------//
@@ -0,0 +1,294 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                                   S h e e t S c h e d u l e r                                  //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.sheet;
+
+import net.jcip.annotations.ThreadSafe;
+
+import org.audiveris.omr.constant.Constant;
+import org.audiveris.omr.constant.ConstantSet;
+import org.audiveris.omr.step.Step;
+import org.audiveris.omr.util.Memory;
+import org.audiveris.omr.util.OmrExecutors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Class {@code SheetScheduler} admits sheet processing according to memory and CPU
+ * availability.
+ * <p>
+ * Before a sheet is processed, its memory need is estimated as its image size (in pixels)
+ * multiplied by a step profile (in bytes per pixel).
+ * A sheet is admitted only if the count of running sheets is below the concurrency cap and if
+ * the sum of estimates of running sheets, including this one, fits in the memory budget.
+ * The budget is a ratio of the maximum heap, minus the occupied heap not attributable to running
+ * sheets, re-evaluated at each admission check.
+ * Otherwise the caller waits until some running sheet is released, that is processed and (if
+ * successful) swapped out.
+ * <p>
+ * A sheet is always admitted when no other sheet is running, so that processing can progress
+ * whatever the estimate.
+ * <p>
+ * The scheduler is meant for batch mode only, since only there are sheets swapped out as soon as
+ * processed.
+ * It admits the sheets of a book, whether they are processed in parallel or one after the other.
+ * There is a single scheduler in the application, shared by all books, so that books processed in
+ * parallel in batch (see {@code runBatchTasksInParallel}) remain bounded as well.
+ *
+ * @author Hervé Bitteur
+ */
+@ThreadSafe
+public class SheetScheduler
+{
+
+    private static final Constants constants = new Constants();
+
+    private static final Logger logger = LoggerFactory.getLogger(SheetScheduler.class);
+
+    /** Lock for all scheduling data. */
+    private final ReentrantLock lock = new ReentrantLock();
+
+    /** Signalled whenever a sheet is released. */
+    private final Condition released = lock.newCondition();
+
+    /** Maximum number of sheets running concurrently. */
+    private final int cap;
+
+    /** Number of sheets currently running. */
+    private int running;
+
+    /** Sum of estimates of running sheets, in bytes. */
+    private long reserved;
+
+    /** Largest image size met so far, in pixels. */
+    private long largestPixels = constants.defaultPixels.getValue();
+
+    /**
+     * Creates the {@code SheetScheduler} instance.
+     */
+    private SheetScheduler ()
+    {
+        final int maxSheets = constants.maxSheets.getValue();
+        cap = (maxSheets > 0) ? maxSheets : OmrExecutors.getNumberOfCpus();
+
+        logger.debug("SheetScheduler cap:{}", cap);
+    }
+
+    //-------//
+    // admit //
+    //-------//
+    /**
+     * Wait until the provided sheet stub can be processed towards the target step.
+     *
+     * @param stub   the sheet stub to process
+     * @param target the targeted step
+     * @return the amount reserved, to be provided back to {@link #release(long)}
+     * @throws InterruptedException if interrupted while waiting
+     */
+    public long admit (SheetStub stub,
+                       Step target)
+            throws InterruptedException
+    {
+        final long estimate = estimate(stub, target);
+
+        lock.lockInterruptibly();
+
+        try {
+            while ((running > 0) && ((running >= cap) || ((reserved + estimate) > getBudget()))) {
+                logger.debug("{} waiting, running:{} reserved:{}", stub, running, reserved);
+                released.await();
+            }
+
+            running++;
+            reserved += estimate;
+
+            return estimate;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //---------//
+    // measure //
+    //---------//
+    /**
+     * Record the actual image size of the provided stub, if its sheet is available,
+     * to refine estimates of next sheets.
+     *
+     * @param stub the sheet stub just processed
+     */
+    public void measure (SheetStub stub)
+    {
+        if (!stub.hasSheet()) {
+            return;
+        }
+
+        final Picture picture = stub.getSheet().getPicture();
+
+        if (picture != null) {
+            final long pixels = (long) picture.getWidth() * picture.getHeight();
+
+            lock.lock();
+
+            try {
+                largestPixels = Math.max(largestPixels, pixels);
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    //---------//
+    // release //
+    //---------//
+    /**
+     * Notify that a sheet, previously admitted, is no longer running.
+     *
+     * @param amount the amount returned by {@link #admit}
+     */
+    public void release (long amount)
+    {
+        lock.lock();
+
+        try {
+            running--;
+            reserved -= amount;
+            released.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    //-------------//
+    // getInstance //
+    //-------------//
+    /**
+     * Report the single instance of SheetScheduler in the application.
+     *
+     * @return the instance
+     */
+    public static SheetScheduler getInstance ()
+    {
+        return LazySingleton.INSTANCE;
+    }
+
+    //----------//
+    // estimate //
+    //----------//
+    /**
+     * Estimate the memory needed to process the provided stub towards target step.
+     *
+     * @param stub   the sheet stub
+     * @param target the targeted step
+     * @return estimated bytes
+     */
+    private long estimate (SheetStub stub,
+                           Step target)
+    {
+        long pixels;
+
+        lock.lock();
+
+        try {
+            pixels = largestPixels;
+        } finally {
+            lock.unlock();
+        }
+
+        if (stub.hasSheet()) {
+            final Picture picture = stub.getSheet().getPicture();
+
+            if (picture != null) {
+                pixels = (long) picture.getWidth() * picture.getHeight();
+            }
+        }
+
+        final int bytesPerPixel = (target.compareTo(Step.GRID) < 0)
+                ? constants.earlyBytesPerPixel.getValue() : constants.fullBytesPerPixel.getValue();
+
+        return pixels * bytesPerPixel;
+    }
+
+    //-----------//
+    // getBudget //
+    //-----------//
+    /**
+     * Report the current memory budget for all running sheets.
+     * <p>
+     * Occupied heap already includes the memory used by running sheets, which is accounted for
+     * by their reserved estimates, hence only the remaining part is deducted.
+     * Must be called with lock held.
+     *
+     * @return budget in bytes
+     */
+    private long getBudget ()
+    {
+        final long max = Runtime.getRuntime().maxMemory();
+        final long others = Math.max(0, Memory.occupied() - reserved);
+
+        return (long) (constants.heapRatio.getValue() * max) - others;
+    }
+
+    //-----------//
+    // Constants //
+    //-----------//
+    private static class Constants
+            extends ConstantSet
+    {
+
+        private final Constant.Integer maxSheets = new Constant.Integer(
+                "Sheets",
+                0,
+                "Maximum number of sheets processed concurrently (0 for number of CPUs)");
+
+        private final Constant.Ratio heapRatio = new Constant.Ratio(
+                0.8,
+                "Ratio of maximum heap granted to sheets processing");
+
+        private final Constant.Integer defaultPixels = new Constant.Integer(
+                "Pixels",
+                2480 * 3508,
+                "Assumed image size when not yet known (A4 at 300 DPI)");
+
+        private final Constant.Integer earlyBytesPerPixel = new Constant.Integer(
+                "Bytes",
+                8,
+                "Estimated memory per image pixel, for steps before GRID");
+
+        private final Constant.Integer fullBytesPerPixel = new Constant.Integer(
+                "Bytes",
+                24,
+                "Estimated memory per image pixel, for GRID step and beyond");
+    }
+
+    //---------------//
+    // LazySingleton //
+    //---------------//
+    private static class LazySingleton
+    {
+
+        static final SheetScheduler INSTANCE = new SheetScheduler();
+    }
+}
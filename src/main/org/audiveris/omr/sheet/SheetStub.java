@@ -32,12 +32,12 @@ import org.audiveris.omr.log.LogUtil;
 import org.audiveris.omr.run.RunTable;
 import org.audiveris.omr.score.PageRef;
 import org.audiveris.omr.sheet.Picture.TableKey;
-import static org.audiveris.omr.sheet.Sheet.INTERNALS_RADIX;
 import org.audiveris.omr.sheet.ui.SheetAssembly;
 import org.audiveris.omr.sheet.ui.StubsController;
 import org.audiveris.omr.step.ProcessingCancellationException;
 import org.audiveris.omr.step.Step;
 import org.audiveris.omr.step.StepException;
+import org.audiveris.omr.step.StepStages;
 import org.audiveris.omr.step.ui.StepMonitoring;
 import org.audiveris.omr.ui.Colors;
 import org.audiveris.omr.util.Jaxb;
@@ -45,7 +45,6 @@ import org.audiveris.omr.util.Memory;
 import org.audiveris.omr.util.Navigable;
 import org.audiveris.omr.util.OmrExecutors;
 import org.audiveris.omr.util.StopWatch;
-import org.audiveris.omr.util.ZipFileSystem;
 import org.audiveris.omr.util.param.Param;
 import org.audiveris.omr.util.param.StringParam;
 
@@ -67,6 +66,7 @@ import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -612,8 +612,10 @@ public class SheetStub
                             // Open the book file system
                             try {
                                 book.getLock().lock();
-                                sheetFile = book.openSheetFolder(number).resolve(
-                                        Sheet.getSheetFileName(number));
+
+                                final String fileName = Sheet.getSheetFileName(number);
+                                sheetFile = book.openSheetFolder(number, fileName).resolve(
+                                        fileName);
 
                                 try (InputStream is = Files.newInputStream(
                                         sheetFile,
@@ -621,7 +623,7 @@ public class SheetStub
                                     this.sheet = sh = Sheet.unmarshal(is);
                                 }
 
-                                sheetFile.getFileSystem().close();
+                                Book.closeSheetFolder(sheetFile);
                             } finally {
                                 book.getLock().unlock();
                             }
@@ -935,27 +937,39 @@ public class SheetStub
     // storeSheet //
     //------------//
     /**
-     * Store sheet material into book.
+     * Store sheet material aside from book file.
+     * <p>
+     * Sheet material is written into the sheet folder of book sidecar, independently of the
+     * other sheets, and will be merged into book file on next book store.
+     * Only the book info (book.xml), also written in sidecar, requires the book lock.
      *
      * @throws Exception if storing fails
+     * @see BookSidecar
      */
     public void storeSheet ()
             throws Exception
     {
         if (modified) {
-            final Lock lock = book.getLock();
-            lock.lock();
+            final Path bookPath = BookManager.getDefaultSavePath(book);
+            book.prepareSidecar(bookPath);
 
-            try {
-                Path bookPath = BookManager.getDefaultSavePath(book);
-                Path root = ZipFileSystem.open(bookPath);
-                book.storeBookInfo(root); // Book info (book.xml)
+            final Lock sidecarReadLock = book.getSidecarLock().readLock();
+            sidecarReadLock.lock();
 
-                Path sheetFolder = root.resolve(INTERNALS_RADIX + getNumber());
+            try {
+                final Path sheetFolder = BookSidecar.getSheetFolder(bookPath, getNumber());
                 sheet.store(sheetFolder, null);
-                root.getFileSystem().close();
+
+                final Lock lock = book.getLock();
+                lock.lock();
+
+                try {
+                    book.storeBookInfo(BookSidecar.getFolder(bookPath)); // Book info (book.xml)
+                } finally {
+                    lock.unlock();
+                }
             } finally {
-                lock.unlock();
+                sidecarReadLock.unlock();
             }
         }
     }
@@ -1068,6 +1082,11 @@ public class SheetStub
      * Do just one specified step, synchronously, with display of related UI if any.
      * <p>
      * Step duration is guarded by a timeout, so that processing cannot get blocked infinitely.
+     * <p>
+     * The step is performed only once a worker slot is available in its stage, see
+     * {@link StepStages}.
+     * The slot is released by the step task itself, so that a step abandoned on timeout keeps
+     * its slot until it actually completes.
      *
      * @param step the step to perform
      * @throws Exception
@@ -1077,6 +1096,10 @@ public class SheetStub
     {
         final int timeout = Main.getSheetStepTimeOut();
         Future<Void> future = null;
+        boolean entered = false;
+
+        // Set by whoever takes care of stage exit: the step task if it starts, or this method
+        final AtomicBoolean started = new AtomicBoolean(false);
 
         try {
             // Make sure sheet is available
@@ -1084,6 +1107,10 @@ public class SheetStub
                 getSheet();
             }
 
+            // Wait for a worker slot in this step stage
+            StepStages.enter(step);
+            entered = true;
+
             // Implement a timeout for this step on the stub
             future = OmrExecutors.getCachedLowExecutor().submit(new Callable<Void>()
             {
@@ -1091,6 +1118,10 @@ public class SheetStub
                 public Void call ()
                         throws Exception
                 {
+                    if (!started.compareAndSet(false, true)) {
+                        return null; // Abandoned before it could start
+                    }
+
                     LogUtil.start(SheetStub.this);
 
                     try {
@@ -1101,6 +1132,7 @@ public class SheetStub
                         step.doit(sheet); // Standard processing on an existing sheet
                         done(step); // Full completion
                     } finally {
+                        StepStages.exit(step);
                         LogUtil.stopStub();
                     }
 
@@ -1125,6 +1157,11 @@ public class SheetStub
 
             throw new ProcessingCancellationException(tex);
         } finally {
+            // Release stage slot here only if step task never started (and never will)
+            if (entered && started.compareAndSet(false, true)) {
+                StepStages.exit(step);
+            }
+
             setCurrentStep(null);
             StepMonitoring.notifyStep(this, step); // Stop monitoring
         }
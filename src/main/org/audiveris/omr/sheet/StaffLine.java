@@ -48,6 +48,11 @@ import javax.xml.bind.annotation.adapters.XmlJavaTypeAdapter;
 
 /**
  * Class {@code StaffLine} represents a simple final staff line.
+ * <p>
+ * Since a final line no longer changes, the line ordinate is computed once for every integer
+ * abscissa within line range, so that {@link #yAt(int)} becomes a mere table read.
+ * {@link #yAt(double)} reads the same table for an integer abscissa, and still evaluates the
+ * spline for any other abscissa.
  *
  * @author Hervé Bitteur
  */
@@ -86,6 +91,9 @@ public class StaffLine
     /** Bounding box. */
     protected Rectangle bounds;
 
+    /** Ordinate table, lazily built. */
+    private volatile OrdinateTable table;
+
     /**
      * Creates a new {@code StaffLine} object.
      *
@@ -225,6 +233,12 @@ public class StaffLine
     @Override
     public int yAt (int x)
     {
+        final OrdinateTable t = getTable();
+
+        if (t.contains(x)) {
+            return (int) Math.rint(t.ys[x - t.xMin]);
+        }
+
         return (int) Math.rint(yAt((double) x));
     }
 
@@ -233,6 +247,30 @@ public class StaffLine
     //-----//
     @Override
     public double yAt (double x)
+    {
+        final int i = (int) x;
+
+        if (i == x) {
+            final OrdinateTable t = getTable();
+
+            if (t.contains(i)) {
+                return t.ys[i - t.xMin];
+            }
+        }
+
+        return computeY(x);
+    }
+
+    //----------//
+    // computeY //
+    //----------//
+    /**
+     * Compute line ordinate at provided abscissa, using spline within line range.
+     *
+     * @param x provided abscissa
+     * @return ordinate value
+     */
+    private double computeY (double x)
     {
         Point2D start = getEndPoint(LEFT);
         Point2D stop = getEndPoint(RIGHT);
@@ -247,6 +285,56 @@ public class StaffLine
         }
     }
 
+    //----------//
+    // getTable //
+    //----------//
+    private OrdinateTable getTable ()
+    {
+        OrdinateTable t = table;
+
+        if (t == null) {
+            final int xMin = (int) Math.ceil(points.get(0).getX());
+            final int xMax = (int) Math.floor(points.get(points.size() - 1).getX());
+            final double[] ys = new double[Math.max(0, xMax - xMin + 1)];
+
+            for (int i = 0; i < ys.length; i++) {
+                ys[i] = computeY(xMin + i);
+            }
+
+            table = t = new OrdinateTable(xMin, ys);
+        }
+
+        return t;
+    }
+
+    //---------------//
+    // OrdinateTable //
+    //---------------//
+    /**
+     * Line ordinate for every integer abscissa within line range.
+     */
+    private static class OrdinateTable
+    {
+
+        /** First abscissa. */
+        final int xMin;
+
+        /** Ordinate values, starting at xMin. */
+        final double[] ys;
+
+        OrdinateTable (int xMin,
+                       double[] ys)
+        {
+            this.xMin = xMin;
+            this.ys = ys;
+        }
+
+        boolean contains (int x)
+        {
+            return (x >= xMin) && ((x - xMin) < ys.length);
+        }
+    }
+
     //---------//
     // Adapter //
     //---------//
@@ -42,12 +42,15 @@ import org.audiveris.omr.sheet.StaffManager;
 import org.audiveris.omr.sheet.SystemInfo;
 import org.audiveris.omr.sheet.SystemManager;
 import static org.audiveris.omr.sheet.grid.StaffPeak.Attribute.BRACE;
+import org.audiveris.omr.log.LogUtil;
+import org.audiveris.omr.step.ProcessingCancellationException;
 import org.audiveris.omr.step.StepException;
 import org.audiveris.omr.util.Dumping;
 import org.audiveris.omr.util.HorizontalSide;
 import static org.audiveris.omr.util.HorizontalSide.LEFT;
 import static org.audiveris.omr.util.HorizontalSide.RIGHT;
 import org.audiveris.omr.util.Navigable;
+import org.audiveris.omr.util.OmrExecutors;
 import org.audiveris.omr.util.StopWatch;
 import org.audiveris.omr.util.VerticalSide;
 import static org.audiveris.omr.util.VerticalSide.BOTTOM;
@@ -74,6 +77,9 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.SortedSet;
 import java.util.TreeSet;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
 
 /**
  * Class {@code PeakGraph} handles the graph of all StaffPeak instances in a sheet,
@@ -803,14 +809,61 @@ public class PeakGraph
     //--------------//
     /**
      * Use individual staff projections to retrieve bar peaks.
+     * <p>
+     * Staff analyses are independent of one another, hence they are run in parallel when
+     * allowed, the resulting peaks being inserted into the graph afterwards in staff order.
      */
     private void findBarPeaks ()
     {
-        // Analysis staff per staff
+        // One projector per staff
         for (Staff staff : staffManager.getStaves()) {
-            StaffProjector projector = new StaffProjector(sheet, staff, this);
-            projectors.add(projector);
-            projector.process();
+            projectors.add(new StaffProjector(sheet, staff, this));
+        }
+
+        // Analysis staff per staff
+        final boolean parallel = (OmrExecutors.defaultParallelism.getValue() == true)
+                                 && (projectors.size() > 1);
+
+        try {
+            if (parallel) {
+                final List<Callable<Void>> tasks = new ArrayList<>(projectors.size());
+
+                for (final StaffProjector projector : projectors) {
+                    tasks.add(new Callable<Void>()
+                    {
+                        @Override
+                        public Void call ()
+                                throws Exception
+                        {
+                            try {
+                                LogUtil.start(sheet.getStub());
+                                projector.process();
+                            } finally {
+                                LogUtil.stopStub();
+                            }
+
+                            return null;
+                        }
+                    });
+                }
+
+                for (Future<Void> future : OmrExecutors.getHighExecutor().invokeAll(tasks)) {
+                    future.get();
+                }
+            } else {
+                for (StaffProjector projector : projectors) {
+                    projector.process();
+                }
+            }
+        } catch (InterruptedException ex) {
+            logger.warn("findBarPeaks got interrupted");
+            throw new ProcessingCancellationException(ex);
+        } catch (ExecutionException ex) {
+            logger.warn("Exception raised in findBarPeaks", ex.getCause());
+            throw new RuntimeException(ex.getCause());
+        }
+
+        for (StaffProjector projector : projectors) {
             Graphs.addAllVertices(this, projector.getPeaks());
         }
     }
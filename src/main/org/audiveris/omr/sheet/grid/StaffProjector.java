@@ -29,6 +29,7 @@ import org.audiveris.omr.math.AreaUtil;
 import org.audiveris.omr.math.AreaUtil.CoreData;
 import org.audiveris.omr.math.GeoPath;
 import org.audiveris.omr.math.Projection;
+import org.audiveris.omr.run.RunTable;
 import org.audiveris.omr.sheet.Picture;
 import org.audiveris.omr.sheet.Scale;
 import org.audiveris.omr.sheet.Scale.InterlineScale;
@@ -147,6 +148,9 @@ public class StaffProjector
     /** Pixel source. */
     private final ByteProcessor pixelFilter;
 
+    /** Table of vertical binary runs, source for projection. */
+    private final RunTable vertTable;
+
     /** Sequence of all blank regions found, whatever their width. */
     private final List<Blank> allBlanks = new ArrayList<>();
 
@@ -185,6 +189,7 @@ public class StaffProjector
 
         Picture picture = sheet.getPicture();
         pixelFilter = picture.getSource(Picture.SourceKey.BINARY);
+        vertTable = picture.getTable(Picture.TableKey.BINARY);
 
         scale = sheet.getScale();
         params = new Parameters(scale, staff.getSpecificInterline());
@@ -460,6 +465,10 @@ public class StaffProjector
     //---------//
     /**
      * Process the staff projection on x-axis to retrieve peaks that may represent bars.
+     * <p>
+     * This method touches only data of this staff, hence projectors of different staves can
+     * be processed in parallel.
+     * Peaks are not inserted into peak graph, this is left to the caller.
      */
     public void process ()
     {
@@ -733,6 +742,8 @@ public class StaffProjector
     /**
      * Compute, for each abscissa value, the foreground pixels cumulated between
      * first line and last line of staff.
+     * <p>
+     * Counts are read from the vertical runs of the binary table, rather than pixel by pixel.
      */
     private void computeProjection ()
     {
@@ -745,17 +756,10 @@ public class StaffProjector
         final int xMax = xClamp(staff.getAbscissa(RIGHT) + dx);
 
         for (int x = xMin; x <= xMax; x++) {
-            int yMin = firstLine.yAt(x);
-            int yMax = lastLine.yAt(x);
-            short count = 0;
-
-            for (int y = yMin; y <= yMax; y++) {
-                if (pixelFilter.get(x, y) == 0) {
-                    count++;
-                }
-            }
+            final int yMin = firstLine.yAt(x);
+            final int yMax = lastLine.yAt(x);
 
-            projection.increment(x, count);
+            projection.increment(x, vertTable.getForeCount(x, yMin, yMax));
         }
     }
 
@@ -987,7 +991,6 @@ public class StaffProjector
             } else if (start != -1) {
                 for (StaffPeak peak : browseRange(start, stop)) {
                     peaks.add(peak);
-                    peakGraph.addVertex(peak);
 
                     // Make sure peaks do not overlap
                     x = Math.max(x, peak.getStop());
@@ -1003,7 +1006,6 @@ public class StaffProjector
 
             if (peak != null) {
                 peaks.add(peak);
-                peakGraph.addVertex(peak);
             }
         }
 
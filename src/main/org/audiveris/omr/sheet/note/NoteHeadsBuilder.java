@@ -1053,10 +1053,21 @@ public class NoteHeadsBuilder
         //------//
         // eval //
         //------//
+        /**
+         * Evaluate a shape at provided location.
+         *
+         * @param shape       the shape to evaluate
+         * @param x           location abscissa
+         * @param y           location ordinate
+         * @param anchor      location WRT template
+         * @param maxDistance maximum distance of interest, beyond which evaluation may stop early
+         * @return the location with its distance (exact if not larger than maxDistance), or null
+         */
         private PixelDistance eval (Shape shape,
                                     int x,
                                     int y,
-                                    Anchor anchor)
+                                    Anchor anchor,
+                                    double maxDistance)
         {
             final ShapeDescriptor desc = catalog.getDescriptor(shape);
             final Rectangle symBox = desc.getSymbolBoundsAt(x, y, anchor);
@@ -1084,7 +1095,7 @@ public class NoteHeadsBuilder
             }
 
             // Then try (all variants for) the shape and keep the best dist
-            double dist = desc.evaluate(x, y, anchor, distances);
+            double dist = desc.evaluate(x, y, anchor, distances, maxDistance);
 
             if (useSeeds) {
                 seedsPerf.evals++;
@@ -1260,7 +1271,12 @@ public class NoteHeadsBuilder
 
                     for (int yOffset : yOffsets) {
                         final int y = y0 + yOffset;
-                        PixelDistance loc = eval(shape, x0, y, MIDDLE_LEFT);
+                        PixelDistance loc = eval(
+                                shape,
+                                x0,
+                                y,
+                                MIDDLE_LEFT,
+                                maxDistance(y == y0, bestLoc));
 
                         if ((loc != null) && (loc.d <= params.maxDistanceLow)) {
                             if ((bestLoc == null) || (bestLoc.d > loc.d)) {
@@ -1317,6 +1333,34 @@ public class NoteHeadsBuilder
             return inters;
         }
 
+        //-------------//
+        // maxDistance //
+        //-------------//
+        /**
+         * Report the maximum distance of interest for the next evaluation of a shape.
+         * <p>
+         * The very first location tried must be known to be really bad or not.
+         * Any other location is of interest only if acceptable and better than the best location
+         * found so far.
+         *
+         * @param first   true for the very first location tried
+         * @param bestLoc best location so far, perhaps null
+         * @return the distance beyond which evaluation can stop
+         */
+        private double maxDistance (boolean first,
+                                    PixelDistance bestLoc)
+        {
+            if (first) {
+                return params.reallyBadDistance;
+            }
+
+            if (bestLoc != null) {
+                return Math.min(params.maxDistanceLow, bestLoc.d);
+            }
+
+            return params.maxDistanceLow;
+        }
+
         //-------------//
         // lookupSeeds //
         //-------------//
@@ -1356,7 +1400,12 @@ public class NoteHeadsBuilder
 
                             for (int xOffset : xOffsets) {
                                 final int x = x0 + xOffset;
-                                PixelDistance loc = eval(shape, x, y, anchor);
+                                PixelDistance loc = eval(
+                                        shape,
+                                        x,
+                                        y,
+                                        anchor,
+                                        maxDistance((x == x0) && (y == y0), bestLoc));
 
                                 if ((loc != null) && (loc.d <= params.maxDistanceLow)) {
                                     if ((bestLoc == null) || (bestLoc.d > loc.d)) {
@@ -95,6 +95,9 @@ public class SymbolsBuilder
     /** Scale-dependent global constants. */
     private final Parameters params;
 
+    /** Glyphs waiting for batch evaluation. */
+    private final List<Glyph> pendings = new ArrayList<>();
+
     /**
      * Creates a new SymbolsBuilder object.
      *
@@ -129,9 +132,11 @@ public class SymbolsBuilder
      *       + cluster.decompose()                      // Decompose cluster into all subsets
      *       + FOREACH subset process(subset):
      *          - build compound glyph                  // Build one compound glyph per subset
-     *          - evaluateGlyph(compound)               // Run shape classifier on compound
-     *          - FOREACH acceptable evaluation
-     *             + symbolFactory.create(eval, glyph)  // Create inter(s) related to evaluation
+     *          - evaluateGlyph(compound)               // Queue compound for evaluation
+     * - evaluatePendings():                            // Evaluate queued glyphs by batch
+     *    + classifier.evaluate(batch)                  // Run shape classifier on batch
+     *    + FOREACH glyph, FOREACH acceptable evaluation
+     *       + symbolFactory.create(eval, glyph)        // Create inter(s) related to evaluation
      * </pre>
      *
      * @param optionalsMap the optional (weak) glyphs per system
@@ -168,64 +173,76 @@ public class SymbolsBuilder
     // evaluateGlyph //
     //---------------//
     /**
-     * Evaluate a provided glyph and create all acceptable inter instances.
+     * Queue a provided glyph for evaluation.
+     * <p>
+     * The pending glyphs are evaluated as soon as they reach batch size.
      *
      * @param glyph the glyph to evaluate
      */
     private void evaluateGlyph (Glyph glyph)
     {
-        if (glyph.getId() == 0) {
-            glyph = sheet.getGlyphIndex().registerOriginal(glyph);
+        pendings.add(glyph);
+
+        if (pendings.size() >= constants.batchSize.getValue()) {
+            evaluatePendings();
         }
+    }
+
+    //------------------//
+    // evaluatePendings //
+    //------------------//
+    /**
+     * Evaluate all pending glyphs at once and create all acceptable inter instances.
+     */
+    private void evaluatePendings ()
+    {
+        final List<Glyph> glyphs = new ArrayList<>(pendings.size());
+        final List<Staff> staves = new ArrayList<>(pendings.size());
+
+        for (Glyph glyph : pendings) {
+            if (glyph.getId() == 0) {
+                glyph = sheet.getGlyphIndex().registerOriginal(glyph);
+            }
 
-        logger.debug("evaluateGlyph on {}", glyph);
+            logger.debug("evaluateGlyph on {}", glyph);
 
-        if (glyph.isVip()) {
-            logger.info("VIP evaluateGlyph on {}", glyph);
+            if (glyph.isVip()) {
+                logger.info("VIP evaluateGlyph on {}", glyph);
+            }
+
+            final Point center = glyph.getCenter();
+            final Staff closestStaff = system.getClosestStaff(center); // Just an indication!
+
+            if (closestStaff != null) {
+                glyphs.add(glyph);
+                staves.add(closestStaff);
+            }
         }
 
-        final Point center = glyph.getCenter();
-        final Staff closestStaff = system.getClosestStaff(center); // Just an indication!
+        pendings.clear();
 
-        if (closestStaff == null) {
+        if (glyphs.isEmpty()) {
             return;
         }
 
         // TODO: checks should be run only AFTER both classifiers have been run
-        Evaluation[] evals = classifier.evaluate(
-                glyph,
+        final Evaluation[][] evalsArray = classifier.evaluate(
+                glyphs,
                 system,
                 2,
                 Grades.symbolMinGrade,
                 EnumSet.of(Classifier.Condition.CHECKED));
 
-        //        Evaluation[] evals2 = classifier2.evaluate(
-        //                glyph,
-        //                system,
-        //                2,
-        //                Grades.symbolMinGrade, // Not OK for deep classifier!
-        //                EnumSet.of(Classifier.Condition.CHECKED));
-        //
-        if (evals.length > 0) {
-            //            // Create one interpretation for each acceptable evaluation
-            //            for (Evaluation eval : evals) {
-            //                try {
-            //                    factory.create(eval, glyph, closestStaff);
-            //                } catch (Exception ex) {
-            //                    logger.warn("Error in glyph evaluation " + ex, ex);
-            //                }
-            //            }
-            //
-            Evaluation eval = evals[0];
-
-            ///if (evals2.length > 0 && eval.shape == evals2[0].shape) {
-            try {
-                factory.create(eval, glyph, closestStaff);
-            } catch (Exception ex) {
-                logger.warn("Error in glyph evaluation " + ex, ex);
-            }
+        for (int i = 0; i < evalsArray.length; i++) {
+            final Evaluation[] evals = evalsArray[i];
 
-            ///}
+            if (evals.length > 0) {
+                try {
+                    factory.create(evals[0], glyphs.get(i), staves.get(i));
+                } catch (Exception ex) {
+                    logger.warn("Error in glyph evaluation " + ex, ex);
+                }
+            }
         }
     }
 
@@ -344,6 +361,8 @@ public class SymbolsBuilder
                 }
             }
         }
+
+        evaluatePendings();
     }
 
     //-------------------//
@@ -422,6 +441,11 @@ public class SymbolsBuilder
                 false,
                 "Should we print out the stop watch?");
 
+        private final Constant.Integer batchSize = new Constant.Integer(
+                "Glyphs",
+                256,
+                "Number of glyphs evaluated at once by the classifier");
+
         private final Constant.Integer maxPartCount = new Constant.Integer(
                 "Glyphs",
                 7,
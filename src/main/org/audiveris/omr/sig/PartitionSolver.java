@@ -0,0 +1,290 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                                 P a r t i t i o n S o l v e r                                  //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.sig;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class {@code PartitionSolver} retrieves the best partitions of a set of weighted items
+ * with mutual conflicts.
+ * <p>
+ * A partition is a maximal set of items with no pair of conflicting items, its score is the sum of
+ * its items weights.
+ * The solver explores items in their index order (typically by decreasing weight), including each
+ * item before excluding it, and keeps only the {@code k} best partitions found so far.
+ * A branch is cut as soon as its upper bound (current score plus the weights of all items still
+ * eligible) cannot beat the k-th best score, hence the search remains bounded even on dense
+ * conflict configurations.
+ * <p>
+ * Conflicts are kept as bit masks, one {@code long[]} per item.
+ *
+ * @author Hervé Bitteur
+ */
+class PartitionSolver
+{
+
+    /** Number of items. */
+    private final int n;
+
+    /** Weight of each item. */
+    private final double[] weights;
+
+    /** Conflict mask of each item. */
+    private final long[][] conflicts;
+
+    /** Best partitions so far, sorted by decreasing score. */
+    private final List<Partition> bests = new ArrayList<>();
+
+    /** Maximum number of partitions to report. */
+    private int k;
+
+    /**
+     * Creates a new {@code PartitionSolver} object.
+     *
+     * @param weights the weight of each item, preferably in decreasing order
+     */
+    PartitionSolver (double[] weights)
+    {
+        this.weights = weights;
+        n = weights.length;
+        conflicts = new long[n][words(n)];
+    }
+
+    //-------------//
+    // addConflict //
+    //-------------//
+    /**
+     * Declare a mutual conflict between two items.
+     *
+     * @param i index of one item
+     * @param j index of the other item
+     */
+    void addConflict (int i,
+                      int j)
+    {
+        if (i != j) {
+            set(conflicts[i], j);
+            set(conflicts[j], i);
+        }
+    }
+
+    //-------//
+    // solve //
+    //-------//
+    /**
+     * Retrieve the best partitions.
+     *
+     * @param k maximum number of partitions to report
+     * @return the best partitions, by decreasing score, each as an increasing sequence of indices
+     */
+    List<int[]> solve (int k)
+    {
+        this.k = Math.max(1, k);
+        bests.clear();
+
+        final int words = words(n);
+        search(0, new long[words], new long[words], 0);
+
+        final List<int[]> result = new ArrayList<>();
+
+        for (Partition partition : bests) {
+            result.add(partition.indices);
+        }
+
+        return result;
+    }
+
+    //-----------//
+    // isMaximal //
+    //-----------//
+    /**
+     * Check that every item not chosen is in conflict with a chosen one.
+     */
+    private boolean isMaximal (long[] chosen,
+                               long[] forbidden)
+    {
+        for (int i = 0; i < n; i++) {
+            if (!get(chosen, i) && !get(forbidden, i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    //-------//
+    // offer //
+    //-------//
+    private void offer (long[] chosen,
+                        double score)
+    {
+        // Insertion index, after any equal score (first found is preferred)
+        int pos = bests.size();
+
+        while ((pos > 0) && (bests.get(pos - 1).score < score)) {
+            pos--;
+        }
+
+        if (pos >= k) {
+            return;
+        }
+
+        final int[] indices = new int[count(chosen)];
+
+        for (int i = 0, c = 0; i < n; i++) {
+            if (get(chosen, i)) {
+                indices[c++] = i;
+            }
+        }
+
+        bests.add(pos, new Partition(indices, score));
+
+        if (bests.size() > k) {
+            bests.remove(k);
+        }
+    }
+
+    //--------//
+    // search //
+    //--------//
+    /**
+     * Explore the decisions on items from index i on.
+     *
+     * @param i         index of next item to decide upon
+     * @param chosen    mask of items chosen so far
+     * @param forbidden mask of items in conflict with chosen ones
+     * @param score     current score
+     */
+    private void search (int i,
+                         long[] chosen,
+                         long[] forbidden,
+                         double score)
+    {
+        // Skip forbidden items
+        while ((i < n) && get(forbidden, i)) {
+            i++;
+        }
+
+        if (i == n) {
+            if (isMaximal(chosen, forbidden)) {
+                offer(chosen, score);
+            }
+
+            return;
+        }
+
+        // Bound: current score augmented by all eligible items
+        if (bests.size() == k) {
+            double bound = score;
+
+            for (int j = i; j < n; j++) {
+                if (!get(forbidden, j)) {
+                    bound += weights[j];
+                }
+            }
+
+            if (bound <= bests.get(k - 1).score) {
+                return;
+            }
+        }
+
+        // Include item i
+        final long[] conflict = conflicts[i];
+        final long[] newChosen = chosen.clone();
+        final long[] newForbidden = forbidden.clone();
+        set(newChosen, i);
+
+        for (int w = 0; w < conflict.length; w++) {
+            newForbidden[w] |= conflict[w];
+        }
+
+        search(i + 1, newChosen, newForbidden, score + weights[i]);
+
+        // Exclude item i, which makes sense only if some eligible item conflicts with it
+        for (int j = i + 1; j < n; j++) {
+            if (get(conflict, j) && !get(forbidden, j)) {
+                search(i + 1, chosen, forbidden, score);
+
+                return;
+            }
+        }
+    }
+
+    //-------//
+    // count //
+    //-------//
+    private static int count (long[] mask)
+    {
+        int count = 0;
+
+        for (long word : mask) {
+            count += Long.bitCount(word);
+        }
+
+        return count;
+    }
+
+    //-----//
+    // get //
+    //-----//
+    private static boolean get (long[] mask,
+                                int i)
+    {
+        return (mask[i >>> 6] & (1L << i)) != 0;
+    }
+
+    //-----//
+    // set //
+    //-----//
+    private static void set (long[] mask,
+                             int i)
+    {
+        mask[i >>> 6] |= (1L << i);
+    }
+
+    //-------//
+    // words //
+    //-------//
+    private static int words (int n)
+    {
+        return Math.max(1, (n + 63) >>> 6);
+    }
+
+    //-----------//
+    // Partition //
+    //-----------//
+    private static class Partition
+    {
+
+        final int[] indices;
+
+        final double score;
+
+        Partition (int[] indices,
+                   double score)
+        {
+            this.indices = indices;
+            this.score = score;
+        }
+    }
+}
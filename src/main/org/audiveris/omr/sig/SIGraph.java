@@ -86,6 +86,10 @@ public class SIGraph
     /** Content for differed populating after unmarshalling. */
     private SigValue sigValue;
 
+    /** Secondary indexes on inters, by class, shape, staff and location. */
+    @Navigable(false)
+    private final SigIndex index = new SigIndex();
+
     /**
      * Creates a new SIGraph object at system level.
      *
@@ -143,6 +147,7 @@ public class SIGraph
         boolean added = super.addVertex(inter);
 
         if (added) {
+            index.add(inter);
             inter.setSig(this);
 
             // Additional actions
@@ -177,6 +182,20 @@ public class SIGraph
         }
     }
 
+    //---------------//
+    // boundsChanged //
+    //---------------//
+    /**
+     * Notify that the bounds of the provided inter have changed (or been invalidated),
+     * so that it gets re-indexed.
+     *
+     * @param inter the modified inter
+     */
+    public void boundsChanged (Inter inter)
+    {
+        index.boundsChanged(inter);
+    }
+
     //------------------------//
     // computeContextualGrade //
     //------------------------//
@@ -210,7 +229,7 @@ public class SIGraph
     {
         List<Inter> found = new ArrayList<>();
 
-        for (Inter inter : vertexSet()) {
+        for (Inter inter : index.locationCandidates(rect)) {
             final Rectangle box = inter.getBounds();
 
             if (box == null) {
@@ -237,7 +256,7 @@ public class SIGraph
     {
         List<Inter> found = new ArrayList<>();
 
-        for (Inter inter : vertexSet()) {
+        for (Inter inter : index.locationCandidates(point)) {
             Rectangle bounds = inter.getBounds();
 
             if ((bounds != null) && bounds.contains(point)) {
@@ -291,10 +310,29 @@ public class SIGraph
      * @return the set of inter instances purged
      */
     public Set<Inter> deleteWeakInters ()
+    {
+        return deleteWeakInters(null);
+    }
+
+    //------------------//
+    // deleteWeakInters //
+    //------------------//
+    /**
+     * Purge, among the provided candidates, the inter instances for which the contextual
+     * grade is lower than minimum threshold.
+     *
+     * @param candidates the inters to check, null for all
+     * @return the set of inter instances purged
+     */
+    public Set<Inter> deleteWeakInters (Set<Inter> candidates)
     {
         Set<Inter> removed = new LinkedHashSet<>();
 
         for (Inter inter : vertexSet()) {
+            if ((candidates != null) && !candidates.contains(inter)) {
+                continue;
+            }
+
             // Skip frozen inters
             if (inter.isFrozen()) {
                 continue;
@@ -438,6 +476,9 @@ public class SIGraph
     /**
      * Report all largest partitions of non-conflicting inters within the provided
      * collection of interpretations.
+     * <p>
+     * All consistent partitions are enumerated, whose number grows exponentially with the number of
+     * conflicting inters. This is meant for small collections, such as the stems linked to a head.
      *
      * @param focus  the inter instance, if any, for which partners are looked up
      * @param inters the provided collection of interpretations, with perhaps some mutual exclusion
@@ -447,6 +488,28 @@ public class SIGraph
      */
     public List<List<Inter>> getPartitions (Inter focus,
                                             List<Inter> inters)
+    {
+        return getPartitions(focus, inters, null, 0);
+    }
+
+    //---------------//
+    // getPartitions //
+    //---------------//
+    /**
+     * Report the partitions of non-conflicting inters, either all of them or just the best
+     * ones scored with the provided weights.
+     *
+     * @param focus   the inter instance, if any, for which partners are looked up
+     * @param inters  the provided collection of interpretations
+     * @param weights map of inter weight (used only when k is positive), or null to use inter best
+     *                grade
+     * @param k       maximum number of best partitions to report, or 0 for all partitions
+     * @return the consistent partitions (by decreasing score if k is positive)
+     */
+    private List<List<Inter>> getPartitions (Inter focus,
+                                             List<Inter> inters,
+                                             Map<Inter, Double> weights,
+                                             int k)
     {
         Collections.sort(inters, Inters.byReverseGrade);
 
@@ -454,8 +517,15 @@ public class SIGraph
         final List<Inter> stems = (focus instanceof HeadInter) ? stemsOf(inters) : null;
         final List<List<Inter>> result = new ArrayList<>();
 
+        // Index of each inter
+        final Map<Inter, Integer> indices = new HashMap<>();
+
+        for (int i = n - 1; i >= 0; i--) {
+            indices.put(inters.get(i), i);
+        }
+
         // Map inter -> concurrents of inter (that appear later within the provided list)
-        List<Set<Integer>> concurrentSets = new ArrayList<>();
+        final List<Set<Integer>> concurrentSets = new ArrayList<>();
         boolean conflictDetected = false;
 
         for (int i = 0; i < n; i++) {
@@ -467,9 +537,9 @@ public class SIGraph
                 Inter concurrent = getOppositeInter(inter, rel);
 
                 // Check whether this concurrent belongs to (and appears later in) the inters list
-                int ic = inters.indexOf(concurrent);
+                Integer ic = indices.get(concurrent);
 
-                if (ic > i) {
+                if ((ic != null) && (ic > i)) {
                     concurrents.add(ic);
                     conflictDetected = true;
                 }
@@ -482,7 +552,7 @@ public class SIGraph
             if (focus instanceof HeadInter && inter instanceof StemInter) {
                 // Flag all other stems, if any, as concurrents of this one
                 for (Inter stem : stems) {
-                    int ic = inters.indexOf(stem);
+                    int ic = indices.get(stem);
 
                     if (ic > i) {
                         concurrents.add(ic);
@@ -499,42 +569,15 @@ public class SIGraph
             return result;
         }
 
-        // Define all possible sequences
-        List<Sequence> seqs = new ArrayList<>();
-        seqs.add(new Sequence(n));
-
-        for (int i = 0; i < n; i++) {
-            Set<Integer> concurrents = concurrentSets.get(i);
-
-            for (int is = 0, isBreak = seqs.size(); is < isBreak; is++) {
-                Sequence seq = seqs.get(is);
-
-                if (seq.line[i] != -1) {
-                    seq.line[i] = 1;
-
-                    if (!concurrents.isEmpty()) {
-                        // Duplicate line
-                        Sequence newSeq = seq.copy();
-                        newSeq.line[i] = 0;
-                        seqs.add(newSeq);
-
-                        // Forbid dependent locations
-                        for (Integer ic : concurrents) {
-                            seq.line[ic] = -1;
-                        }
-                    }
-                }
-            }
-        }
-
         // Build resulting partitions
-        for (Sequence seq : seqs) {
-            List<Inter> list = new ArrayList<>();
+        final List<int[]> partitions = (k > 0) ? bestPartitions(inters, concurrentSets, weights, k)
+                : allPartitions(concurrentSets);
 
-            for (int i = 0; i < n; i++) {
-                if (seq.line[i] == 1) {
-                    list.add(inters.get(i));
-                }
+        for (int[] partition : partitions) {
+            List<Inter> list = new ArrayList<>(partition.length);
+
+            for (int i : partition) {
+                list.add(inters.get(i));
             }
 
             result.add(list);
@@ -687,7 +730,9 @@ public class SIGraph
     public final void populateAllInters (Collection<? extends Inter> inters)
     {
         for (Inter inter : inters) {
-            super.addVertex(inter);
+            if (super.addVertex(inter)) {
+                index.add(inter);
+            }
         }
     }
 
@@ -866,7 +911,7 @@ public class SIGraph
      */
     public List<Inter> inters (final Collection<Shape> shapes)
     {
-        return inters(new ShapesPredicate(shapes));
+        return Inters.inters(index.shapeCandidates(shapes), new ShapesPredicate(shapes));
     }
 
     //--------//
@@ -880,7 +925,7 @@ public class SIGraph
      */
     public List<Inter> inters (Staff staff)
     {
-        return Inters.inters(staff, vertexSet());
+        return Inters.inters(staff, index.staffCandidates(staff));
     }
 
     //--------//
@@ -908,7 +953,7 @@ public class SIGraph
      */
     public List<Inter> inters (final Class classe)
     {
-        return inters(new ClassPredicate(classe));
+        return Inters.inters(index.classCandidates(classe), new ClassPredicate(classe));
     }
 
     //--------//
@@ -922,7 +967,7 @@ public class SIGraph
      */
     public List<Inter> inters (final Shape shape)
     {
-        return inters(new ShapePredicate(shape));
+        return Inters.inters(index.shapeCandidates(shape), new ShapePredicate(shape));
     }
 
     //--------//
@@ -936,7 +981,7 @@ public class SIGraph
      */
     public List<Inter> inters (final Class[] classes)
     {
-        return inters(new ClassesPredicate(classes));
+        return Inters.inters(index.classCandidates(classes), new ClassesPredicate(classes));
     }
 
     //--------//
@@ -952,7 +997,7 @@ public class SIGraph
     public List<Inter> inters (final Staff staff,
                                final Class classe)
     {
-        return inters(new StaffClassPredicate(staff, classe));
+        return Inters.inters(index.staffCandidates(staff), new StaffClassPredicate(staff, classe));
     }
 
     //-------------------//
@@ -968,7 +1013,7 @@ public class SIGraph
     {
         List<Inter> found = new ArrayList<>();
 
-        for (Inter inter : vertexSet()) {
+        for (Inter inter : index.locationCandidates(box)) {
             if (inter.isRemoved()) {
                 continue;
             }
@@ -1142,7 +1187,26 @@ public class SIGraph
             logger.info("VIP removeVertex {}", inter);
         }
 
-        return super.removeVertex(inter);
+        final boolean removed = super.removeVertex(inter);
+
+        if (removed) {
+            index.remove(inter);
+        }
+
+        return removed;
+    }
+
+    //--------------//
+    // shapeChanged //
+    //--------------//
+    /**
+     * Notify that the shape of the provided inter has changed, so that it gets re-indexed.
+     *
+     * @param inter the modified inter
+     */
+    public void shapeChanged (Inter inter)
+    {
+        index.shapeChanged(inter);
     }
 
     //--------------//
@@ -1170,6 +1234,19 @@ public class SIGraph
                  });
     }
 
+    //--------------//
+    // staffChanged //
+    //--------------//
+    /**
+     * Notify that the staff of the provided inter has changed, so that it gets re-indexed.
+     *
+     * @param inter the modified inter
+     */
+    public void staffChanged (Inter inter)
+    {
+        index.staffChanged(inter);
+    }
+
     //----------//
     // toString //
     //----------//
@@ -1207,6 +1284,110 @@ public class SIGraph
         }
     }
 
+    //---------------//
+    // allPartitions //
+    //---------------//
+    /**
+     * Enumerate all partitions, by duplicating a sequence of statuses for each conflicting
+     * inter.
+     *
+     * @param concurrentSets for each inter, the indices of its concurrents that appear later
+     * @return the indices of each partition
+     */
+    private static List<int[]> allPartitions (List<Set<Integer>> concurrentSets)
+    {
+        final int n = concurrentSets.size();
+
+        // Define all possible sequences
+        List<Sequence> seqs = new ArrayList<>();
+        seqs.add(new Sequence(n));
+
+        for (int i = 0; i < n; i++) {
+            Set<Integer> concurrents = concurrentSets.get(i);
+
+            for (int is = 0, isBreak = seqs.size(); is < isBreak; is++) {
+                Sequence seq = seqs.get(is);
+
+                if (seq.line[i] != -1) {
+                    seq.line[i] = 1;
+
+                    if (!concurrents.isEmpty()) {
+                        // Duplicate line
+                        Sequence newSeq = seq.copy();
+                        newSeq.line[i] = 0;
+                        seqs.add(newSeq);
+
+                        // Forbid dependent locations
+                        for (Integer ic : concurrents) {
+                            seq.line[ic] = -1;
+                        }
+                    }
+                }
+            }
+        }
+
+        final List<int[]> partitions = new ArrayList<>(seqs.size());
+
+        for (Sequence seq : seqs) {
+            int count = 0;
+
+            for (int i = 0; i < n; i++) {
+                if (seq.line[i] == 1) {
+                    count++;
+                }
+            }
+
+            final int[] partition = new int[count];
+            count = 0;
+
+            for (int i = 0; i < n; i++) {
+                if (seq.line[i] == 1) {
+                    partition[count++] = i;
+                }
+            }
+
+            partitions.add(partition);
+        }
+
+        return partitions;
+    }
+
+    //----------------//
+    // bestPartitions //
+    //----------------//
+    /**
+     * Search the best maximal partitions, by branch-and-bound.
+     *
+     * @param inters         the interpretations, sorted by decreasing grade
+     * @param concurrentSets for each inter, the indices of its concurrents that appear later
+     * @param weights        map of inter weight, or null to use inter best grade
+     * @param k              maximum number of partitions to report
+     * @return the indices of each partition, by decreasing score
+     */
+    private static List<int[]> bestPartitions (List<Inter> inters,
+                                               List<Set<Integer>> concurrentSets,
+                                               Map<Inter, Double> weights,
+                                               int k)
+    {
+        final int n = inters.size();
+        final double[] scores = new double[n];
+
+        for (int i = 0; i < n; i++) {
+            final Inter inter = inters.get(i);
+            scores[i] = (weights != null) ? weights.get(inter) : inter.getBestGrade();
+        }
+
+        final PartitionSolver solver = new PartitionSolver(scores);
+
+        for (int i = 0; i < n; i++) {
+            for (int ic : concurrentSets.get(i)) {
+                solver.addConflict(i, ic);
+            }
+        }
+
+        return solver.solve(k);
+    }
+
     //------------------------//
     // computeContextualGrade //
     //------------------------//
@@ -1217,9 +1398,8 @@ public class SIGraph
      * It is assumed that all these supporting relations involve the inter as either a target or a
      * source, otherwise a runtime exception is thrown.
      * <p>
-     * There may be mutual exclusion between some partners. In this case, we identify all partitions
-     * of compatible partners and report the best resulting contextual contribution among those
-     * partitions.
+     * There may be mutual exclusion between some partners. In this case, we identify the partition
+     * of compatible partners with the best contribution and report the resulting contextual grade.
      *
      * @param inter    the inter whose contextual grade is to be computed
      * @param supports all supporting relations inter is involved with, some may be in conflict
@@ -1255,8 +1435,8 @@ public class SIGraph
             }
         }
 
-        // Check for mutual exclusion between partners
-        final List<List<Inter>> seqs = getPartitions(inter, partners);
+        // Check for mutual exclusion between partners, only the best partition is relevant
+        final List<List<Inter>> seqs = getPartitions(inter, partners, partnerContrib, 1);
         double bestCg = 0;
 
         for (List<Inter> seq : seqs) {
@@ -0,0 +1,573 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                                        S i g I n d e x                                         //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.sig;
+
+import org.audiveris.omr.constant.Constant;
+import org.audiveris.omr.constant.ConstantSet;
+import org.audiveris.omr.glyph.Shape;
+import org.audiveris.omr.sheet.Staff;
+import org.audiveris.omr.sig.inter.Inter;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Class {@code SigIndex} keeps secondary indexes on the inters of a SIG, by class, by
+ * shape, by staff and by location, so that SIG lookups do not have to browse all vertices.
+ * <p>
+ * Indexes only provide <b>candidates</b>, sorted in SIG insertion order.
+ * The SIG still applies its genuine test on each candidate, hence lookup results are the same as
+ * with a full browsing.
+ * <p>
+ * Class is immutable and shape is modified only through {@link #shapeChanged(Inter)}, so
+ * these indexes are updated eagerly.
+ * <p>
+ * Staff and bounds, on the contrary, are often computed lazily by the inter itself (from its
+ * members or its relations), so they are never read when an inter is added.
+ * The inter is just flagged as dirty, and gets indexed at the first staff (or location) lookup.
+ * An inter for which staff (or bounds) is still unknown, as well as a removed inter, remains in
+ * the dirty set and is thus always part of candidates.
+ * A modification of staff or bounds is notified by the inter, via {@link #staffChanged(Inter)}
+ * or {@link #boundsChanged(Inter)}, which flags it as dirty again.
+ * This applies as well to any staff or bounds value cached by the inter, which must be
+ * discarded (and notified) as soon as it gets obsolete, typically when an ensemble gains or
+ * loses a member.
+ *
+ * @author Hervé Bitteur
+ */
+class SigIndex
+{
+
+    private static final Constants constants = new Constants();
+
+    /** Entry per indexed inter. */
+    private final Map<Inter, Entry> entries = new HashMap<>();
+
+    /** Inters per concrete class. */
+    private final Map<Class, Set<Inter>> byClass = new HashMap<>();
+
+    /** Inters per shape. */
+    private final Map<Shape, Set<Inter>> byShape = new EnumMap<>(Shape.class);
+
+    /** Inters with no shape. */
+    private final Set<Inter> noShape = new LinkedHashSet<>();
+
+    /** Inters per (known) staff. */
+    private final Map<Staff, Set<Inter>> byStaff = new HashMap<>();
+
+    /** Inters whose staff is not (yet) indexed. */
+    private final Set<Inter> staffDirty = new LinkedHashSet<>();
+
+    /** Inters per grid cell of their (known) bounds. */
+    private final Map<Long, Set<Inter>> byCell = new HashMap<>();
+
+    /** Inters whose bounds are not (yet) indexed. */
+    private final Set<Inter> boundsDirty = new LinkedHashSet<>();
+
+    /** Side of a grid cell, in pixels. */
+    private final int cellSize = constants.cellSize.getValue();
+
+    /** To sort candidates in insertion order. */
+    private final Comparator<Inter> bySequence = new Comparator<Inter>()
+    {
+        @Override
+        public int compare (Inter i1,
+                            Inter i2)
+        {
+            return Long.compare(entries.get(i1).sequence, entries.get(i2).sequence);
+        }
+    };
+
+    /** Sequence number for next inserted inter. */
+    private long nextSequence;
+
+    //-----//
+    // add //
+    //-----//
+    /**
+     * Index a brand new vertex.
+     *
+     * @param inter the inter just inserted in SIG
+     */
+    synchronized void add (Inter inter)
+    {
+        final Entry entry = new Entry(nextSequence++);
+        entries.put(inter, entry);
+
+        bucket(byClass, inter.getClass()).add(inter);
+
+        entry.shape = inter.getShape();
+        shapeSet(entry.shape).add(inter);
+
+        staffDirty.add(inter);
+        boundsDirty.add(inter);
+    }
+
+    //---------------//
+    // boundsChanged //
+    //---------------//
+    /**
+     * Notify that bounds of the provided inter may have changed.
+     *
+     * @param inter the modified inter
+     */
+    synchronized void boundsChanged (Inter inter)
+    {
+        final Entry entry = entries.get(inter);
+
+        if (entry != null) {
+            unindexBounds(inter, entry);
+            boundsDirty.add(inter);
+        }
+    }
+
+    //-----------------//
+    // classCandidates //
+    //-----------------//
+    /**
+     * Report the inters which are instances of at least one of the provided classes.
+     *
+     * @param classes the desired classes
+     * @return the candidates, in insertion order
+     */
+    synchronized List<Inter> classCandidates (Class... classes)
+    {
+        final List<Inter> found = new ArrayList<>();
+
+        for (Map.Entry<Class, Set<Inter>> mapEntry : byClass.entrySet()) {
+            for (Class classe : classes) {
+                if (classe.isAssignableFrom(mapEntry.getKey())) {
+                    found.addAll(mapEntry.getValue());
+
+                    break;
+                }
+            }
+        }
+
+        return sorted(found);
+    }
+
+    //--------------------//
+    // locationCandidates //
+    //--------------------//
+    /**
+     * Report the inters whose bounds may intersect (or contain, or be contained by) the
+     * provided box.
+     *
+     * @param box the lookup box
+     * @return the candidates, in insertion order
+     */
+    synchronized List<Inter> locationCandidates (Rectangle box)
+    {
+        flushBounds();
+
+        final Set<Inter> found = new HashSet<>(boundsDirty);
+        final int x1 = cell(box.x);
+        final int x2 = cell(box.x + Math.max(box.width, 1) - 1);
+        final int y1 = cell(box.y);
+        final int y2 = cell(box.y + Math.max(box.height, 1) - 1);
+
+        for (int cx = x1; cx <= x2; cx++) {
+            for (int cy = y1; cy <= y2; cy++) {
+                final Set<Inter> set = byCell.get(key(cx, cy));
+
+                if (set != null) {
+                    found.addAll(set);
+                }
+            }
+        }
+
+        return sorted(found);
+    }
+
+    //--------------------//
+    // locationCandidates //
+    //--------------------//
+    /**
+     * Report the inters whose bounds may contain the provided point.
+     *
+     * @param point the lookup point
+     * @return the candidates, in insertion order
+     */
+    synchronized List<Inter> locationCandidates (Point point)
+    {
+        return locationCandidates(new Rectangle(point.x, point.y, 1, 1));
+    }
+
+    //--------//
+    // remove //
+    //--------//
+    /**
+     * Unindex a vertex.
+     *
+     * @param inter the inter just removed from SIG
+     */
+    synchronized void remove (Inter inter)
+    {
+        final Entry entry = entries.remove(inter);
+
+        if (entry == null) {
+            return;
+        }
+
+        unbucket(byClass, inter.getClass(), inter);
+        shapeSet(entry.shape).remove(inter);
+        unindexStaff(inter, entry);
+        unindexBounds(inter, entry);
+    }
+
+    //-----------------//
+    // shapeCandidates //
+    //-----------------//
+    /**
+     * Report the inters whose shape is one of the provided shapes.
+     *
+     * @param shapes the desired shapes
+     * @return the candidates, in insertion order
+     */
+    synchronized List<Inter> shapeCandidates (Collection<Shape> shapes)
+    {
+        final List<Inter> found = new ArrayList<>();
+
+        for (Map.Entry<Shape, Set<Inter>> mapEntry : byShape.entrySet()) {
+            if (shapes.contains(mapEntry.getKey())) {
+                found.addAll(mapEntry.getValue());
+            }
+        }
+
+        if (!noShape.isEmpty() && shapes.contains(null)) {
+            found.addAll(noShape);
+        }
+
+        return sorted(found);
+    }
+
+    //-----------------//
+    // shapeCandidates //
+    //-----------------//
+    /**
+     * Report the inters of the provided shape.
+     *
+     * @param shape the desired shape
+     * @return the candidates, in insertion order
+     */
+    synchronized List<Inter> shapeCandidates (Shape shape)
+    {
+        return sorted(new ArrayList<>(shapeSet(shape)));
+    }
+
+    //--------------//
+    // shapeChanged //
+    //--------------//
+    /**
+     * Notify that shape of the provided inter has changed.
+     *
+     * @param inter the modified inter
+     */
+    synchronized void shapeChanged (Inter inter)
+    {
+        final Entry entry = entries.get(inter);
+
+        if (entry != null) {
+            shapeSet(entry.shape).remove(inter);
+            entry.shape = inter.getShape();
+            shapeSet(entry.shape).add(inter);
+        }
+    }
+
+    //-----------------//
+    // staffCandidates //
+    //-----------------//
+    /**
+     * Report the inters which may relate to the provided staff.
+     *
+     * @param staff the desired staff
+     * @return the candidates, in insertion order
+     */
+    synchronized List<Inter> staffCandidates (Staff staff)
+    {
+        flushStaves();
+
+        final Set<Inter> found = new HashSet<>(staffDirty);
+        final Set<Inter> set = byStaff.get(staff);
+
+        if (set != null) {
+            found.addAll(set);
+        }
+
+        return sorted(found);
+    }
+
+    //--------------//
+    // staffChanged //
+    //--------------//
+    /**
+     * Notify that staff of the provided inter may have changed.
+     *
+     * @param inter the modified inter
+     */
+    synchronized void staffChanged (Inter inter)
+    {
+        final Entry entry = entries.get(inter);
+
+        if (entry != null) {
+            unindexStaff(inter, entry);
+            staffDirty.add(inter);
+        }
+    }
+
+    //--------//
+    // bucket //
+    //--------//
+    private static <K> Set<Inter> bucket (Map<K, Set<Inter>> map,
+                                          K key)
+    {
+        Set<Inter> set = map.get(key);
+
+        if (set == null) {
+            map.put(key, set = new LinkedHashSet<>());
+        }
+
+        return set;
+    }
+
+    //------//
+    // cell //
+    //------//
+    private int cell (int coord)
+    {
+        // Rounding toward negative infinity
+        return (coord >= 0) ? (coord / cellSize) : (((coord + 1) / cellSize) - 1);
+    }
+
+    //-------------//
+    // flushBounds //
+    //-------------//
+    private void flushBounds ()
+    {
+        // Bounds computation may call back the sig, hence work on a copy
+        for (Inter inter : new ArrayList<>(boundsDirty)) {
+            if (inter.isRemoved()) {
+                continue;
+            }
+
+            final Entry entry = entries.get(inter);
+
+            if (entry == null) {
+                boundsDirty.remove(inter);
+
+                continue;
+            }
+
+            final Rectangle box = inter.getBounds();
+
+            if (box != null) {
+                unindexBounds(inter, entry);
+                entry.bounds = box;
+                boundsDirty.remove(inter);
+
+                for (long k : keys(box)) {
+                    bucket(byCell, k).add(inter);
+                }
+            }
+        }
+    }
+
+    //-------------//
+    // flushStaves //
+    //-------------//
+    private void flushStaves ()
+    {
+        // Staff computation may call back the sig, hence work on a copy
+        for (Inter inter : new ArrayList<>(staffDirty)) {
+            if (inter.isRemoved()) {
+                continue;
+            }
+
+            final Entry entry = entries.get(inter);
+
+            if (entry == null) {
+                staffDirty.remove(inter);
+
+                continue;
+            }
+
+            final Staff staff = inter.getStaff();
+
+            if (staff != null) {
+                unindexStaff(inter, entry);
+                entry.staff = staff;
+                staffDirty.remove(inter);
+                bucket(byStaff, staff).add(inter);
+            }
+        }
+    }
+
+    //-----//
+    // key //
+    //-----//
+    private static long key (int cx,
+                             int cy)
+    {
+        return (((long) cx) << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    //------//
+    // keys //
+    //------//
+    private List<Long> keys (Rectangle box)
+    {
+        final List<Long> list = new ArrayList<>();
+        final int x1 = cell(box.x);
+        final int x2 = cell(box.x + Math.max(box.width, 1) - 1);
+        final int y1 = cell(box.y);
+        final int y2 = cell(box.y + Math.max(box.height, 1) - 1);
+
+        for (int cx = x1; cx <= x2; cx++) {
+            for (int cy = y1; cy <= y2; cy++) {
+                list.add(key(cx, cy));
+            }
+        }
+
+        return list;
+    }
+
+    //----------//
+    // shapeSet //
+    //----------//
+    private Set<Inter> shapeSet (Shape shape)
+    {
+        return (shape != null) ? bucket(byShape, shape) : noShape;
+    }
+
+    //--------//
+    // sorted //
+    //--------//
+    private List<Inter> sorted (Collection<Inter> inters)
+    {
+        final List<Inter> list = (inters instanceof List) ? (List<Inter>) inters
+                : new ArrayList<>(inters);
+        Collections.sort(list, bySequence);
+
+        return list;
+    }
+
+    //----------//
+    // unbucket //
+    //----------//
+    private static <K> void unbucket (Map<K, Set<Inter>> map,
+                                      K key,
+                                      Inter inter)
+    {
+        final Set<Inter> set = map.get(key);
+
+        if (set != null) {
+            set.remove(inter);
+
+            if (set.isEmpty()) {
+                map.remove(key);
+            }
+        }
+    }
+
+    //---------------//
+    // unindexBounds //
+    //---------------//
+    private void unindexBounds (Inter inter,
+                                Entry entry)
+    {
+        if (entry.bounds != null) {
+            for (long k : keys(entry.bounds)) {
+                unbucket(byCell, k, inter);
+            }
+
+            entry.bounds = null;
+        }
+
+        boundsDirty.remove(inter);
+    }
+
+    //--------------//
+    // unindexStaff //
+    //--------------//
+    private void unindexStaff (Inter inter,
+                               Entry entry)
+    {
+        if (entry.staff != null) {
+            unbucket(byStaff, entry.staff, inter);
+            entry.staff = null;
+        }
+
+        staffDirty.remove(inter);
+    }
+
+    //-----------//
+    // Constants //
+    //-----------//
+    private static class Constants
+            extends ConstantSet
+    {
+
+        private final Constant.Integer cellSize = new Constant.Integer(
+                "Pixels",
+                128,
+                "Side of a grid cell in location index of inters");
+    }
+
+    //-------//
+    // Entry //
+    //-------//
+    /**
+     * Indexed data of an inter.
+     */
+    private static class Entry
+    {
+
+        /** Rank of insertion. */
+        final long sequence;
+
+        /** Indexed shape, perhaps null. */
+        Shape shape;
+
+        /** Indexed staff, null if not indexed. */
+        Staff staff;
+
+        /** Indexed bounds, null if not indexed. */
+        Rectangle bounds;
+
+        Entry (long sequence)
+        {
+            this.sequence = sequence;
+        }
+    }
+}
@@ -84,6 +84,10 @@ import static org.audiveris.omr.util.HorizontalSide.RIGHT;
 import org.audiveris.omr.util.Navigable;
 import org.audiveris.omr.util.Predicate;
 
+import org.jgrapht.event.GraphEdgeChangeEvent;
+import org.jgrapht.event.GraphListener;
+import org.jgrapht.event.GraphVertexChangeEvent;
+
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -164,6 +168,9 @@ public class SigReducer
     /** Should we purge weak inter instances?. */
     private final boolean purgeWeaks;
 
+    /** Inters touched during current reduction. */
+    private Tracker tracker;
+
     /**
      * Creates a new {@code SigReducer} object.
      *
@@ -1243,15 +1250,31 @@ public class SigReducer
     /**
      * Update the contextual grade of each Inter in SIG, and remove the weak ones if so
      * desired.
+     * <p>
+     * Only the inters impacted by SIG modifications since previous call get their contextual grade
+     * updated, and only these ones can be purged, except for the first purge which checks all
+     * inters.
      *
      * @return the set of inters removed
      */
     private Set<Inter> contextualizeAndPurge ()
     {
-        sig.contextualize();
+        final Set<Inter> impacted = tracker.getImpacted();
+
+        for (Inter inter : impacted) {
+            sig.computeContextualGrade(inter);
+        }
 
         if (purgeWeaks) {
-            return sig.deleteWeakInters();
+            if (!tracker.purged) {
+                tracker.purged = true;
+
+                return sig.deleteWeakInters();
+            }
+
+            if (!impacted.isEmpty()) {
+                return sig.deleteWeakInters(impacted);
+            }
         }
 
         return Collections.emptySet();
@@ -1609,6 +1632,32 @@ public class SigReducer
         // Make sure all inters have their contextual grade up-to-date
         sig.contextualize();
 
+        // From now on, keep track of modified inters
+        tracker = new Tracker(sig);
+        sig.addGraphListener(tracker);
+
+        try {
+            reduceEpochs(adapter, allRemoved);
+        } finally {
+            sig.removeGraphListener(tracker);
+            tracker = null;
+        }
+
+        return allRemoved;
+    }
+
+    //--------------//
+    // reduceEpochs //
+    //--------------//
+    /**
+     * Iterate reduction epochs until no more inter gets reduced or deleted.
+     *
+     * @param adapter    the adapter for current step
+     * @param allRemoved (output) the collection of removed inters, to be populated
+     */
+    private void reduceEpochs (Adapter adapter,
+                               Set<Inter> allRemoved)
+    {
         adapter.prolog();
 
         Set<Inter> reduced = new LinkedHashSet<>(); // Reduced inters
@@ -1636,7 +1685,7 @@ public class SigReducer
             }
 
             // Remaining exclusions
-            reduced.addAll(sig.reduceExclusions());
+            reduced.addAll(reduceExclusions());
             allRemoved.addAll(reduced);
 
             while ((modifs = adapter.checkLateConsistencies()) > 0) {
@@ -1645,8 +1694,26 @@ public class SigReducer
 
             logger.trace("S#{} reductions: {}", system.getId(), reduced);
         } while (!reduced.isEmpty() || !deleted.isEmpty());
+    }
 
-        return allRemoved;
+    //------------------//
+    // reduceExclusions //
+    //------------------//
+    /**
+     * Reduce all exclusions currently in SIG.
+     * <p>
+     * Within a reduction, exclusions are known by the tracker, which avoids browsing all SIG
+     * relations to find them.
+     *
+     * @return the set of reduced inters
+     */
+    private Set<Inter> reduceExclusions ()
+    {
+        if (tracker == null) {
+            return sig.reduceExclusions();
+        }
+
+        return sig.reduceExclusions(tracker.getExclusions());
     }
 
     //---------------------//
@@ -1967,7 +2034,7 @@ public class SigReducer
             int modifs = 0;
 
             analyzeChords(); // Heads size compatibility & beams size compatibility
-            reduced.addAll(sig.reduceExclusions());
+            reduced.addAll(reduceExclusions());
             deleted.addAll(contextualizeAndPurge());
 
             modifs += checkStemsLengths();
@@ -2096,6 +2163,115 @@ public class SigReducer
         }
     }
 
+    //---------//
+    // Tracker //
+    //---------//
+    /**
+     * Records the inters touched by SIG modifications, to limit the updates of
+     * contextual grades.
+     * <p>
+     * The contextual grade of an inter depends only on its own grade, its supporting relations,
+     * the grades of its supporting partners and the exclusions between these partners.
+     * So, whenever a relation is added or removed, both its source and target are impacted, as well
+     * as all their supporting partners.
+     * The removal of an inter removes all its relations beforehand.
+     * <p>
+     * The tracker also keeps the exclusions present in SIG, in SIG order, so that they can be
+     * reduced without browsing all SIG relations.
+     */
+    static class Tracker
+            implements GraphListener<Inter, Relation>
+    {
+
+        /** The tracked SIG. */
+        private final SIGraph sig;
+
+        /** Inters touched since last call to getImpacted. */
+        private final Set<Inter> touched = new LinkedHashSet<>();
+
+        /** Exclusions currently in SIG. */
+        private final Set<Relation> exclusions = new LinkedHashSet<>();
+
+        /** Has an initial purge been performed?. */
+        boolean purged;
+
+        /**
+         * Create a tracker on the provided SIG.
+         *
+         * @param sig the SIG to be listened to
+         */
+        Tracker (SIGraph sig)
+        {
+            this.sig = sig;
+            exclusions.addAll(sig.exclusions());
+        }
+
+        @Override
+        public void edgeAdded (GraphEdgeChangeEvent<Inter, Relation> e)
+        {
+            touched.add(e.getEdgeSource());
+            touched.add(e.getEdgeTarget());
+
+            if (e.getEdge() instanceof Exclusion) {
+                exclusions.add(e.getEdge());
+            }
+        }
+
+        @Override
+        public void edgeRemoved (GraphEdgeChangeEvent<Inter, Relation> e)
+        {
+            touched.add(e.getEdgeSource());
+            touched.add(e.getEdgeTarget());
+            exclusions.remove(e.getEdge());
+        }
+
+        @Override
+        public void vertexAdded (GraphVertexChangeEvent<Inter> e)
+        {
+            touched.add(e.getVertex());
+        }
+
+        @Override
+        public void vertexRemoved (GraphVertexChangeEvent<Inter> e)
+        {
+            // Void, relations were removed beforehand
+        }
+
+        /**
+         * Report the exclusions currently in SIG.
+         *
+         * @return a copy of current exclusions, in SIG order
+         */
+        Set<Relation> getExclusions ()
+        {
+            return new LinkedHashSet<>(exclusions);
+        }
+
+        /**
+         * Report the inters whose contextual grade may have changed since previous call.
+         *
+         * @return the impacted inters still in SIG
+         */
+        Set<Inter> getImpacted ()
+        {
+            final Set<Inter> impacted = new LinkedHashSet<>();
+
+            for (Inter inter : touched) {
+                if (sig.containsVertex(inter)) {
+                    impacted.add(inter);
+
+                    for (Relation rel : sig.getSupports(inter)) {
+                        impacted.add(sig.getOppositeInter(inter, rel));
+                    }
+                }
+            }
+
+            touched.clear();
+
+            return impacted;
+        }
+    }
+
     //-----------//
     // Constants //
     //-----------//
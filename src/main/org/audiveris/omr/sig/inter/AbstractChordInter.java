@@ -91,6 +91,9 @@ public abstract class AbstractChordInter
     /** Location for chord tail. Lazily computed. */
     protected Point tailLocation;
 
+    /** True when staff was derived from chord notes, rather than explicitly set. */
+    protected boolean staffDerived;
+
     /** Containing measure. */
     protected Measure measure;
 
@@ -756,6 +759,16 @@ public abstract class AbstractChordInter
         this.slot = slot;
     }
 
+    //----------//
+    // setStaff //
+    //----------//
+    @Override
+    public void setStaff (Staff staff)
+    {
+        staffDerived = false;
+        super.setStaff(staff);
+    }
+
     //----------//
     // getStaff //
     //----------//
@@ -771,8 +784,9 @@ public abstract class AbstractChordInter
         if (staff == null) {
             final Staff topStaff = getTopStaff();
 
-            if (topStaff == getBottomStaff()) {
+            if ((topStaff != null) && (topStaff == getBottomStaff())) {
                 staff = topStaff;
+                staffDerived = true;
             }
         }
 
@@ -1001,6 +1015,20 @@ public abstract class AbstractChordInter
         headLocation = null;
         tailLocation = null;
 
+        if (staffDerived) {
+            // Staff was derived from notes, which may have changed
+            staff = null;
+            staffDerived = false;
+
+            if (sig != null) {
+                sig.staffChanged(this);
+            }
+        }
+
+        if (sig != null) {
+            sig.boundsChanged(this);
+        }
+
         // Compute global grade based on contained notes (TODO: +stem as well?)
         if ((sig != null) && sig.containsVertex(this)) {
             final List<Inter> notes = getMembers();
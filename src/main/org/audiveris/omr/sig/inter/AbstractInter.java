@@ -462,6 +462,10 @@ public abstract class AbstractInter
     public void setBounds (Rectangle bounds)
     {
         this.bounds = bounds;
+
+        if (sig != null) {
+            sig.boundsChanged(this);
+        }
     }
 
     //-----------//
@@ -601,6 +605,10 @@ public abstract class AbstractInter
     public void setGlyph (Glyph glyph)
     {
         this.glyph = glyph;
+
+        if (sig != null) {
+            sig.boundsChanged(this);
+        }
     }
 
     //----------//
@@ -742,6 +750,10 @@ public abstract class AbstractInter
     public void setStaff (Staff staff)
     {
         this.staff = staff;
+
+        if (sig != null) {
+            sig.staffChanged(this);
+        }
     }
 
     //-----------------//
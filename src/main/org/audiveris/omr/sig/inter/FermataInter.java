@@ -209,6 +209,10 @@ public class FermataInter
     public void invalidateCache ()
     {
         bounds = null;
+
+        if (sig != null) {
+            sig.boundsChanged(this);
+        }
     }
 
     //-----------------//
@@ -274,6 +274,10 @@ public class KeyInter
     {
         bounds = null;
         fifths = 0;
+
+        if (sig != null) {
+            sig.boundsChanged(this);
+        }
     }
 
     //--------------//
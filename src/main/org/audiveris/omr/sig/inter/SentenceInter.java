@@ -348,6 +348,10 @@ public class SentenceInter
     public void invalidateCache ()
     {
         bounds = null;
+
+        if (sig != null) {
+            sig.boundsChanged(this);
+        }
     }
 
     //--------------//
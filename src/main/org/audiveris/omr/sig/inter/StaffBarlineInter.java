@@ -674,7 +674,12 @@ public final class StaffBarlineInter
     @Override
     public void invalidateCache ()
     {
-        //        bounds = null;
+        bounds = null;
+
+        if (sig != null) {
+            sig.boundsChanged(this);
+        }
+
         //        style = null;
         //
         //        // Recompute ensemble grade
@@ -237,6 +237,10 @@ public class TimePairInter
     {
         bounds = null;
         timeRational = null;
+
+        if (sig != null) {
+            sig.boundsChanged(this);
+        }
     }
 
     //--------------//
@@ -27,9 +27,7 @@ import org.audiveris.omr.constant.Constant;
 import org.audiveris.omr.constant.ConstantSet;
 import org.audiveris.omr.image.FilterDescriptor;
 import org.audiveris.omr.image.PixelFilter;
-import org.audiveris.omr.run.Orientation;
 import org.audiveris.omr.run.RunTable;
-import org.audiveris.omr.run.RunTableFactory;
 import org.audiveris.omr.sheet.Picture;
 import org.audiveris.omr.sheet.Picture.SourceKey;
 import org.audiveris.omr.sheet.Sheet;
@@ -94,14 +92,9 @@ public class BinaryStep
         logger.debug("{}", "Binarization");
 
         PixelFilter filter = desc.getFilter(initial);
-        watch.start("Binarize source");
+        watch.start("Binarize source into RunTable");
 
-        ByteProcessor binary = filter.filteredImage();
-
-        watch.start("Create binary RunTable");
-
-        RunTableFactory vertFactory = new RunTableFactory(Orientation.VERTICAL);
-        RunTable wholeVertTable = vertFactory.createTable(binary);
+        RunTable wholeVertTable = filter.filteredTable();
         picture.setTable(Picture.TableKey.BINARY, wholeVertTable, true);
 
         // To discard image
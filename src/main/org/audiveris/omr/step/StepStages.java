@@ -0,0 +1,162 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                                      S t e p S t a g e s                                       //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.step;
+
+import org.audiveris.omr.constant.Constant;
+import org.audiveris.omr.constant.ConstantSet;
+import org.audiveris.omr.util.OmrExecutors;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.Semaphore;
+
+/**
+ * Class {@code StepStages} handles every {@link Step} as a pipeline stage, with its own
+ * bounded number of workers.
+ * <p>
+ * Each sheet goes through its steps in sequence, but must obtain a permit from the stage of each
+ * step before performing it.
+ * Sheets of a book overlap when they are processed in parallel, and also in batch when they are
+ * processed one after the other: the early steps (LOAD, BINARY) of sheet N+1 are then performed
+ * while sheet N is in a later step (see {@code Book.reachBookStep}).
+ * Every stage is capped independently:
+ * <ul>
+ * <li>I/O stages (LOAD, BINARY) by the {@code ioWorkers} constant,</li>
+ * <li>OCR stage (TEXTS) by the {@code ocrWorkers} constant,</li>
+ * <li>all other stages, which are CPU-bound, by the {@code cpuWorkers} constant.</li>
+ * </ul>
+ * A zero value for a constant means the number of CPUs.
+ *
+ * @author Hervé Bitteur
+ */
+public abstract class StepStages
+{
+
+    private static final Constants constants = new Constants();
+
+    private static final Logger logger = LoggerFactory.getLogger(StepStages.class);
+
+    /** Permits per stage. */
+    private static final Map<Step, Semaphore> permits = createPermits();
+
+    /** Not meant to be instantiated. */
+    private StepStages ()
+    {
+    }
+
+    //-------//
+    // enter //
+    //-------//
+    /**
+     * Wait until the stage of provided step can accept one more worker.
+     *
+     * @param step the step about to be performed
+     */
+    public static void enter (Step step)
+    {
+        try {
+            permits.get(step).acquire();
+        } catch (InterruptedException ex) {
+            logger.warn("Interrupted while waiting for stage {}", step);
+            throw new ProcessingCancellationException(ex);
+        }
+    }
+
+    //------//
+    // exit //
+    //------//
+    /**
+     * Release the worker slot taken in stage of provided step.
+     *
+     * @param step the step just performed
+     */
+    public static void exit (Step step)
+    {
+        permits.get(step).release();
+    }
+
+    //---------------//
+    // createPermits //
+    //---------------//
+    private static Map<Step, Semaphore> createPermits ()
+    {
+        final Map<Step, Semaphore> map = new EnumMap<>(Step.class);
+
+        for (Step step : Step.values()) {
+            map.put(step, new Semaphore(getWorkers(step), true));
+        }
+
+        return map;
+    }
+
+    //------------//
+    // getWorkers //
+    //------------//
+    private static int getWorkers (Step step)
+    {
+        final int workers;
+
+        switch (step) {
+        case LOAD:
+        case BINARY:
+            workers = constants.ioWorkers.getValue();
+
+            break;
+
+        case TEXTS:
+            workers = constants.ocrWorkers.getValue();
+
+            break;
+
+        default:
+            workers = constants.cpuWorkers.getValue();
+        }
+
+        return (workers > 0) ? workers : OmrExecutors.getNumberOfCpus();
+    }
+
+    //-----------//
+    // Constants //
+    //-----------//
+    private static class Constants
+            extends ConstantSet
+    {
+
+        private final Constant.Integer ioWorkers = new Constant.Integer(
+                "Sheets",
+                2,
+                "Maximum sheets concurrently in an I/O stage (0 for number of CPUs)");
+
+        private final Constant.Integer ocrWorkers = new Constant.Integer(
+                "Sheets",
+                0,
+                "Maximum sheets concurrently in OCR stage (0 for number of CPUs)");
+
+        private final Constant.Integer cpuWorkers = new Constant.Integer(
+                "Sheets",
+                0,
+                "Maximum sheets concurrently in a CPU stage (0 for number of CPUs)");
+    }
+}
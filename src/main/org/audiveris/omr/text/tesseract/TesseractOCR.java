@@ -29,6 +29,7 @@ import org.audiveris.omr.text.OCR;
 import org.audiveris.omr.text.TextChar;
 import org.audiveris.omr.text.TextLine;
 import org.audiveris.omr.text.TextWord;
+import org.audiveris.omr.util.OmrExecutors;
 
 import org.bytedeco.javacpp.tesseract;
 import org.bytedeco.javacpp.tesseract.StringGenericVector;
@@ -49,12 +50,20 @@ import java.util.Collections;
 import java.util.List;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Class {@code TesseractOCR} is an OCR service built on the Google Tesseract engine.
  * <p>
  * It relies on <b>tesseract3</b> C++ program, accessed through a <b>JavaCPP</b>-based bridge.
+ * <p>
+ * Initialized Tesseract engines are kept in a pool per language specification, so that
+ * the costly loading of language data is not repeated for each OCR order.
+ * Each language pool is bounded by the {@code maxEngines} constant.
  *
  * @author Hervé Bitteur
  */
@@ -82,6 +91,9 @@ public class TesseractOCR
     /** To assign a serial number to each image processing order. */
     private final AtomicInteger serial = new AtomicInteger(0);
 
+    /** Pools of initialized engines, per language specification. */
+    private final ConcurrentMap<String, EnginePool> pools = new ConcurrentHashMap<>();
+
     /**
      * Creates the TesseractOCR singleton.
      */
@@ -89,6 +101,61 @@ public class TesseractOCR
     {
     }
 
+    //------------//
+    // acquireApi //
+    //------------//
+    /**
+     * Get an initialized Tesseract engine for the provided language specification,
+     * waiting for one if the language pool is exhausted.
+     * <p>
+     * The engine must be given back via {@link #releaseApi(String, TessBaseAPI)}.
+     *
+     * @param lang the language specification
+     * @return the engine, or null if it could not be initialized
+     */
+    public TessBaseAPI acquireApi (String lang)
+    {
+        EnginePool pool = pools.get(lang);
+
+        if (pool == null) {
+            pools.putIfAbsent(lang, new EnginePool(lang));
+            pool = pools.get(lang);
+        }
+
+        return pool.acquire();
+    }
+
+    //------------//
+    // releaseApi //
+    //------------//
+    /**
+     * Give back to its pool an engine obtained via {@link #acquireApi(String)}.
+     *
+     * @param lang the language specification used to acquire the engine
+     * @param api  the engine to release
+     */
+    public void releaseApi (String lang,
+                            TessBaseAPI api)
+    {
+        pools.get(lang).release(api);
+    }
+
+    //------------//
+    // discardApi //
+    //------------//
+    /**
+     * Dispose of an engine obtained via {@link #acquireApi(String)}, rather than giving
+     * it back to its pool.
+     *
+     * @param lang the language specification used to acquire the engine
+     * @param api  the engine to discard
+     */
+    public void discardApi (String lang,
+                            TessBaseAPI api)
+    {
+        pools.get(lang).discard(api);
+    }
+
     //--------------//
     // getLanguages //
     //--------------//
@@ -336,6 +403,69 @@ public class TesseractOCR
         return LazySingleton.INSTANCE;
     }
 
+    //------------//
+    // EnginePool //
+    //------------//
+    /**
+     * Bounded pool of engines initialized for a given language specification.
+     */
+    private class EnginePool
+    {
+
+        /** Language specification. */
+        private final String lang;
+
+        /** Idle engines. */
+        private final ConcurrentLinkedQueue<TessBaseAPI> idles = new ConcurrentLinkedQueue<>();
+
+        /** Permits for engines in use. */
+        private final Semaphore permits;
+
+        EnginePool (String lang)
+        {
+            this.lang = lang;
+
+            final int max = constants.maxEngines.getValue();
+            permits = new Semaphore((max > 0) ? max : OmrExecutors.getNumberOfCpus(), true);
+        }
+
+        public TessBaseAPI acquire ()
+        {
+            permits.acquireUninterruptibly();
+
+            TessBaseAPI api = idles.poll();
+
+            if (api == null) {
+                api = new TessBaseAPI();
+
+                if (api.Init(getOcrFolder().toString(), lang) != 0) {
+                    logger.warn("Could not initialize Tesseract with lang {}", lang);
+                    api.End();
+                    permits.release();
+
+                    return null;
+                }
+
+                logger.debug("New Tesseract engine for lang {}", lang);
+            }
+
+            return api;
+        }
+
+        public void discard (TessBaseAPI api)
+        {
+            api.End();
+            permits.release();
+        }
+
+        public void release (TessBaseAPI api)
+        {
+            api.Clear(); // Free image and recognition results, but keep language data
+            idles.add(api);
+            permits.release();
+        }
+    }
+
     //---------------//
     // LazySingleton //
     //---------------//
@@ -360,6 +490,11 @@ public class TesseractOCR
                 false,
                 "Should we keep the images sent to Tesseract?");
 
+        private final Constant.Integer maxEngines = new Constant.Integer(
+                "Engines",
+                0,
+                "Maximum number of Tesseract engines per language (0 for number of CPUs)");
+
         private final Scale.Fraction maxDashWidth = new Scale.Fraction(
                 1.0,
                 "Maximum width for a dash character");
@@ -29,7 +29,6 @@ import org.audiveris.omr.text.TextLine;
 import org.audiveris.omr.text.TextWord;
 
 import org.bytedeco.javacpp.*;
-import static org.bytedeco.javacpp.lept.*;
 import static org.bytedeco.javacpp.tesseract.*;
 
 import org.slf4j.Logger;
@@ -38,12 +37,14 @@ import org.slf4j.LoggerFactory;
 import java.awt.Rectangle;
 import java.awt.geom.Line2D;
 import java.awt.geom.Rectangle2D;
+import java.awt.Graphics;
 import java.awt.image.BufferedImage;
-import java.io.ByteArrayOutputStream;
-import java.io.FileOutputStream;
+import java.awt.image.ComponentSampleModel;
+import java.awt.image.DataBufferByte;
+import java.awt.image.SampleModel;
+import java.awt.image.WritableRaster;
 import java.io.IOException;
 import java.io.UnsupportedEncodingException;
-import java.nio.ByteBuffer;
 import java.nio.file.Files;
 import java.nio.file.Path;
 import java.util.ArrayList;
@@ -51,9 +52,7 @@ import java.util.Collections;
 import java.util.List;
 
 import javax.imageio.ImageIO;
-import javax.imageio.ImageWriter;
 import javax.imageio.spi.IIORegistry;
-import javax.imageio.stream.ImageOutputStream;
 
 /**
  * Class {@code TesseractOrder} carries a processing order submitted to Tesseract OCR
@@ -98,8 +97,14 @@ public class TesseractOrder
     /** The dedicated API. */
     private TessBaseAPI api;
 
-    /** The image being processed. */
-    private final PIX image;
+    /** Gray pixels of the image being processed, one byte per pixel, row after row. */
+    private final byte[] pixels;
+
+    /** Image width. */
+    private final int width;
+
+    /** Image height. */
+    private final int height;
 
     //----------------//
     // TesseractOrder //
@@ -114,8 +119,7 @@ public class TesseractOrder
      * @param segMode       The desired page segmentation mode
      * @param bufferedImage The image to process
      * @throws UnsatisfiedLinkError When bridge to C++ could not be loaded
-     * @throws IOException          When temporary Tiff buffer failed
-     * @throws RuntimeException     When PIX image failed
+     * @throws IOException          When disk copy of image failed
      */
     public TesseractOrder (String label,
                            int serial,
@@ -132,14 +136,14 @@ public class TesseractOrder
         this.lang = lang;
         this.segMode = segMode;
 
-        // Build a PIX from the image provided
-        ByteBuffer buf = toTiffBuffer(bufferedImage);
-        buf.position(0);
-        image = pixReadMemTiff(buf, buf.capacity(), 0);
+        // Grab raw gray pixels from the image provided
+        width = bufferedImage.getWidth();
+        height = bufferedImage.getHeight();
+        pixels = toGrayBytes(bufferedImage);
 
-        if (image == null) {
-            logger.warn("Invalid image {}", label);
-            throw new RuntimeException("Invalid image");
+        // Should we keep a local copy of this image on disk?
+        if (keepImage) {
+            keepImage(bufferedImage);
         }
     }
 
@@ -147,7 +151,7 @@ public class TesseractOrder
     // process //
     //---------//
     /**
-     * Actually allocate a Tesseract API and recognize the image.
+     * Actually get a Tesseract API from the pool and recognize the image.
      *
      * @return the sequence of lines found
      */
@@ -158,18 +162,15 @@ public class TesseractOrder
         }
 
         try {
-            final Path ocrFolder = TesseractOCR.getInstance().getOcrFolder();
-            api = new TessBaseAPI();
-
-            // Init API with proper language
-            if (api.Init(ocrFolder.toString(), lang) != 0) {
-                logger.warn("Could not initialize Tesseract with lang {}", lang);
+            // Get an API initialized with proper language
+            api = TesseractOCR.getInstance().acquireApi(lang);
 
+            if (api == null) {
                 return finish(null);
             }
 
-            // Set API image
-            api.SetImage(image);
+            // Set API image, as 8-bit gray raw data
+            api.SetImage(pixels, width, height, 1, width);
 
             // Perform layout analysis according to segmentation mode
             api.SetPageSegMode(segMode);
@@ -194,6 +195,12 @@ public class TesseractOrder
             }
 
             throw new RuntimeException(ex);
+        } finally {
+            if (api != null) {
+                // Processing aborted, engine may be in an unknown state
+                TesseractOCR.getInstance().discardApi(lang, api);
+                api = null;
+            }
         }
     }
 
@@ -208,12 +215,9 @@ public class TesseractOrder
      */
     private List<TextLine> finish (List<TextLine> lines)
     {
-        if (image != null) {
-            pixDestroy(image);
-        }
-
         if (api != null) {
-            api.End();
+            TesseractOCR.getInstance().releaseApi(lang, api);
+            api = null;
         }
 
         return lines;
@@ -392,53 +396,69 @@ public class TesseractOrder
         }
     }
 
-    //--------------//
-    // toTiffBuffer //
-    //--------------//
+    //-------------//
+    // toGrayBytes //
+    //-------------//
     /**
-     * Convert the given image into a TIFF-formatted ByteBuffer for passing it directly
-     * to Tesseract.
+     * Report the gray pixels of the given image, as a compact array of one byte per pixel,
+     * to be handed directly to Tesseract.
      * <p>
-     * A copy of the tiff buffer can be saved on disk, if so desired.
+     * For a TYPE_BYTE_GRAY image with compact layout (the standard case), the image data array
+     * is used as is, otherwise the image is first drawn into a compact gray image.
      *
      * @param image the input image
-     * @return a buffer in TIFF format
+     * @return the gray pixels, row after row
      */
-    private ByteBuffer toTiffBuffer (BufferedImage image)
-            throws IOException
+    private byte[] toGrayBytes (BufferedImage image)
     {
-        ByteArrayOutputStream baos = new ByteArrayOutputStream();
-
-        try (ImageOutputStream ios = ImageIO.createImageOutputStream(baos)) {
-            ImageWriter writer = ImageIO.getImageWritersByFormatName("tiff").next();
-            writer.setOutput(ios);
-            writer.write(image);
-        } catch (IOException ex) {
-            logger.warn("Could not write image", ex);
+        if (image.getType() == BufferedImage.TYPE_BYTE_GRAY) {
+            final WritableRaster raster = image.getRaster();
+            final SampleModel model = raster.getSampleModel();
+
+            if ((raster.getSampleModelTranslateX() == 0)
+                        && (raster.getSampleModelTranslateY() == 0)
+                        && (model instanceof ComponentSampleModel)
+                        && (((ComponentSampleModel) model).getScanlineStride() == width)) {
+                final byte[] data = ((DataBufferByte) raster.getDataBuffer()).getData();
+
+                if (data.length == (width * height)) {
+                    return data;
+                }
+            }
         }
 
-        ByteBuffer buf = ByteBuffer.allocate(baos.size());
-        byte[] bytes = baos.toByteArray();
-        buf.put(bytes);
+        final BufferedImage gray = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
+        final Graphics g = gray.createGraphics();
+        g.drawImage(image, 0, 0, null);
+        g.dispose();
 
-        // Should we keep a local copy of this buffer on disk?
-        if (keepImage) {
-            String name = String.format("%03d-", serial) + ((label != null) ? label : "");
-            Path path = WellKnowns.TEMP_FOLDER.resolve(name + ".tif");
+        return ((DataBufferByte) gray.getRaster().getDataBuffer()).getData();
+    }
 
-            // Make sure the TEMP directory exists
-            if (!Files.exists(WellKnowns.TEMP_FOLDER)) {
-                Files.createDirectories(WellKnowns.TEMP_FOLDER);
-            }
+    //-----------//
+    // keepImage //
+    //-----------//
+    /**
+     * Save a TIFF copy of the given image on disk.
+     *
+     * @param image the input image
+     */
+    private void keepImage (BufferedImage image)
+            throws IOException
+    {
+        String name = String.format("%03d-", serial) + ((label != null) ? label : "");
+        Path path = WellKnowns.TEMP_FOLDER.resolve(name + ".tif");
 
-            try (FileOutputStream fos = new FileOutputStream(path.toFile())) {
-                fos.write(bytes);
-            } catch (IOException ex) {
-                logger.warn("Could not write to {}", path, ex);
-            }
+        // Make sure the TEMP directory exists
+        if (!Files.exists(WellKnowns.TEMP_FOLDER)) {
+            Files.createDirectories(WellKnowns.TEMP_FOLDER);
         }
 
-        return buf;
+        try {
+            ImageIO.write(image, "tiff", path.toFile());
+        } catch (IOException ex) {
+            logger.warn("Could not write to {}", path, ex);
+        }
     }
 
     /**
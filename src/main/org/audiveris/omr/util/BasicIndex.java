@@ -36,6 +36,7 @@ import java.util.Collections;
 import java.util.Comparator;
 import java.util.Iterator;
 import java.util.List;
+import java.util.SortedSet;
 import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -88,6 +89,9 @@ public class BasicIndex<E extends Entity>
     /** (debug) for easy inspection via browser. */
     private Collection<E> values;
 
+    /** Spatial grid on entity bounds, if any, lazily built. */
+    private SpatialGrid grid;
+
     /**
      * Creates a new {@code BasicIndex} object.
      *
@@ -113,7 +117,7 @@ public class BasicIndex<E extends Entity>
     @Override
     public List<E> getContainedEntities (Rectangle rectangle)
     {
-        return Entities.containedEntities(iterator(), rectangle);
+        return Entities.containedEntities(iterator(rectangle), rectangle);
     }
 
     //-----------------------//
@@ -122,7 +126,7 @@ public class BasicIndex<E extends Entity>
     @Override
     public List<E> getContainingEntities (Point point)
     {
-        return Entities.containingEntities(iterator(), point);
+        return Entities.containingEntities(iterator(new Rectangle(point.x, point.y, 1, 1)), point);
     }
 
     //-------------//
@@ -259,6 +263,7 @@ public class BasicIndex<E extends Entity>
         }
 
         entities.put(id, entity);
+        gridAdd(entity);
 
         if (isVipId(id)) {
             entity.setVip(true);
@@ -284,6 +289,47 @@ public class BasicIndex<E extends Entity>
         return entities.values().iterator();
     }
 
+    //----------//
+    // iterator //
+    //----------//
+    /**
+     * Report an iterator on entities whose bounds may intersect the provided area.
+     * <p>
+     * If this index uses a spatial grid, only the candidate entities of the cells concerned are
+     * browsed, otherwise all entities are browsed.
+     * In both cases, entities are browsed in ID order and it is up to the caller to check the
+     * actual entity bounds.
+     *
+     * @param area the area of interest
+     * @return iterator on candidate entities
+     */
+    public Iterator<E> iterator (Rectangle area)
+    {
+        final SpatialGrid theGrid = getGrid();
+
+        if (theGrid == null) {
+            return iterator();
+        }
+
+        final SortedSet<Integer> ids = theGrid.candidates(area);
+
+        if (ids == null) {
+            return iterator();
+        }
+
+        final List<E> list = new ArrayList<>(ids.size());
+
+        for (Integer id : ids) {
+            final E entity = entities.get(id);
+
+            if (entity != null) {
+                list.add(entity);
+            }
+        }
+
+        return list.iterator();
+    }
+
     //----------//
     // register //
     //----------//
@@ -299,6 +345,7 @@ public class BasicIndex<E extends Entity>
         entity.setId(id);
 
         entities.put(id, entity);
+        gridAdd(entity);
 
         if (isVipId(id)) {
             entity.setVip(true);
@@ -315,6 +362,12 @@ public class BasicIndex<E extends Entity>
     public void remove (E entity)
     {
         entities.remove(entity.getId());
+
+        synchronized (this) {
+            if (grid != null) {
+                grid.remove(entity.getId());
+            }
+        }
     }
 
     //-------//
@@ -325,6 +378,10 @@ public class BasicIndex<E extends Entity>
     {
         lastId.set(0);
         entities.clear();
+
+        synchronized (this) {
+            grid = null;
+        }
     }
 
     //-----------//
@@ -380,6 +437,22 @@ public class BasicIndex<E extends Entity>
         return getName();
     }
 
+    //-----------//
+    // isSpatial //
+    //-----------//
+    /**
+     * Report whether lookups by location can use a spatial grid on entity bounds.
+     * <p>
+     * This is safe only when the bounds of any entity no longer change once the entity is
+     * registered or inserted in this index.
+     *
+     * @return true to use a spatial grid, false by default
+     */
+    protected boolean isSpatial ()
+    {
+        return false;
+    }
+
     //---------//
     // isValid //
     //---------//
@@ -394,6 +467,37 @@ public class BasicIndex<E extends Entity>
         return entity != null;
     }
 
+    //---------//
+    // getGrid //
+    //---------//
+    /**
+     * Report the spatial grid, built on first need, if this index is spatial.
+     *
+     * @return the grid or null
+     */
+    private synchronized SpatialGrid getGrid ()
+    {
+        if ((grid == null) && isSpatial()) {
+            grid = new SpatialGrid();
+
+            for (E entity : entities.values()) {
+                grid.add(entity.getId(), entity.getBounds());
+            }
+        }
+
+        return grid;
+    }
+
+    //---------//
+    // gridAdd //
+    //---------//
+    private synchronized void gridAdd (E entity)
+    {
+        if (grid != null) {
+            grid.add(entity.getId(), entity.getBounds());
+        }
+    }
+
     //----------------//
     // afterUnmarshal //
     //----------------//
@@ -0,0 +1,232 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                                     S p a t i a l G r i d                                      //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.util;
+
+import org.audiveris.omr.constant.Constant;
+import org.audiveris.omr.constant.ConstantSet;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.SortedSet;
+import java.util.TreeSet;
+
+/**
+ * Class {@code SpatialGrid} is a uniform grid of square cells, which records the IDs of
+ * entities per cell, according to entity bounds.
+ * <p>
+ * An entity ID is recorded in every cell its bounds intersect, and the cells range of each ID is
+ * kept, so that an entity can be removed even if its bounds are no longer available (this is the
+ * case of a weak entity whose referent has been collected).
+ * <p>
+ * A lookup reports the IDs of candidate entities only, it is up to the caller to check the actual
+ * entities.
+ *
+ * @author Hervé Bitteur
+ */
+class SpatialGrid
+{
+
+    private static final Constants constants = new Constants();
+
+    /** Cell side length. */
+    private final int cellSize = constants.cellSize.getValue();
+
+    /** IDs recorded per cell. */
+    private final Map<Long, List<Integer>> cells = new HashMap<>();
+
+    /** Range of cells, per recorded ID. */
+    private final Map<Integer, Rectangle> ranges = new HashMap<>();
+
+    //-----//
+    // add //
+    //-----//
+    /**
+     * Record an entity ID with its bounds.
+     *
+     * @param id     entity ID
+     * @param bounds entity bounds, perhaps null
+     */
+    synchronized void add (int id,
+                           Rectangle bounds)
+    {
+        remove(id);
+
+        if (bounds == null) {
+            return;
+        }
+
+        // A degenerated rectangle still occupies its location
+        final Rectangle range = rangeOf(
+                new Rectangle(
+                        bounds.x,
+                        bounds.y,
+                        Math.max(1, bounds.width),
+                        Math.max(1, bounds.height)));
+        ranges.put(id, range);
+
+        for (int cx = range.x; cx < (range.x + range.width); cx++) {
+            for (int cy = range.y; cy < (range.y + range.height); cy++) {
+                final Long key = key(cx, cy);
+                List<Integer> ids = cells.get(key);
+
+                if (ids == null) {
+                    cells.put(key, ids = new ArrayList<>());
+                }
+
+                ids.add(id);
+            }
+        }
+    }
+
+    //-------//
+    // clear //
+    //-------//
+    /**
+     * Forget all recorded IDs.
+     */
+    synchronized void clear ()
+    {
+        cells.clear();
+        ranges.clear();
+    }
+
+    //------------//
+    // candidates //
+    //------------//
+    /**
+     * Report the IDs of entities whose bounds may intersect the provided area.
+     *
+     * @param area the area of interest
+     * @return the candidate IDs, in increasing order, or null if the area spans more cells than
+     *         there are recorded IDs (a full browsing is then more efficient)
+     */
+    synchronized SortedSet<Integer> candidates (Rectangle area)
+    {
+        final SortedSet<Integer> ids = new TreeSet<>();
+
+        if (area.isEmpty()) {
+            return ids;
+        }
+
+        final Rectangle range = rangeOf(area);
+
+        if (((long) range.width * range.height) > ranges.size()) {
+            return null;
+        }
+
+        for (int cx = range.x; cx < (range.x + range.width); cx++) {
+            for (int cy = range.y; cy < (range.y + range.height); cy++) {
+                final List<Integer> cellIds = cells.get(key(cx, cy));
+
+                if (cellIds != null) {
+                    ids.addAll(cellIds);
+                }
+            }
+        }
+
+        return ids;
+    }
+
+    //--------//
+    // remove //
+    //--------//
+    /**
+     * Forget an entity ID.
+     *
+     * @param id entity ID
+     */
+    synchronized void remove (int id)
+    {
+        final Rectangle range = ranges.remove(id);
+
+        if (range == null) {
+            return;
+        }
+
+        for (int cx = range.x; cx < (range.x + range.width); cx++) {
+            for (int cy = range.y; cy < (range.y + range.height); cy++) {
+                final Long key = key(cx, cy);
+                final List<Integer> ids = cells.get(key);
+
+                if (ids != null) {
+                    ids.remove(Integer.valueOf(id));
+
+                    if (ids.isEmpty()) {
+                        cells.remove(key);
+                    }
+                }
+            }
+        }
+    }
+
+    //--------//
+    // cellOf //
+    //--------//
+    private int cellOf (int coord)
+    {
+        return (coord >= 0) ? (coord / cellSize) : (((coord + 1) / cellSize) - 1);
+    }
+
+    //-----//
+    // key //
+    //-----//
+    private static Long key (int cx,
+                             int cy)
+    {
+        return ((long) cx << 32) | (cy & 0xFFFFFFFFL);
+    }
+
+    //---------//
+    // rangeOf //
+    //---------//
+    /**
+     * Report the range of cells intersected by the provided rectangle.
+     *
+     * @param rect the provided rectangle (not empty)
+     * @return the range of cells, as a rectangle in cell units
+     */
+    private Rectangle rangeOf (Rectangle rect)
+    {
+        final int cxMin = cellOf(rect.x);
+        final int cyMin = cellOf(rect.y);
+        final int cxMax = cellOf((rect.x + rect.width) - 1);
+        final int cyMax = cellOf((rect.y + rect.height) - 1);
+
+        return new Rectangle(cxMin, cyMin, cxMax - cxMin + 1, cyMax - cyMin + 1);
+    }
+
+    //-----------//
+    // Constants //
+    //-----------//
+    private static class Constants
+            extends ConstantSet
+    {
+
+        private final Constant.Integer cellSize = new Constant.Integer(
+                "Pixels",
+                128,
+                "Side length of spatial grid cells for entity lookups");
+    }
+}
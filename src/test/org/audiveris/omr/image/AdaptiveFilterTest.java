@@ -0,0 +1,117 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                              A d a p t i v e F i l t e r T e s t                               //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.image;
+
+import ij.process.ByteProcessor;
+
+import org.audiveris.omr.run.RunTable;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Class {@code AdaptiveFilterTest} checks that the table built band by band by
+ * {@link AdaptiveFilter#filteredTable()} agrees with {@link AdaptiveFilter#isFore(int, int)}
+ * on every pixel, notably on rows around band seams.
+ *
+ * @author Hervé Bitteur
+ */
+public class AdaptiveFilterTest
+{
+
+    private static final double MEAN_COEFF = 0.7;
+
+    private static final double STD_DEV_COEFF = 0.9;
+
+    /**
+     * Creates a new {@code AdaptiveFilterTest} object.
+     */
+    public AdaptiveFilterTest ()
+    {
+    }
+
+    @Test
+    public void testRandomFilter ()
+    {
+        System.out.println("\n+++ randomFilter");
+
+        final ByteProcessor source = createSource(150, 210);
+        check(new RandomFilter(source, MEAN_COEFF, STD_DEV_COEFF).filteredTable(),
+              new RandomFilter(source, MEAN_COEFF, STD_DEV_COEFF));
+    }
+
+    @Test
+    public void testVerticalFilter ()
+    {
+        System.out.println("\n+++ verticalFilter");
+
+        final ByteProcessor source = createSource(173, 301);
+        check(new VerticalFilter(source, MEAN_COEFF, STD_DEV_COEFF).filteredTable(),
+              new VerticalFilter(source, MEAN_COEFF, STD_DEV_COEFF));
+    }
+
+    //-------//
+    // check //
+    //-------//
+    /**
+     * Check table against a fresh filter, browsed column by column as vertical tiles expect.
+     */
+    private void check (RunTable table,
+                        AdaptiveFilter filter)
+    {
+        assertEquals(filter.getWidth(), table.getWidth());
+        assertEquals(filter.getHeight(), table.getHeight());
+
+        for (int x = 0; x < table.getWidth(); x++) {
+            for (int y = 0; y < table.getHeight(); y++) {
+                assertEquals("x:" + x + " y:" + y, filter.isFore(x, y), table.get(x, y) == 0);
+            }
+        }
+    }
+
+    //--------------//
+    // createSource //
+    //--------------//
+    /**
+     * Create a noisy source, with a horizontal gradient and a few dark strokes, so that
+     * local thresholds vary from one window to the other.
+     */
+    private ByteProcessor createSource (int width,
+                                        int height)
+    {
+        final Random random = new Random(123);
+        final ByteProcessor source = new ByteProcessor(width, height);
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                final int gradient = 100 + ((100 * x) / width);
+                final boolean stroke = ((y % 23) < 3) || ((x % 31) < 2);
+                final int value = stroke ? random.nextInt(80) : gradient + random.nextInt(56);
+                source.set(x, y, value);
+            }
+        }
+
+        return source;
+    }
+}
@@ -0,0 +1,122 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                           E u c l i d e a n D i s t a n c e T e s t                            //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.image;
+
+import ij.process.ByteProcessor;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Class {@code EuclideanDistanceTest} checks the exact distance transform against a
+ * brute force computation.
+ *
+ * @author Hervé Bitteur
+ */
+public class EuclideanDistanceTest
+{
+
+    /**
+     * Creates a new EuclideanDistanceTest object.
+     */
+    public EuclideanDistanceTest ()
+    {
+    }
+
+    @Test
+    public void testEmpty ()
+    {
+        System.out.println("\n+++ testEmpty");
+
+        ByteProcessor input = new ByteProcessor(7, 5);
+        input.setValue(255);
+        input.fill();
+
+        DistanceTable table = new EuclideanDistance().computeToFore(input);
+
+        for (int y = 0; y < 5; y++) {
+            for (int x = 0; x < 7; x++) {
+                assertEquals(ChamferDistance.VALUE_UNKNOWN, table.getValue(x, y));
+            }
+        }
+    }
+
+    @Test
+    public void testRandom ()
+    {
+        System.out.println("\n+++ testRandom");
+
+        final Random random = new Random(123);
+
+        for (int n = 0; n < 50; n++) {
+            final int width = 1 + random.nextInt(60);
+            final int height = 1 + random.nextInt(60);
+            final double density = random.nextDouble() * 0.1;
+            final ByteProcessor input = new ByteProcessor(width, height);
+            input.setValue(255);
+            input.fill();
+            input.set(random.nextInt(width), random.nextInt(height), 0);
+
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    if (random.nextDouble() < density) {
+                        input.set(x, y, 0);
+                    }
+                }
+            }
+
+            final DistanceTable table = new EuclideanDistance().computeToFore(input);
+            assertEquals(3, table.getNormalizer());
+
+            for (int y = 0; y < height; y++) {
+                for (int x = 0; x < width; x++) {
+                    final int exp = (int) Math.rint(3 * Math.sqrt(bruteForce(input, x, y)));
+                    assertEquals("x:" + x + " y:" + y, exp, table.getValue(x, y));
+                }
+            }
+        }
+    }
+
+    //------------//
+    // bruteForce //
+    //------------//
+    private static long bruteForce (ByteProcessor input,
+                                    int x,
+                                    int y)
+    {
+        long best = Long.MAX_VALUE;
+
+        for (int j = 0; j < input.getHeight(); j++) {
+            for (int i = 0; i < input.getWidth(); i++) {
+                if (input.get(i, j) == 0) {
+                    final long dx = i - x;
+                    final long dy = j - y;
+                    best = Math.min(best, (dx * dx) + (dy * dy));
+                }
+            }
+        }
+
+        return best;
+    }
+}
@@ -21,12 +21,17 @@
 // </editor-fold>
 package org.audiveris.omr.image;
 
+import ij.process.ByteProcessor;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.fail;
 import org.junit.Test;
 
 import java.awt.image.BufferedImage;
 import java.awt.image.Raster;
 import java.awt.image.WritableRaster;
+import java.util.Arrays;
+import java.util.Random;
 
 /**
  * Class {@code MedianGrayFilterTest}
@@ -121,6 +126,37 @@ public class MedianGrayFilterTest
         }
     }
 
+    @Test
+    public void testProcess_random ()
+    {
+        System.out.println("\nprocess_random");
+
+        final Random random = new Random(123);
+
+        for (int radius = 0; radius <= 6; radius++) {
+            final int w = 20 + random.nextInt(60);
+            final int h = 20 + random.nextInt(60);
+            final ByteProcessor input = new ByteProcessor(w, h);
+
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    input.set(x, y, random.nextInt(256));
+                }
+            }
+
+            final ByteProcessor result = new MedianGrayFilter(radius).filter(input);
+
+            for (int y = 0; y < h; y++) {
+                for (int x = 0; x < w; x++) {
+                    assertEquals(
+                            "radius:" + radius + " x:" + x + " y:" + y,
+                            bruteMedian(input, x, y, radius),
+                            result.get(x, y));
+                }
+            }
+        }
+    }
+
     //    @Test
     public void testProcess_white_1 ()
     {
@@ -163,6 +199,39 @@ public class MedianGrayFilterTest
         return true;
     }
 
+    /**
+     * Reference median, computed by brute force on a window reduced at image boundaries.
+     */
+    private int bruteMedian (ByteProcessor input,
+                             int x,
+                             int y,
+                             int radius)
+    {
+        final int rad = Math.min(
+                Math.min(radius, Math.min(x, y)),
+                Math.min(input.getWidth() - 1 - x, input.getHeight() - 1 - y));
+        final int[] histogram = new int[256];
+        Arrays.fill(histogram, 0);
+
+        for (int j = y - rad; j <= (y + rad); j++) {
+            for (int i = x - rad; i <= (x + rad); i++) {
+                histogram[input.get(i, j)]++;
+            }
+        }
+
+        final int side = (2 * rad) + 1;
+        final int medianCount = ((side * side) + 1) / 2;
+        int median = 255;
+        int sum = 0;
+
+        while (sum < medianCount) {
+            sum += histogram[median];
+            median--;
+        }
+
+        return median + 1;
+    }
+
     private BufferedImage createBlackImage ()
     {
         final BufferedImage img = new BufferedImage(width, height, BufferedImage.TYPE_BYTE_GRAY);
@@ -0,0 +1,165 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                                    T e m p l a t e T e s t                                     //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.image;
+
+import org.audiveris.omr.glyph.Shape;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class {@code TemplateTest} checks template evaluation, with and without early exit.
+ *
+ * @author Hervé Bitteur
+ */
+public class TemplateTest
+{
+
+    /**
+     * Creates a new TemplateTest object.
+     */
+    public TemplateTest ()
+    {
+    }
+
+    @Test
+    public void testEvaluate ()
+    {
+        System.out.println("\n+++ testEvaluate");
+
+        final Random random = new Random(456);
+        final int width = 40;
+        final int height = 30;
+        final Template template = createTemplate(random, 9, 7);
+
+        // Full table and a view on a larger table
+        final DistanceTable full = createTable(random, width, height);
+        final DistanceTable large = createTable(random, width + 10, height + 10);
+        final DistanceTable view = (DistanceTable) large.getView(
+                new Rectangle(5, 5, width, height));
+
+        for (DistanceTable table : new DistanceTable[]{full, view}) {
+            for (int y = -8; y < (height + 2); y++) {
+                for (int x = -10; x < (width + 2); x++) {
+                    final double exp = reference(template, x, y, table);
+                    assertEquals(exp, template.evaluate(x, y, null, table), 1e-9);
+
+                    for (double max : new double[]{0.1, 0.3, 0.5, 1.0}) {
+                        final double d = template.evaluate(x, y, null, table, max);
+
+                        if (exp <= max) {
+                            assertEquals(exp, d, 1e-9);
+                        } else {
+                            assertTrue(d > max);
+                            assertTrue(d <= exp);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    //-------------//
+    // createTable //
+    //-------------//
+    private static DistanceTable createTable (Random random,
+                                              int width,
+                                              int height)
+    {
+        final DistanceTable table = new DistanceTable.Short(width, height, 3);
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                final int r = random.nextInt(10);
+                final int val = (r < 4) ? 0 : ((r < 5) ? ChamferDistance.VALUE_UNKNOWN : r);
+                table.setValue(x, y, val);
+            }
+        }
+
+        return table;
+    }
+
+    //----------------//
+    // createTemplate //
+    //----------------//
+    private static Template createTemplate (Random random,
+                                            int width,
+                                            int height)
+    {
+        final List<PixelDistance> keyPoints = new ArrayList<>();
+
+        for (int y = 0; y < height; y++) {
+            for (int x = 0; x < width; x++) {
+                keyPoints.add(new PixelDistance(x, y, random.nextInt(3) - 1));
+            }
+        }
+
+        return new Template(
+                Shape.NOTEHEAD_BLACK,
+                64,
+                null,
+                width,
+                height,
+                keyPoints,
+                new Rectangle(0, 0, width, height));
+    }
+
+    //-----------//
+    // reference //
+    //-----------//
+    /**
+     * Straightforward evaluation, all weights being 1.
+     */
+    private static double reference (Template template,
+                                     int x,
+                                     int y,
+                                     DistanceTable table)
+    {
+        double weights = 0;
+        double total = 0;
+
+        for (PixelDistance pix : template.getKeyPoints()) {
+            final int nx = x + pix.x;
+            final int ny = y + pix.y;
+
+            if ((nx >= 0) && (nx < table.getWidth()) && (ny >= 0) && (ny < table.getHeight())) {
+                final int actual = table.getValue(nx, ny);
+
+                if (actual != ChamferDistance.VALUE_UNKNOWN) {
+                    weights += 1;
+
+                    if ((actual == 0) != (pix.d == 0)) {
+                        total += 1;
+                    }
+                }
+            }
+        }
+
+        return (weights == 0) ? Double.MAX_VALUE : (total / weights);
+    }
+}
@@ -0,0 +1,167 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                              S e c t i o n F a c t o r y T e s t                               //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.lag;
+
+import ij.process.ByteProcessor;
+
+import org.audiveris.omr.run.Orientation;
+import org.audiveris.omr.run.Run;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import java.awt.Point;
+import java.awt.Polygon;
+import java.awt.Rectangle;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class {@code SectionFactoryTest} checks the sections built out of a random buffer, with
+ * respect to their runs, weight, centroid and polygon.
+ *
+ * @author Hervé Bitteur
+ */
+public class SectionFactoryTest
+{
+
+    /**
+     * Creates a new {@code SectionFactoryTest} object.
+     */
+    public SectionFactoryTest ()
+    {
+    }
+
+    @Test
+    public void testCreateSections ()
+    {
+        System.out.println("\n+++ createSections");
+
+        final Random random = new Random(456);
+        final ByteProcessor buffer = new ByteProcessor(40, 30);
+
+        for (int y = 0; y < buffer.getHeight(); y++) {
+            for (int x = 0; x < buffer.getWidth(); x++) {
+                buffer.set(x, y, (random.nextInt(5) < 3) ? 0 : 255);
+            }
+        }
+
+        final Rectangle roi = new Rectangle(4, 3, 30, 24);
+        int foreCount = 0;
+
+        for (int y = roi.y; y < (roi.y + roi.height); y++) {
+            for (int x = roi.x; x < (roi.x + roi.width); x++) {
+                if (buffer.get(x, y) == 0) {
+                    foreCount++;
+                }
+            }
+        }
+
+        for (Orientation orientation : Orientation.values()) {
+            final SectionFactory factory = new SectionFactory(
+                    orientation,
+                    new JunctionRatioPolicy(1.5));
+            final List<Section> sections = factory.createSections(buffer, roi);
+            final ByteProcessor painted = new ByteProcessor(buffer.getWidth(), buffer.getHeight());
+            painted.invert();
+
+            int weight = 0;
+
+            for (Section section : sections) {
+                checkSection(section);
+                weight += section.getWeight();
+                section.fillBuffer(painted, new Point(0, 0));
+            }
+
+            assertEquals(orientation + " weight", foreCount, weight);
+
+            for (int y = 0; y < buffer.getHeight(); y++) {
+                for (int x = 0; x < buffer.getWidth(); x++) {
+                    final int expected = roi.contains(x, y) ? buffer.get(x, y) : 255;
+                    assertEquals(orientation + " at " + x + "," + y, expected, painted.get(x, y));
+                }
+            }
+        }
+    }
+
+    //--------------//
+    // checkSection //
+    //--------------//
+    private void checkSection (Section section)
+    {
+        final BasicSection basic = (BasicSection) section;
+        final boolean vertical = section.isVertical();
+        final List<Run> runs = section.getRuns();
+        final Polygon polygon = section.getPolygon();
+        assertEquals(section.getRunCount(), runs.size());
+
+        int weight = 0;
+        int maxLength = 0;
+        long sumX = 0;
+        long sumY = 0;
+
+        for (int i = 0; i < runs.size(); i++) {
+            final Run run = runs.get(i);
+            assertEquals(run.getStart(), basic.getRunStart(i));
+            assertEquals(run.getLength(), basic.getRunLength(i));
+            weight += run.getLength();
+            maxLength = Math.max(maxLength, run.getLength());
+
+            final int pos = section.getFirstPos() + i;
+
+            for (int c = run.getStart(); c <= run.getStop(); c++) {
+                final int x = vertical ? pos : c;
+                final int y = vertical ? c : pos;
+                assertTrue(section + " polygon", polygon.contains(x + 0.5, y + 0.5));
+                sumX += x;
+                sumY += y;
+            }
+        }
+
+        assertEquals(weight, section.getWeight());
+        assertEquals(maxLength, section.getMaxRunLength());
+        assertEquals(runs.get(0).getStart(), section.getFirstRun().getStart());
+        assertEquals(runs.get(runs.size() - 1).getStop(), section.getLastRun().getStop());
+        assertEquals(weight, polygonArea(polygon));
+
+        final Point centroid = section.getCentroid();
+        assertEquals((double) sumX / weight, centroid.x, 1.0);
+        assertEquals((double) sumY / weight, centroid.y, 1.0);
+    }
+
+    //-------------//
+    // polygonArea //
+    //-------------//
+    private static int polygonArea (Polygon polygon)
+    {
+        long twice = 0;
+
+        for (int i = 0; i < polygon.npoints; i++) {
+            final int j = (i + 1) % polygon.npoints;
+            twice += ((long) polygon.xpoints[i] * polygon.ypoints[j])
+                             - ((long) polygon.xpoints[j] * polygon.ypoints[i]);
+        }
+
+        return (int) Math.abs(twice / 2);
+    }
+}
@@ -0,0 +1,155 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                               N e u r a l N e t w o r k T e s t                                //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.math;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertTrue;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Class {@code NeuralNetworkTest} checks that batch run of a network gives the same
+ * outputs as individual runs.
+ *
+ * @author Hervé Bitteur
+ */
+public class NeuralNetworkTest
+{
+
+    /**
+     * Creates a new {@code NeuralNetworkTest} object.
+     */
+    public NeuralNetworkTest ()
+    {
+    }
+
+    @Test
+    public void testBatchRun ()
+    {
+        System.out.println("\n+++ batchRun");
+
+        final int inputSize = 7;
+        final int hiddenSize = 5;
+        final int outputSize = 3;
+        final NeuralNetwork network = new NeuralNetwork(
+                inputSize,
+                hiddenSize,
+                outputSize,
+                1.0,
+                labels("in", inputSize),
+                labels("out", outputSize));
+
+        final Random random = new Random(789);
+        final int count = 10;
+        final double[][] inputs = new double[count + 2][];
+
+        for (int p = 0; p < count; p++) {
+            inputs[p] = new double[inputSize];
+
+            for (int i = 0; i < inputSize; i++) {
+                inputs[p][i] = random.nextGaussian();
+            }
+        }
+
+        // Buffers larger than needed
+        final double[][] hiddens = new double[count + 2][hiddenSize];
+        final double[][] outputs = new double[count + 2][outputSize];
+        network.run(count, inputs, hiddens, outputs);
+
+        for (int p = 0; p < count; p++) {
+            final double[] expected = network.run(inputs[p], null, null);
+            assertArrayEquals(expected, outputs[p], 0.0);
+        }
+    }
+
+    @Test
+    public void testTrainByBatch ()
+    {
+        System.out.println("\n+++ trainByBatch");
+
+        final int inputSize = 2;
+        final int outputSize = 2;
+        final NeuralNetwork network = new NeuralNetwork(
+                inputSize,
+                4,
+                outputSize,
+                0.5,
+                labels("in", inputSize),
+                labels("out", outputSize),
+                2.0,
+                0.5,
+                200);
+
+        // Two well separated classes
+        final Random random = new Random(123);
+        final int patterns = 200;
+        final double[][] inputs = new double[patterns][];
+        final double[][] desired = new double[patterns][];
+
+        for (int p = 0; p < patterns; p++) {
+            final boolean first = (p % 2) == 0;
+            final double center = first ? -1 : 1;
+            inputs[p] = new double[]{
+                center + (0.3 * random.nextGaussian()),
+                center + (0.3 * random.nextGaussian())};
+            desired[p] = first ? new double[]{1, 0} : new double[]{0, 1};
+        }
+
+        final double before = mse(network, inputs, desired);
+        network.trainByBatch(inputs, desired, null, 1, 16);
+
+        final double after = mse(network, inputs, desired);
+        System.out.println("mse before: " + before + " after: " + after);
+        assertTrue(after < (before / 10));
+    }
+
+    private static double mse (NeuralNetwork network,
+                               double[][] inputs,
+                               double[][] desired)
+    {
+        double mse = 0;
+
+        for (int p = 0; p < inputs.length; p++) {
+            final double[] outs = network.run(inputs[p], null, null);
+
+            for (int o = 0; o < outs.length; o++) {
+                final double dif = desired[p][o] - outs[o];
+                mse += (dif * dif);
+            }
+        }
+
+        return mse / inputs.length;
+    }
+
+    private static String[] labels (String prefix,
+                                    int size)
+    {
+        final String[] labels = new String[size];
+
+        for (int i = 0; i < size; i++) {
+            labels[i] = prefix + i;
+        }
+
+        return labels;
+    }
+}
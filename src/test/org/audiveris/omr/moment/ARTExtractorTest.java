@@ -4,12 +4,23 @@
  */
 package org.audiveris.omr.moment;
 
+import ij.process.ByteProcessor;
+
+import org.audiveris.omr.math.PointsCollector;
 import org.audiveris.omr.moments.ARTMoments;
 import org.audiveris.omr.moments.BasicARTExtractor;
 import org.audiveris.omr.moments.BasicARTMoments;
+import static org.audiveris.omr.moments.ARTMoments.*;
+import org.audiveris.omr.run.Orientation;
+import org.audiveris.omr.run.RunTable;
+import org.audiveris.omr.run.RunTableFactory;
+import org.audiveris.omr.util.ByteUtil;
 
+import static org.junit.Assert.*;
 import org.junit.*;
 
+import java.util.Random;
+
 /**
  * Unit test for (Basic) ARTExtractor.
  *
@@ -37,4 +48,68 @@ public class ARTExtractorTest
     {
         super.testAllShapes(new BasicARTExtractor(), BasicARTMoments.class);
     }
+
+    /**
+     * Test of extraction from runs, against extraction from points.
+     */
+    @Test
+    public void testRuns ()
+    {
+        System.out.println("\n+++ runs");
+
+        final Random random = new Random(321);
+        double worst = 0;
+
+        for (int n = 0; n < 40; n++) {
+            // Random ring portion
+            final int size = 5 + random.nextInt(150);
+            final double outer = size / 2.0;
+            final double inner = outer * random.nextDouble() * 0.8;
+            final double cut = random.nextDouble() * size;
+            final ByteProcessor buffer = new ByteProcessor(size, size);
+            ByteUtil.raz(buffer);
+
+            for (int x = 0; x < size; x++) {
+                for (int y = 0; y < size; y++) {
+                    final double d = Math.hypot(x - outer, (y - outer) * 1.3);
+
+                    if ((d <= outer) && (d >= inner) && ((x + (y / 2.0)) >= cut)) {
+                        buffer.set(x, y, 0);
+                    }
+                }
+            }
+
+            for (Orientation orientation : Orientation.values()) {
+                final RunTable table = new RunTableFactory(orientation).createTable(buffer);
+
+                if (table.getWeight() == 0) {
+                    continue;
+                }
+
+                final PointsCollector collector = new PointsCollector(null, table.getWeight());
+                table.cumulate(collector, null);
+
+                final ARTMoments expected = new BasicARTMoments();
+                final BasicARTExtractor extractor = new BasicARTExtractor();
+                extractor.setDescriptor(expected);
+                extractor.extract(
+                        collector.getXValues(),
+                        collector.getYValues(),
+                        collector.getSize());
+
+                final ARTMoments actual = table.computeArtMoments(0, 0);
+
+                for (int p = 0; p < ANGULAR; p++) {
+                    for (int r = 0; r < RADIAL; r++) {
+                        final double diff = Math.abs(
+                                expected.getModule(p, r) - actual.getModule(p, r));
+                        worst = Math.max(worst, diff);
+                        assertEquals(expected.getModule(p, r), actual.getModule(p, r), 0.005);
+                    }
+                }
+            }
+        }
+
+        System.out.println("worst difference: " + worst);
+    }
 }
@@ -0,0 +1,98 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                             R u n T a b l e B u i l d e r T e s t                              //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.run;
+
+import ij.process.ByteProcessor;
+
+import org.audiveris.omr.image.GlobalFilter;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+import java.util.Random;
+
+/**
+ * Class {@code RunTableBuilderTest} checks that a table built band by band is identical
+ * to the table retrieved from a full image buffer.
+ *
+ * @author Hervé Bitteur
+ */
+public class RunTableBuilderTest
+{
+
+    /**
+     * Creates a new {@code RunTableBuilderTest} object.
+     */
+    public RunTableBuilderTest ()
+    {
+    }
+
+    @Test
+    public void testBuildTable ()
+    {
+        System.out.println("\n+++ buildTable");
+
+        final Random random = new Random(456);
+        final int width = 37;
+        final int height = 53;
+
+        for (int bandHeight : new int[]{1, 5, 16, 53, 100}) {
+            final ByteProcessor buffer = new ByteProcessor(width, height);
+            final RunTableBuilder builder = new RunTableBuilder(width, height, bandHeight);
+
+            for (int b = builder.getBandCount() - 1; b >= 0; b--) {
+                final RunTableBuilder.Band band = builder.getBand(b);
+
+                for (int y = band.getYMin(); y <= band.getYMax(); y++) {
+                    for (int x = 0; x < width; x++) {
+                        final boolean fore = random.nextInt(3) == 0;
+                        buffer.set(x, y, fore ? 0 : 255);
+                        band.feed(x, y, fore);
+                    }
+                }
+            }
+
+            final RunTable expected = new RunTableFactory(Orientation.VERTICAL).createTable(buffer);
+            assertEquals("bandHeight:" + bandHeight, expected, builder.buildTable());
+        }
+    }
+
+    @Test
+    public void testFilteredTable ()
+    {
+        System.out.println("\n+++ filteredTable");
+
+        final Random random = new Random(789);
+        final ByteProcessor source = new ByteProcessor(150, 210);
+
+        for (int y = 0; y < source.getHeight(); y++) {
+            for (int x = 0; x < source.getWidth(); x++) {
+                source.set(x, y, random.nextInt(256));
+            }
+        }
+
+        final GlobalFilter filter = new GlobalFilter(source, 140);
+        final RunTable expected = new RunTableFactory(Orientation.VERTICAL).createTable(
+                filter.filteredImage());
+        assertEquals(expected, filter.filteredTable());
+    }
+}
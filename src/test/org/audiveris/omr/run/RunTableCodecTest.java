@@ -0,0 +1,86 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                               R u n T a b l e C o d e c T e s t                                //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.run;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Random;
+
+/**
+ * Class {@code RunTableCodecTest} checks the binary round trip of run tables.
+ *
+ * @author Hervé Bitteur
+ */
+public class RunTableCodecTest
+{
+
+    /**
+     * Creates a new {@code RunTableCodecTest} object.
+     */
+    public RunTableCodecTest ()
+    {
+    }
+
+    @Test
+    public void testRoundTrip ()
+            throws IOException
+    {
+        System.out.println("\n+++ roundTrip");
+
+        for (Orientation orientation : Orientation.values()) {
+            final RunTable table = createTable(orientation, 300, 200);
+
+            for (boolean deflated : new boolean[]{false, true}) {
+                final ByteArrayOutputStream os = new ByteArrayOutputStream();
+                RunTableCodec.write(table, os, deflated);
+
+                final RunTable copy = RunTableCodec.read(new ByteArrayInputStream(os.toByteArray()));
+                assertEquals(orientation + " deflated:" + deflated, table, copy);
+            }
+        }
+    }
+
+    private RunTable createTable (Orientation orientation,
+                                  int width,
+                                  int height)
+    {
+        final Random random = new Random(321);
+        final RunTable table = new RunTable(orientation, width, height);
+        final int length = orientation.isVertical() ? height : width;
+
+        for (int i = 0, iBreak = table.getSize(); i < iBreak; i += 1 + random.nextInt(3)) {
+            int start = random.nextInt(5);
+
+            while (start < length) {
+                final int runLength = Math.min(1 + random.nextInt(200), length - start);
+                table.addRun(i, start, runLength);
+                start += (runLength + 1 + random.nextInt(150));
+            }
+        }
+
+        return table;
+    }
+}
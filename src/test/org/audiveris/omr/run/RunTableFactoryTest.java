@@ -0,0 +1,119 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                             R u n T a b l e F a c t o r y T e s t                              //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.run;
+
+import ij.process.ByteProcessor;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class {@code RunTableFactoryTest} checks run retrieval, with region of interest and
+ * run filtering, against a straightforward retrieval.
+ *
+ * @author Hervé Bitteur
+ */
+public class RunTableFactoryTest
+{
+
+    /**
+     * Creates a new {@code RunTableFactoryTest} object.
+     */
+    public RunTableFactoryTest ()
+    {
+    }
+
+    @Test
+    public void testCreateTable ()
+    {
+        System.out.println("\n+++ createTable");
+
+        final Random random = new Random(789);
+        final ByteProcessor buffer = new ByteProcessor(45, 33);
+
+        for (int y = 0; y < buffer.getHeight(); y++) {
+            for (int x = 0; x < buffer.getWidth(); x++) {
+                buffer.set(x, y, (random.nextInt(5) < 2) ? 255 : 0);
+            }
+        }
+
+        final Rectangle roi = new Rectangle(3, 2, 30, 25);
+
+        for (Orientation orientation : Orientation.values()) {
+            for (int minLength : new int[]{1, 3}) {
+                final RunTable table = new RunTableFactory(
+                        orientation,
+                        new RunTableFactory.LengthFilter(minLength)).createTable(buffer, roi);
+                assertEquals(
+                        orientation + " minLength:" + minLength,
+                        expected(buffer, roi, orientation, minLength),
+                        table);
+            }
+        }
+    }
+
+    //----------//
+    // expected //
+    //----------//
+    private static RunTable expected (ByteProcessor buffer,
+                                      Rectangle roi,
+                                      Orientation orientation,
+                                      int minLength)
+    {
+        final RunTable table = new RunTable(orientation, roi.width, roi.height);
+        final boolean vertical = orientation.isVertical();
+        final int posCount = vertical ? roi.width : roi.height;
+        final int coordCount = vertical ? roi.height : roi.width;
+
+        for (int p = 0; p < posCount; p++) {
+            final List<Run> runs = new ArrayList<>();
+            int start = -1;
+
+            for (int c = 0; c <= coordCount; c++) {
+                final boolean fore = (c < coordCount) && ((vertical
+                        ? buffer.get(roi.x + p, roi.y + c)
+                        : buffer.get(roi.x + c, roi.y + p)) == 0);
+
+                if (fore) {
+                    if (start == -1) {
+                        start = c;
+                    }
+                } else if (start != -1) {
+                    if ((c - start) >= minLength) {
+                        runs.add(new Run(start, c - start));
+                    }
+
+                    start = -1;
+                }
+            }
+
+            table.setSequence(p, runs);
+        }
+
+        return table;
+    }
+}
@@ -26,12 +26,17 @@ import ij.process.ByteProcessor;
 import org.audiveris.omr.image.GlobalFilter;
 import static org.audiveris.omr.run.Orientation.*;
 import org.audiveris.omr.run.RunTable.RunSequence;
+import org.audiveris.omr.util.ByteUtil;
 import org.audiveris.omr.util.Predicate;
 import static org.junit.Assert.*;
 import org.junit.Test;
 
 import java.awt.Dimension;
 import java.awt.Point;
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
 
 /**
  *
@@ -186,6 +191,49 @@ public class RunTableTest
         assertEquals(expResult, result);
     }
 
+    /**
+     * Test of getForeCount method, of class RunTable.
+     */
+    @Test
+    public void testGetForeCount ()
+    {
+        System.out.println("\n+++ getForeCount");
+
+        final Random random = new Random(123);
+        final ByteProcessor buffer = new ByteProcessor(20, 30);
+
+        for (int y = 0; y < buffer.getHeight(); y++) {
+            for (int x = 0; x < buffer.getWidth(); x++) {
+                buffer.set(x, y, (random.nextInt(3) == 0) ? 255 : 0);
+            }
+        }
+
+        for (Orientation orientation : Orientation.values()) {
+            final RunTable instance = new RunTableFactory(orientation).createTable(buffer);
+
+            for (int index = 0; index < instance.getSize(); index++) {
+                final int cSize = orientation.isVertical() ? buffer.getHeight() : buffer.getWidth();
+
+                for (int cMin = -1; cMin <= cSize; cMin += 3) {
+                    for (int cMax = cMin; cMax <= (cSize + 1); cMax += 4) {
+                        int expResult = 0;
+
+                        for (int c = Math.max(0, cMin); c <= Math.min(cMax, cSize - 1); c++) {
+                            final int pix = orientation.isVertical() ? buffer.get(index, c)
+                                    : buffer.get(c, index);
+
+                            if (pix == 0) {
+                                expResult++;
+                            }
+                        }
+
+                        assertEquals(expResult, instance.getForeCount(index, cMin, cMax));
+                    }
+                }
+            }
+        }
+    }
+
     /**
      * Test of getHeight method, of class RunTable.
      */
@@ -322,6 +370,86 @@ public class RunTableTest
         assertEquals(5, instance.getTotalRunCount());
     }
 
+    /**
+     * Test of intersectionCount and intersects methods, of class RunTable.
+     */
+    @Test
+    public void testIntersects ()
+    {
+        System.out.println("\n+++ intersects");
+
+        final Random random = new Random(123);
+
+        for (Orientation orientation : Orientation.values()) {
+            for (int n = 0; n < 200; n++) {
+                final RunTable one = createRandomInstance(random, orientation, 7, 6);
+                final RunTable two = createRandomInstance(random, orientation, 5, 8);
+                final Point oneOrigin = new Point(random.nextInt(5), random.nextInt(5));
+                final Point twoOrigin = new Point(random.nextInt(5), random.nextInt(5));
+
+                int count = 0;
+                boolean touch = false;
+
+                for (int x = 0; x < 12; x++) {
+                    for (int y = 0; y < 14; y++) {
+                        if (isSet(two, twoOrigin, x, y)) {
+                            if (isSet(one, oneOrigin, x, y)) {
+                                count++;
+                            }
+
+                            touch |= (isSet(one, oneOrigin, x, y) || isSet(one, oneOrigin, x - 1, y)
+                                      || isSet(one, oneOrigin, x + 1, y)
+                                      || isSet(one, oneOrigin, x, y - 1)
+                                      || isSet(one, oneOrigin, x, y + 1));
+                        }
+                    }
+                }
+
+                assertEquals(count, one.intersectionCount(oneOrigin, two, twoOrigin));
+                assertEquals(count > 0, one.intersects(oneOrigin, two, twoOrigin, false));
+                assertEquals(touch, one.intersects(oneOrigin, two, twoOrigin, true));
+            }
+        }
+    }
+
+    /**
+     * Test of merge method, of class RunTable.
+     */
+    @Test
+    public void testMerge ()
+    {
+        System.out.println("\n+++ merge");
+
+        final Random random = new Random(456);
+
+        for (Orientation orientation : Orientation.values()) {
+            for (int n = 0; n < 100; n++) {
+                final List<RunTable> tables = new ArrayList<>();
+                final List<Point> origins = new ArrayList<>();
+                final Rectangle box = new Rectangle(10, 20, 0, 0);
+
+                for (int t = 0; t < 3; t++) {
+                    final RunTable table = createRandomInstance(random, orientation, 6, 5);
+                    final Point origin = new Point(10 + random.nextInt(6), 20 + random.nextInt(6));
+                    tables.add(table);
+                    origins.add(origin);
+                    box.add(new Rectangle(origin, table.getDimension()));
+                }
+
+                final ByteProcessor buffer = new ByteProcessor(box.width, box.height);
+                ByteUtil.raz(buffer);
+
+                for (int t = 0; t < tables.size(); t++) {
+                    tables.get(t).write(buffer, origins.get(t).x - box.x, origins.get(t).y - box.y);
+                }
+
+                final RunTable expResult = new RunTableFactory(orientation).createTable(buffer);
+                final RunTable result = RunTable.merge(orientation, box, tables, origins);
+                assertEquals(expResult, result);
+            }
+        }
+    }
+
     /**
      * Test of purge method, of class RunTable.
      */
@@ -528,6 +656,46 @@ public class RunTableTest
         return instance;
     }
 
+    //----------------------//
+    // createRandomInstance //
+    //----------------------//
+    private RunTable createRandomInstance (Random random,
+                                           Orientation orientation,
+                                           int width,
+                                           int height)
+    {
+        final ByteProcessor buffer = new ByteProcessor(width, height);
+        ByteUtil.raz(buffer);
+
+        for (int x = 0; x < width; x++) {
+            for (int y = 0; y < height; y++) {
+                if (random.nextInt(3) == 0) {
+                    buffer.set(x, y, 0);
+                }
+            }
+        }
+
+        return new RunTableFactory(orientation).createTable(buffer);
+    }
+
+    //-------//
+    // isSet //
+    //-------//
+    private boolean isSet (RunTable table,
+                           Point origin,
+                           int x,
+                           int y)
+    {
+        final int dx = x - origin.x;
+        final int dy = y - origin.y;
+
+        if ((dx < 0) || (dy < 0) || (dx >= table.getWidth()) || (dy >= table.getHeight())) {
+            return false;
+        }
+
+        return table.get(dx, dy) == 0;
+    }
+
     //------------------------//
     // createVerticalInstance //
     //------------------------//
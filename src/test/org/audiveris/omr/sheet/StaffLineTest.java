@@ -0,0 +1,92 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                                   S t a f f L i n e T e s t                                    //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.sheet;
+
+import org.audiveris.omr.math.NaturalSpline;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+import java.awt.geom.Point2D;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Class {@code StaffLineTest} checks the ordinates of a final staff line against its
+ * defining spline.
+ *
+ * @author Hervé Bitteur
+ */
+public class StaffLineTest
+{
+
+    /** Tolerance on double ordinates. */
+    private static final double EPSILON = 1e-9;
+
+    /**
+     * Creates a new {@code StaffLineTest} object.
+     */
+    public StaffLineTest ()
+    {
+    }
+
+    @Test
+    public void testYAt ()
+    {
+        System.out.println("\n+++ yAt");
+
+        final List<Point2D> points = new ArrayList<>();
+
+        for (int i = 0; i <= 10; i++) {
+            final double x = 10.4 + (i * 97.3);
+            points.add(new Point2D.Double(x, 200 + (8 * Math.sin(x / 150)) + (0.02 * x)));
+        }
+
+        final StaffLine line = new StaffLine(points, 3.0);
+        final NaturalSpline spline = NaturalSpline.interpolate(points);
+        final double xMin = points.get(0).getX();
+        final double xMax = points.get(points.size() - 1).getX();
+
+        // Within line range, integer and fractional abscissae both match the spline
+        for (int x = (int) Math.ceil(xMin); x <= xMax; x++) {
+            final double y = spline.yAtX((double) x);
+            assertEquals("x:" + x, (int) Math.rint(y), line.yAt(x));
+            assertEquals("x:" + x, y, line.yAt((double) x), EPSILON);
+
+            final double xx = x + 0.37;
+
+            if (xx <= xMax) {
+                assertEquals("x:" + xx, spline.yAtX(xx), line.yAt(xx), EPSILON);
+            }
+        }
+
+        // Beyond line range, ordinates are extrapolated with global slope
+        final double slope = (points.get(points.size() - 1).getY() - points.get(0).getY())
+                                     / (xMax - xMin);
+
+        for (int x : new int[]{0, 5, 1050, 1100}) {
+            final double y = points.get(0).getY() + (slope * (x - xMin));
+            assertEquals("x:" + x, (int) Math.rint(y), line.yAt(x));
+            assertEquals("x:" + x, y, line.yAt((double) x), EPSILON);
+        }
+    }
+}
@@ -0,0 +1,165 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                             P a r t i t i o n S o l v e r T e s t                              //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.sig;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class {@code PartitionSolverTest} checks the best partitions against an exhaustive
+ * enumeration.
+ *
+ * @author Hervé Bitteur
+ */
+public class PartitionSolverTest
+{
+
+    /**
+     * Creates a new {@code PartitionSolverTest} object.
+     */
+    public PartitionSolverTest ()
+    {
+    }
+
+    @Test
+    public void testChain ()
+    {
+        System.out.println("\n+++ chain");
+
+        // 0 - 1 - 2 : best is {0, 2}, then {1}
+        final PartitionSolver solver = new PartitionSolver(new double[]{0.6, 0.5, 0.4});
+        solver.addConflict(0, 1);
+        solver.addConflict(1, 2);
+
+        final List<int[]> partitions = solver.solve(5);
+        assertEquals(2, partitions.size());
+        assertArrayEquals(new int[]{0, 2}, partitions.get(0));
+        assertArrayEquals(new int[]{1}, partitions.get(1));
+    }
+
+    @Test
+    public void testRandom ()
+    {
+        System.out.println("\n+++ random");
+
+        final Random random = new Random(123);
+
+        for (int loop = 0; loop < 200; loop++) {
+            final int n = 1 + random.nextInt(12);
+            final double[] weights = new double[n];
+
+            for (int i = 0; i < n; i++) {
+                weights[i] = random.nextDouble();
+            }
+
+            final boolean[][] conflicts = new boolean[n][n];
+            final PartitionSolver solver = new PartitionSolver(weights);
+
+            for (int i = 0; i < n; i++) {
+                for (int j = i + 1; j < n; j++) {
+                    if (random.nextDouble() < 0.3) {
+                        conflicts[i][j] = conflicts[j][i] = true;
+                        solver.addConflict(i, j);
+                    }
+                }
+            }
+
+            final int k = 1 + random.nextInt(4);
+            final List<int[]> partitions = solver.solve(k);
+            final List<Double> expected = exhaustiveScores(weights, conflicts);
+
+            assertEquals(Math.min(k, expected.size()), partitions.size());
+
+            for (int p = 0; p < partitions.size(); p++) {
+                assertEquals(expected.get(p), score(weights, partitions.get(p)), 1e-9);
+            }
+        }
+    }
+
+    //------------------//
+    // exhaustiveScores //
+    //------------------//
+    /**
+     * Scores of all maximal partitions, by decreasing value.
+     */
+    private static List<Double> exhaustiveScores (double[] weights,
+                                                  boolean[][] conflicts)
+    {
+        final int n = weights.length;
+        final List<Double> scores = new ArrayList<>();
+
+        for (int mask = 1; mask < (1 << n); mask++) {
+            boolean ok = true;
+
+            for (int i = 0; ok && (i < n); i++) {
+                final boolean in = (mask & (1 << i)) != 0;
+                boolean blocked = false;
+
+                for (int j = 0; j < n; j++) {
+                    if (conflicts[i][j] && ((mask & (1 << j)) != 0)) {
+                        blocked = true;
+                    }
+                }
+
+                // Chosen items must not conflict, others must be blocked (maximality)
+                ok = in ? !blocked : blocked;
+            }
+
+            if (ok) {
+                double score = 0;
+
+                for (int i = 0; i < n; i++) {
+                    if ((mask & (1 << i)) != 0) {
+                        score += weights[i];
+                    }
+                }
+
+                scores.add(score);
+            }
+        }
+
+        Collections.sort(scores, Collections.reverseOrder());
+
+        return scores;
+    }
+
+    //-------//
+    // score //
+    //-------//
+    private static double score (double[] weights,
+                                 int[] indices)
+    {
+        double score = 0;
+
+        for (int i : indices) {
+            score += weights[i];
+        }
+
+        return score;
+    }
+}
@@ -0,0 +1,424 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                                    S i g I n d e x T e s t                                     //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.sig;
+
+import org.audiveris.omr.glyph.Shape;
+import org.audiveris.omr.run.Orientation;
+import org.audiveris.omr.run.RunTable;
+import org.audiveris.omr.sheet.Book;
+import org.audiveris.omr.sheet.Sheet;
+import org.audiveris.omr.sheet.SheetStub;
+import org.audiveris.omr.sheet.Staff;
+import org.audiveris.omr.sheet.StaffLine;
+import org.audiveris.omr.sheet.SystemInfo;
+import org.audiveris.omr.sheet.grid.LineInfo;
+import org.audiveris.omr.sig.inter.AbstractChordInter;
+import org.audiveris.omr.sig.inter.BarlineInter;
+import org.audiveris.omr.sig.inter.Inter;
+import org.audiveris.omr.sig.inter.InterEnsemble;
+import org.audiveris.omr.sig.inter.RestChordInter;
+import org.audiveris.omr.sig.inter.RestInter;
+import org.audiveris.omr.sig.inter.StaffBarlineInter;
+import org.audiveris.omr.sig.relation.Containment;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import org.junit.Test;
+
+import java.awt.Point;
+import java.awt.Rectangle;
+import java.awt.geom.Area;
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Class {@code SigIndexTest} checks SIG indexed lookups against a linear scan of all
+ * vertices, while inters and ensemble members are added, modified and removed.
+ *
+ * @author Hervé Bitteur
+ */
+public class SigIndexTest
+{
+
+    private static final int INTERLINE = 20;
+
+    private static final Class[] CLASSES = new Class[]{
+        BarlineInter.class, StaffBarlineInter.class, RestInter.class, RestChordInter.class
+    };
+
+    private final Random random = new Random(789);
+
+    private final List<Staff> staves = new ArrayList<>();
+
+    private SIGraph sig;
+
+    /**
+     * Creates a new {@code SigIndexTest} object.
+     */
+    public SigIndexTest ()
+    {
+    }
+
+    @Test
+    public void testEnsembleMembers ()
+    {
+        System.out.println("\n+++ ensembleMembers");
+
+        buildSystem();
+
+        final Staff staff1 = staves.get(0);
+        final Staff staff2 = staves.get(1);
+
+        // Barline ensemble, indexed while it has a single member
+        final BarlineInter b1 = addBar(100, staff1);
+        final StaffBarlineInter sb = new StaffBarlineInter(Shape.THIN_BARLINE, 0.5);
+        sig.addVertex(sb);
+        sb.addMember(b1);
+        checkAll();
+
+        final BarlineInter b2 = addBar(700, staff1);
+        sb.addMember(b2);
+        assertEquals(
+                Arrays.asList(sb, b2),
+                sig.intersectedInters(new Rectangle(690, 0, 20, 1000)));
+        checkAll();
+
+        sb.removeMember(b1);
+        assertEquals(Arrays.asList(b1), sig.intersectedInters(new Rectangle(90, 0, 20, 1000)));
+        checkAll();
+
+        // Chord ensemble, whose staff is derived from its notes
+        final RestInter r1 = addRest(300, staff1);
+        final RestChordInter chord = new RestChordInter(0.5);
+        sig.addVertex(chord);
+        chord.addMember(r1);
+        assertEquals(staff1, chord.getStaff());
+        checkAll();
+
+        final RestInter r2 = addRest(300, staff2);
+        chord.addMember(r2);
+        assertNull(chord.getStaff());
+        checkAll();
+
+        chord.removeMember(r1);
+        assertEquals(staff2, chord.getStaff());
+        assertEquals(Arrays.asList(chord, r2), sig.inters(staff2, null));
+        checkAll();
+    }
+
+    @Test
+    public void testRandom ()
+    {
+        System.out.println("\n+++ random");
+
+        buildSystem();
+
+        final List<InterEnsemble> ensembles = new ArrayList<>();
+
+        for (int loop = 0; loop < 400; loop++) {
+            final Staff staff = staves.get(random.nextInt(staves.size()));
+            final int x = 20 + random.nextInt(1400);
+            final int action = random.nextInt(10);
+
+            if (action < 3) {
+                addBar(x, staff);
+            } else if (action < 5) {
+                addRest(x, staff);
+            } else if (action < 6) {
+                // Ensembles are never left empty, since bounds are then unknown
+                final InterEnsemble ensemble;
+
+                if (random.nextBoolean()) {
+                    ensemble = new StaffBarlineInter(Shape.THIN_BARLINE, 0.5);
+                    sig.addVertex(ensemble);
+                    ensemble.addMember(addBar(x, staff));
+                } else {
+                    ensemble = new RestChordInter(0.5);
+                    sig.addVertex(ensemble);
+                    ensemble.addMember(addRest(x, staff));
+                }
+
+                ensembles.add(ensemble);
+            } else if ((action < 8) && !ensembles.isEmpty()) {
+                // Add or remove a member, perhaps in another staff
+                final InterEnsemble ensemble = ensembles.get(random.nextInt(ensembles.size()));
+                final List<Inter> members = ensemble.getMembers();
+
+                if ((members.size() > 1) && random.nextBoolean()) {
+                    ensemble.removeMember(members.get(random.nextInt(members.size())));
+                } else if (ensemble instanceof StaffBarlineInter) {
+                    ensemble.addMember(addBar(x, staff));
+                } else {
+                    ensemble.addMember(addRest(x, staff));
+                }
+            } else if (action < 9) {
+                // Move or re-assign an existing inter
+                final Inter inter = randomInter();
+
+                if ((inter != null) && !(inter instanceof InterEnsemble)) {
+                    if (random.nextBoolean()) {
+                        inter.setBounds(new Rectangle(x, staff.getFirstLine().yAt(x), 10, 30));
+                    } else {
+                        inter.setStaff(staff);
+                    }
+                }
+            } else {
+                // Remove an inter, unless it is an ensemble member
+                final Inter inter = randomInter();
+
+                if ((inter != null) && sig.getRelations(inter, Containment.class).isEmpty()) {
+                    inter.remove();
+                    ensembles.remove(inter);
+                }
+            }
+
+            if ((loop % 5) == 0) {
+                checkAll();
+            }
+        }
+
+        checkAll();
+    }
+
+    //--------//
+    // addBar //
+    //--------//
+    private BarlineInter addBar (int x,
+                                 Staff staff)
+    {
+        final int y1 = staff.getFirstLine().yAt(x);
+        final int y2 = staff.getLastLine().yAt(x);
+        final BarlineInter bar = new BarlineInter(
+                null,
+                Shape.THIN_BARLINE,
+                0.5,
+                new Line2D.Double(x, y1, x, y2),
+                3.0);
+        bar.setStaff(staff);
+        sig.addVertex(bar);
+
+        return bar;
+    }
+
+    //---------//
+    // addRest //
+    //---------//
+    private RestInter addRest (int x,
+                               Staff staff)
+    {
+        final RestInter rest = new RestInter(null, Shape.QUARTER_REST, 0.5, staff, 0.0);
+        rest.setBounds(new Rectangle(x - 5, staff.getLines().get(2).yAt(x) - 15, 10, 30));
+        sig.addVertex(rest);
+
+        return rest;
+    }
+
+    //-------------//
+    // buildSystem //
+    //-------------//
+    private void buildSystem ()
+    {
+        final Book book = new Book(Paths.get("SigIndexTest.png"));
+        final SheetStub stub = new SheetStub(book, 1);
+        final Sheet sheet = new Sheet(stub, new RunTable(Orientation.VERTICAL, 1600, 1000));
+
+        for (int i = 0; i < 2; i++) {
+            final List<LineInfo> lines = new ArrayList<>();
+            final int top = 200 + (i * 300);
+
+            for (int l = 0; l < 5; l++) {
+                final List<Point2D> points = new ArrayList<>();
+                points.add(new Point2D.Double(10, top + (l * INTERLINE)));
+                points.add(new Point2D.Double(1500, top + (l * INTERLINE) + 4));
+                lines.add(new StaffLine(points, 2.0));
+            }
+
+            staves.add(new Staff(i + 1, 10, 1500, INTERLINE, lines));
+        }
+
+        sig = new SystemInfo(1, sheet, staves).getSig();
+    }
+
+    //----------//
+    // checkAll //
+    //----------//
+    private void checkAll ()
+    {
+        for (int i = 0; i < 10; i++) {
+            final Rectangle box = new Rectangle(
+                    random.nextInt(1600) - 50,
+                    random.nextInt(900) - 50,
+                    random.nextInt(400),
+                    random.nextInt(400));
+            assertEquals(scanIntersected(box), sig.intersectedInters(box));
+            assertEquals(scanContained(box), sig.containedInters(box));
+
+            final Point point = new Point(box.x + (box.width / 2), box.y + (box.height / 2));
+            assertEquals(scanContaining(point), sig.containingInters(point));
+        }
+
+        for (Staff staff : staves) {
+            assertEquals(scanStaff(staff, null), sig.inters(staff));
+
+            for (Class classe : CLASSES) {
+                assertEquals(scanStaff(staff, classe), sig.inters(staff, classe));
+            }
+        }
+
+        for (Class classe : CLASSES) {
+            assertEquals(scanClass(classe), sig.inters(classe));
+        }
+
+        assertEquals(scanClass(AbstractChordInter.class), sig.inters(AbstractChordInter.class));
+
+        for (Shape shape : new Shape[]{Shape.THIN_BARLINE, Shape.QUARTER_REST, null}) {
+            assertEquals(scanShape(shape), sig.inters(shape));
+        }
+    }
+
+    //-------------//
+    // randomInter //
+    //-------------//
+    private Inter randomInter ()
+    {
+        final List<Inter> inters = new ArrayList<>(sig.vertexSet());
+
+        return inters.isEmpty() ? null : inters.get(random.nextInt(inters.size()));
+    }
+
+    //-----------//
+    // scanClass //
+    //-----------//
+    private List<Inter> scanClass (Class classe)
+    {
+        final List<Inter> found = new ArrayList<>();
+
+        for (Inter inter : sig.vertexSet()) {
+            if (!inter.isRemoved() && classe.isInstance(inter)) {
+                found.add(inter);
+            }
+        }
+
+        return found;
+    }
+
+    //---------------//
+    // scanContained //
+    //---------------//
+    private List<Inter> scanContained (Rectangle rect)
+    {
+        final List<Inter> found = new ArrayList<>();
+
+        for (Inter inter : sig.vertexSet()) {
+            final Rectangle box = inter.getBounds();
+
+            if ((box != null) && rect.contains(box)) {
+                found.add(inter);
+            }
+        }
+
+        return found;
+    }
+
+    //----------------//
+    // scanContaining //
+    //----------------//
+    private List<Inter> scanContaining (Point point)
+    {
+        final List<Inter> found = new ArrayList<>();
+
+        for (Inter inter : sig.vertexSet()) {
+            final Rectangle box = inter.getBounds();
+
+            if ((box != null) && box.contains(point)) {
+                final Area area = inter.getArea();
+
+                if ((area == null) || area.contains(point)) {
+                    found.add(inter);
+                }
+            }
+        }
+
+        return found;
+    }
+
+    //-----------------//
+    // scanIntersected //
+    //-----------------//
+    private List<Inter> scanIntersected (Rectangle rect)
+    {
+        final List<Inter> found = new ArrayList<>();
+
+        for (Inter inter : sig.vertexSet()) {
+            if (!inter.isRemoved()) {
+                final Rectangle box = inter.getBounds();
+
+                if ((box != null) && box.intersects(rect)) {
+                    found.add(inter);
+                }
+            }
+        }
+
+        return found;
+    }
+
+    //-----------//
+    // scanShape //
+    //-----------//
+    private List<Inter> scanShape (Shape shape)
+    {
+        final List<Inter> found = new ArrayList<>();
+
+        for (Inter inter : sig.vertexSet()) {
+            if (!inter.isRemoved() && (inter.getShape() == shape)) {
+                found.add(inter);
+            }
+        }
+
+        return found;
+    }
+
+    //-----------//
+    // scanStaff //
+    //-----------//
+    private List<Inter> scanStaff (Staff staff,
+                                   Class classe)
+    {
+        final List<Inter> found = new ArrayList<>();
+
+        for (Inter inter : sig.vertexSet()) {
+            if ((classe == null) && (inter.getStaff() == staff)) {
+                found.add(inter);
+            } else if ((classe != null) && !inter.isRemoved() && (inter.getStaff() == staff)
+                       && classe.isInstance(inter)) {
+                found.add(inter);
+            }
+        }
+
+        return found;
+    }
+}
@@ -0,0 +1,322 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                                  S i g R e d u c e r T e s t                                   //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.sig;
+
+import org.audiveris.omr.glyph.Shape;
+import org.audiveris.omr.run.Orientation;
+import org.audiveris.omr.run.RunTable;
+import org.audiveris.omr.sheet.Book;
+import org.audiveris.omr.sheet.Sheet;
+import org.audiveris.omr.sheet.SheetStub;
+import org.audiveris.omr.sheet.Staff;
+import org.audiveris.omr.sheet.StaffLine;
+import org.audiveris.omr.sheet.SystemInfo;
+import org.audiveris.omr.sheet.grid.LineInfo;
+import org.audiveris.omr.sig.inter.BarlineInter;
+import org.audiveris.omr.sig.inter.Inter;
+import org.audiveris.omr.sig.relation.Exclusion;
+import org.audiveris.omr.sig.relation.Relation;
+import org.audiveris.omr.sig.relation.Support;
+
+import static org.junit.Assert.assertEquals;
+import org.junit.Test;
+
+import java.awt.geom.Line2D;
+import java.awt.geom.Point2D;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+/**
+ * Class {@code SigReducerTest} checks that the contextual grades updated incrementally,
+ * using the inters reported by {@link SigReducer.Tracker}, are equal to the contextual grades
+ * fully recomputed, and that the exclusions known by the tracker are those of the SIG, while
+ * inters, supports and exclusions are added and removed.
+ *
+ * @author Hervé Bitteur
+ */
+public class SigReducerTest
+{
+
+    private static final int INTERLINE = 20;
+
+    private final Random random = new Random(321);
+
+    private Staff staff;
+
+    private SIGraph sig;
+
+    /**
+     * Creates a new {@code SigReducerTest} object.
+     */
+    public SigReducerTest ()
+    {
+    }
+
+    @Test
+    public void testTracker ()
+    {
+        System.out.println("\n+++ tracker");
+
+        buildSystem();
+
+        for (int i = 0; i < 20; i++) {
+            addBar();
+        }
+
+        for (int i = 0; i < 30; i++) {
+            addSupport();
+            addExclusion();
+        }
+
+        sig.contextualize();
+
+        final SigReducer.Tracker tracker = new SigReducer.Tracker(sig);
+        sig.addGraphListener(tracker);
+
+        for (int step = 0; step < 500; step++) {
+            for (int i = random.nextInt(3); i >= 0; i--) {
+                switch (random.nextInt(5)) {
+                case 0:
+                    addBar();
+
+                    break;
+
+                case 1:
+                    addSupport();
+
+                    break;
+
+                case 2:
+                    addExclusion();
+
+                    break;
+
+                case 3:
+                    removeRelation();
+
+                    break;
+
+                default:
+                    removeInter();
+                }
+            }
+
+            for (Inter inter : tracker.getImpacted()) {
+                sig.computeContextualGrade(inter);
+            }
+
+            checkGrades("step:" + step);
+            assertEquals(
+                    "step:" + step,
+                    new ArrayList<>(sig.exclusions()),
+                    new ArrayList<>(tracker.getExclusions()));
+        }
+
+        sig.removeGraphListener(tracker);
+    }
+
+    //--------//
+    // addBar //
+    //--------//
+    private void addBar ()
+    {
+        final int x = 20 + random.nextInt(1460);
+        final int y1 = staff.getFirstLine().yAt(x);
+        final int y2 = staff.getLastLine().yAt(x);
+        final BarlineInter bar = new BarlineInter(
+                null,
+                Shape.THIN_BARLINE,
+                0.1 + (0.8 * random.nextDouble()),
+                new Line2D.Double(x, y1, x, y2),
+                3.0);
+        bar.setStaff(staff);
+        sig.addVertex(bar);
+    }
+
+    //--------------//
+    // addExclusion //
+    //--------------//
+    private void addExclusion ()
+    {
+        final Inter[] pair = pickFreePair();
+
+        if (pair != null) {
+            sig.insertExclusion(pair[0], pair[1], Exclusion.Cause.OVERLAP);
+        }
+    }
+
+    //------------//
+    // addSupport //
+    //------------//
+    private void addSupport ()
+    {
+        final Inter[] pair = pickFreePair();
+
+        if (pair != null) {
+            sig.addEdge(pair[0], pair[1], new TestSupport(0.1 + (0.9 * random.nextDouble())));
+        }
+    }
+
+    //-------------//
+    // buildSystem //
+    //-------------//
+    private void buildSystem ()
+    {
+        final Book book = new Book(Paths.get("SigReducerTest.png"));
+        final SheetStub stub = new SheetStub(book, 1);
+        final Sheet sheet = new Sheet(stub, new RunTable(Orientation.VERTICAL, 1600, 1000));
+        final List<LineInfo> lines = new ArrayList<>();
+
+        for (int l = 0; l < 5; l++) {
+            final List<Point2D> points = new ArrayList<>();
+            points.add(new Point2D.Double(10, 200 + (l * INTERLINE)));
+            points.add(new Point2D.Double(1500, 200 + (l * INTERLINE) + 4));
+            lines.add(new StaffLine(points, 2.0));
+        }
+
+        staff = new Staff(1, 10, 1500, INTERLINE, lines);
+        sig = new SystemInfo(1, sheet, Arrays.asList(staff)).getSig();
+    }
+
+    //-------------//
+    // checkGrades //
+    //-------------//
+    /**
+     * Check current contextual grades against a full recompute.
+     */
+    private void checkGrades (String context)
+    {
+        final Map<Inter, Double> grades = new HashMap<>();
+
+        for (Inter inter : sig.vertexSet()) {
+            grades.put(inter, inter.getContextualGrade());
+        }
+
+        sig.contextualize();
+
+        for (Inter inter : sig.vertexSet()) {
+            assertEquals(
+                    context + " " + inter,
+                    inter.getContextualGrade(),
+                    grades.get(inter),
+                    0.0);
+        }
+    }
+
+    //--------------//
+    // pickFreePair //
+    //--------------//
+    /**
+     * Pick two distinct inters, not yet related.
+     *
+     * @return the pair, or null if none was found
+     */
+    private Inter[] pickFreePair ()
+    {
+        final List<Inter> inters = new ArrayList<>(sig.vertexSet());
+
+        if (inters.size() < 2) {
+            return null;
+        }
+
+        for (int attempt = 0; attempt < 10; attempt++) {
+            final Inter one = inters.get(random.nextInt(inters.size()));
+            final Inter two = inters.get(random.nextInt(inters.size()));
+
+            if ((one != two) && (sig.getEdge(one, two) == null)
+                        && (sig.getEdge(two, one) == null)) {
+                return new Inter[]{one, two};
+            }
+        }
+
+        return null;
+    }
+
+    //-------------//
+    // removeInter //
+    //-------------//
+    private void removeInter ()
+    {
+        final List<Inter> inters = new ArrayList<>(sig.vertexSet());
+
+        if (inters.size() > 5) {
+            inters.get(random.nextInt(inters.size())).remove();
+        }
+    }
+
+    //----------------//
+    // removeRelation //
+    //----------------//
+    private void removeRelation ()
+    {
+        final List<Relation> relations = new ArrayList<>(sig.edgeSet());
+
+        if (!relations.isEmpty()) {
+            sig.removeEdge(relations.get(random.nextInt(relations.size())));
+        }
+    }
+
+    //-------------//
+    // TestSupport //
+    //-------------//
+    /**
+     * A plain support relation, with the same coefficient on both sides.
+     */
+    private static class TestSupport
+            extends Support
+    {
+
+        TestSupport (double grade)
+        {
+            super(grade);
+        }
+
+        @Override
+        public boolean isSingleSource ()
+        {
+            return false;
+        }
+
+        @Override
+        public boolean isSingleTarget ()
+        {
+            return false;
+        }
+
+        @Override
+        protected double getSourceCoeff ()
+        {
+            return 2;
+        }
+
+        @Override
+        protected double getTargetCoeff ()
+        {
+            return 2;
+        }
+    }
+}
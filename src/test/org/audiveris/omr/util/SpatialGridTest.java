@@ -0,0 +1,93 @@
+//------------------------------------------------------------------------------------------------//
+//                                                                                                //
+//                                 S p a t i a l G r i d T e s t                                  //
+//                                                                                                //
+//------------------------------------------------------------------------------------------------//
+// <editor-fold defaultstate="collapsed" desc="hdr">
+//
+//  Copyright © Audiveris 2018. All rights reserved.
+//
+//  This program is free software: you can redistribute it and/or modify it under the terms of the
+//  GNU Affero General Public License as published by the Free Software Foundation, either version
+//  3 of the License, or (at your option) any later version.
+//
+//  This program is distributed in the hope that it will be useful, but WITHOUT ANY WARRANTY;
+//  without even the implied warranty of MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.
+//  See the GNU Affero General Public License for more details.
+//
+//  You should have received a copy of the GNU Affero General Public License along with this
+//  program.  If not, see <http://www.gnu.org/licenses/>.
+//------------------------------------------------------------------------------------------------//
+// </editor-fold>
+package org.audiveris.omr.util;
+
+import static org.junit.Assert.*;
+import org.junit.Test;
+
+import java.awt.Rectangle;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.SortedSet;
+
+/**
+ * Unit test for {@link SpatialGrid}.
+ *
+ * @author Hervé Bitteur
+ */
+public class SpatialGridTest
+{
+
+    /**
+     * Creates a new {@code SpatialGridTest} object.
+     */
+    public SpatialGridTest ()
+    {
+    }
+
+    /**
+     * Test of candidates method, of class SpatialGrid.
+     */
+    @Test
+    public void testCandidates ()
+    {
+        System.out.println("\n+++ candidates");
+
+        final Random random = new Random(789);
+        final SpatialGrid grid = new SpatialGrid();
+        final List<Rectangle> boxes = new ArrayList<>();
+
+        for (int id = 0; id < 2000; id++) {
+            final Rectangle box = new Rectangle(
+                    random.nextInt(4000) - 100,
+                    random.nextInt(4000) - 100,
+                    1 + random.nextInt(300),
+                    1 + random.nextInt(300));
+            boxes.add(box);
+            grid.add(id, box);
+        }
+
+        // Remove one third of entities
+        for (int id = 0; id < boxes.size(); id += 3) {
+            grid.remove(id);
+        }
+
+        for (int n = 0; n < 200; n++) {
+            final Rectangle area = new Rectangle(
+                    random.nextInt(4000) - 100,
+                    random.nextInt(4000) - 100,
+                    1 + random.nextInt(200),
+                    1 + random.nextInt(200));
+            final SortedSet<Integer> ids = grid.candidates(area);
+            assertNotNull(ids);
+
+            for (int id = 0; id < boxes.size(); id++) {
+                if ((id % 3) == 0) {
+                    assertFalse(ids.contains(id));
+                } else if (boxes.get(id).intersects(area)) {
+                    assertTrue(ids.contains(id));
+                }
+            }
+        }
+    }
+}